@@ -4,6 +4,8 @@ import io.swagger.annotations.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +18,7 @@ import ru.iteco.project.resource.dto.ResponseError;
 import ru.iteco.project.resource.searching.ClientSearchDto;
 import springfox.documentation.annotations.ApiIgnore;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +46,26 @@ public interface ClientResource {
     ResponseEntity<List<ClientDtoResponse>> getAllClients();
 
 
+    /**
+     * Контроллер выгружает всех пользователей в формате NDJSON. Пользователи записываются в ответ по мере чтения из БД
+     *
+     * @return - потоковый ответ с объектами ClientDtoResponse
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Потоковая выгрузка всех пользователей")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Поток пользователей, доступных вызывающей стороне, в формате NDJSON",
+                    response = ClientDtoResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<?> exportClients();
+
+
     /**
      * Эндпоинт с реализацией пагинации и сортировки результатов поиска
      *
@@ -134,6 +157,7 @@ public interface ClientResource {
      *
      * @param id               - уникальный идентификатор пользователя
      * @param clientDtoRequest - тело запроса с данными для обновления
+     * @param ifMatch          - версия записи из ETag, при несовпадении с текущей обновление отклоняется
      */
     @PutMapping(value = "/{id}")
     @ApiOperation(value = "Обновление пользователя")
@@ -146,13 +170,20 @@ public interface ClientResource {
                     response = ResponseError.class),
             @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
                     response = ResponseError.class),
+            @ApiResponse(code = 409, message = "Запись изменена другим запросом во время обновления",
+                    response = ResponseError.class),
+            @ApiResponse(code = 412, message = "Версия записи в заголовке If-Match не совпадает с текущей",
+                    response = ResponseError.class),
             @ApiResponse(code = 422, message = "Серверу не удалось обработать инструкции содержимого тела запроса",
                     response = ResponseError.class)
     })
     ResponseEntity<? extends ClientBaseDto> updateClient(@ApiParam(value = "Идентификатор пользователя", required = true)
                                                          @PathVariable UUID id,
                                                          @Validated @RequestBody ClientDtoRequest clientDtoRequest,
-                                                         BindingResult result);
+                                                         BindingResult result,
+                                                         @ApiParam(value = "ETag пользователя, полученный при чтении")
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                                 String ifMatch);
 
 
     /**
@@ -182,6 +213,34 @@ public interface ClientResource {
                                                                @RequestParam(name = "val") String val);
 
 
+    /**
+     * Изменяет баланс кошелька существующего пользователя {id} на заданную сумму
+     *
+     * @param id     - уникальный идентификатор пользователя
+     * @param amount - сумма изменения: положительная - зачисление, отрицательная - списание
+     * @return - данные клиента в объекте ClientBaseDto с обновленным балансом
+     */
+    @PostMapping(value = "/{id}/wallet")
+    @ApiOperation(value = "Пополнение или списание средств кошелька пользователя")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Баланс кошелька пользователя успешно изменен",
+                    response = ClientDtoResponse.class, responseContainer = "ResponseEntity"),
+            @ApiResponse(code = 400, message = "Нулевая сумма или недостаточно средств для списания",
+                    response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class),
+            @ApiResponse(code = 404, message = "Запись с заданным id не найдена",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<? extends ClientBaseDto> changeClientWallet(@ApiParam(value = "Идентификатор пользователя", required = true)
+                                                               @PathVariable UUID id,
+                                                               @ApiParam(value = "Сумма изменения баланса", required = true)
+                                                               @RequestParam(name = "amount") BigDecimal amount);
+
+
     /**
      * Удаляет пользователя с заданным id
      *
@@ -4,6 +4,8 @@ import io.swagger.annotations.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -43,6 +45,26 @@ public interface ContractResource {
     ResponseEntity<List<ContractDtoResponse>> getAllContracts();
 
 
+    /**
+     * Контроллер выгружает все контракты в формате NDJSON. Контракты записываются в ответ по мере чтения из БД
+     *
+     * @return - потоковый ответ с объектами ContractDtoResponse
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Потоковая выгрузка всех контрактов")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Поток контрактов, доступных вызывающей стороне, в формате NDJSON",
+                    response = ContractDtoResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<?> exportContracts();
+
+
     /**
      * Контроллер возвращает ContractDtoResponse контракта с заданным id
      *
@@ -121,6 +143,8 @@ public interface ContractResource {
                     response = ResponseError.class),
             @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
                     response = ResponseError.class),
+            @ApiResponse(code = 409, message = "Задание уже принимается в работу другим исполнителем",
+                    response = ResponseError.class),
             @ApiResponse(code = 422, message = "Серверу не удалось обработать инструкции содержимого тела запроса",
                     response = ResponseError.class)
     })
@@ -133,6 +157,7 @@ public interface ContractResource {
      *
      * @param id                 - уникальный идентификатор контракта
      * @param contractDtoRequest - тело запроса с данными для обновления
+     * @param ifMatch            - версия записи из ETag, при несовпадении с текущей обновление отклоняется
      */
     @PutMapping(value = "/{id}")
     @ApiOperation(value = "Обновление контракта")
@@ -145,13 +170,20 @@ public interface ContractResource {
                     response = ResponseError.class),
             @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
                     response = ResponseError.class),
+            @ApiResponse(code = 409, message = "Запись изменена другим запросом во время обновления",
+                    response = ResponseError.class),
+            @ApiResponse(code = 412, message = "Версия записи в заголовке If-Match не совпадает с текущей",
+                    response = ResponseError.class),
             @ApiResponse(code = 422, message = "Серверу не удалось обработать инструкции содержимого тела запроса",
                     response = ResponseError.class)
     })
     ResponseEntity<? extends ContractBaseDto> updateContract(@Validated @RequestBody ContractDtoRequest contractDtoRequest,
                                                              @ApiParam(value = "Идентификатор контракта", required = true)
                                                              @PathVariable UUID id,
-                                                             BindingResult result);
+                                                             BindingResult result,
+                                                             @ApiParam(value = "ETag контракта, полученный при чтении")
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                                     String ifMatch);
 
     /**
      * Удаляет контракт с заданным id
@@ -4,6 +4,8 @@ import io.swagger.annotations.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -13,9 +15,12 @@ import ru.iteco.project.resource.dto.ResponseError;
 import ru.iteco.project.resource.dto.TaskBaseDto;
 import ru.iteco.project.resource.dto.TaskDtoRequest;
 import ru.iteco.project.resource.dto.TaskDtoResponse;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoRequest;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoResponse;
 import ru.iteco.project.resource.searching.TaskSearchDto;
 import springfox.documentation.annotations.ApiIgnore;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -47,6 +52,29 @@ public interface TaskResource {
                                                             @RequestParam(required = false) UUID clientId);
 
 
+    /**
+     * Контроллер выгружает все задания, а при наличии RequestParam {clientId} - задания пользователя
+     * с соответствующим id, в формате NDJSON. Задания записываются в ответ по мере чтения из БД
+     *
+     * @param clientId - уникальный идентификатор пользователя
+     * @return - потоковый ответ с объектами TaskDtoResponse
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Потоковая выгрузка всех заданий или заданий конкретного пользователя")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Поток заданий, доступных вызывающей стороне, в формате NDJSON",
+                    response = TaskDtoResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<?> exportTasks(@ApiParam(value = "Идентификатор пользователя")
+                                  @RequestParam(required = false) UUID clientId);
+
+
     /**
      * Контроллер возвращает TaskDtoResponse задания с заданным id
      *
@@ -134,11 +162,63 @@ public interface TaskResource {
                                                      UriComponentsBuilder componentsBuilder);
 
 
+    /**
+     * Пакетно создает задания для заказчика. Каждое задание проверяется отдельно, все прошедшие проверку задания
+     * создаются в одной транзакции
+     *
+     * @param taskDtoRequestList - список тел запросов на создание заданий
+     * @param componentsBuilder  - билдер для формирования url ресура
+     * @return - список результатов в порядке запросов: созданное задание в представлении TaskDtoResponse,
+     * или тело запроса с описанием ошибок, если задание не прошло проверку
+     */
+    @PostMapping(value = "/batch")
+    @ApiOperation(value = "Пакетное создание заданий")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Задания, прошедшие проверку, успешно созданы. " +
+                    "Результат по каждому заданию будет возвращен в теле ответа",
+                    response = List.class, responseContainer = "ResponseEntity"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class),
+            @ApiResponse(code = 422, message = "Ни одно задание не прошло проверку",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<List<? extends TaskBaseDto>> createBatchTask(@RequestBody ArrayList<TaskDtoRequest> taskDtoRequestList,
+                                                                UriComponentsBuilder componentsBuilder);
+
+
+    /**
+     * Пакетно переводит задания в новый статус. Задания выбираются по списку идентификаторов или по фильтру,
+     * переводятся только задания, исходный статус которых допускает переход
+     *
+     * @param transitionDtoRequest - новый статус и список идентификаторов или фильтр заданий
+     * @return - новый статус и идентификаторы переведенных заданий
+     */
+    @PatchMapping(value = "/batch/status")
+    @ApiOperation(value = "Пакетный перевод заданий в новый статус")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Задания, допускающие переход, переведены в новый статус",
+                    response = TaskStatusTransitionDtoResponse.class, responseContainer = "ResponseEntity"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<TaskStatusTransitionDtoResponse> updateTasksStatus(
+            @RequestBody TaskStatusTransitionDtoRequest transitionDtoRequest);
+
+
     /**
      * Обновляет существующее задание {id} от имени заказчика {clientId}
      *
      * @param id             - уникальный идентификатор задания
      * @param taskDtoRequest - тело запроса с данными для обновления
+     * @param ifMatch        - версия записи из ETag, при несовпадении с текущей обновление отклоняется
      */
     @PutMapping(value = "/{id}")
     @ApiOperation(value = "Обновление задания")
@@ -151,13 +231,20 @@ public interface TaskResource {
                     response = ResponseError.class),
             @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
                     response = ResponseError.class),
+            @ApiResponse(code = 409, message = "Запись изменена другим запросом во время обновления",
+                    response = ResponseError.class),
+            @ApiResponse(code = 412, message = "Версия записи в заголовке If-Match не совпадает с текущей",
+                    response = ResponseError.class),
             @ApiResponse(code = 422, message = "Серверу не удалось обработать инструкции содержимого тела запроса",
                     response = ResponseError.class)
     })
     ResponseEntity<? extends TaskBaseDto> updateTask(@ApiParam(value = "Идентификатор задания", required = true)
                                                      @PathVariable UUID id,
                                                      @Validated @RequestBody TaskDtoRequest taskDtoRequest,
-                                                     BindingResult result);
+                                                     BindingResult result,
+                                                     @ApiParam(value = "ETag задания, полученный при чтении")
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                             String ifMatch);
 
 
     /**
@@ -37,7 +37,9 @@ public class ClientBaseDto implements DtoInterface {
             allowableValues = "NOT_EXIST, CREATED, BLOCKED, ACTIVE")
     private String clientStatus;
 
-    @ApiModelProperty(value = "Кошелек пользователя", example = "1500", required = true)
+    @ApiModelProperty(value = "Кошелек пользователя. Задается при создании, при обновлении пользователя " +
+            "не изменяется: пополнение и списание выполняются через POST /clients/{id}/wallet",
+            example = "1500", required = true)
     private BigDecimal wallet = new BigDecimal(0);
 
 
@@ -18,6 +18,10 @@ public class ClientDtoResponse extends ClientBaseDto {
             required = true)
     private String updatedAt;
 
+    @ApiModelProperty(value = "Версия записи пользователя, передается в заголовке If-Match при обновлении",
+            example = "0", required = true)
+    private Long version;
+
     @ApiModelProperty(value = "Список id заданий пользователя", example = "[bf51c162-95f3-4e69-ab6d-7ff214430ba6]",
             required = true,
             allowEmptyValue = true)
@@ -46,4 +50,12 @@ public class ClientDtoResponse extends ClientBaseDto {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
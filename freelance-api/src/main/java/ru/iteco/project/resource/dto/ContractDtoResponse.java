@@ -13,6 +13,10 @@ public class ContractDtoResponse extends ContractBaseDto {
             required = true)
     private String updatedAt;
 
+    @ApiModelProperty(value = "Версия записи контракта, передается в заголовке If-Match при обновлении",
+            example = "0", required = true)
+    private Long version;
+
 
     public ContractDtoResponse() {
     }
@@ -32,4 +36,12 @@ public class ContractDtoResponse extends ContractBaseDto {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -19,6 +19,10 @@ public class TaskDtoResponse extends TaskBaseDto {
             required = true)
     private String updatedAt;
 
+    @ApiModelProperty(value = "Версия записи задания, передается в заголовке If-Match при обновлении",
+            example = "0", required = true)
+    private Long version;
+
 
     public TaskDtoResponse() {
     }
@@ -46,4 +50,12 @@ public class TaskDtoResponse extends TaskBaseDto {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,52 @@
+package ru.iteco.project.resource.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import ru.iteco.project.resource.searching.TaskSearchDto;
+
+import java.util.List;
+import java.util.UUID;
+
+@ApiModel(description = "Данные запроса пакетного перевода заданий в новый статус")
+public class TaskStatusTransitionDtoRequest implements DtoInterface {
+
+    @ApiModelProperty(value = "Новый статус заданий", example = "CANCELED", required = true,
+            allowableValues = "IN_PROGRESS, ON_CHECK, ON_FIX, DONE, CANCELED")
+    private String taskStatus;
+
+    @ApiModelProperty(value = "Идентификаторы заданий. Задается либо список идентификаторов, либо фильтр",
+            allowEmptyValue = true)
+    private List<UUID> ids;
+
+    @ApiModelProperty(value = "Фильтр заданий. Задается либо список идентификаторов, либо фильтр",
+            allowEmptyValue = true)
+    private TaskSearchDto searchData;
+
+
+    public TaskStatusTransitionDtoRequest() {
+    }
+
+    public String getTaskStatus() {
+        return taskStatus;
+    }
+
+    public void setTaskStatus(String taskStatus) {
+        this.taskStatus = taskStatus;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public TaskSearchDto getSearchData() {
+        return searchData;
+    }
+
+    public void setSearchData(TaskSearchDto searchData) {
+        this.searchData = searchData;
+    }
+}
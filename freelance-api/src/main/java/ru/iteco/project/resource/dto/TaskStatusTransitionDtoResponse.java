@@ -0,0 +1,55 @@
+package ru.iteco.project.resource.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+import java.util.UUID;
+
+@ApiModel(description = "Результат пакетного перевода заданий в новый статус")
+public class TaskStatusTransitionDtoResponse implements DtoInterface {
+
+    @ApiModelProperty(value = "Новый статус заданий", example = "CANCELED")
+    private String taskStatus;
+
+    @ApiModelProperty(value = "Количество переведенных заданий", example = "42")
+    private int updatedCount;
+
+    @ApiModelProperty(value = "Идентификаторы переведенных заданий. Задания, исходный статус которых не допускает " +
+            "перехода, не обновляются и в список не попадают")
+    private List<UUID> updatedIds;
+
+
+    public TaskStatusTransitionDtoResponse() {
+    }
+
+    public TaskStatusTransitionDtoResponse(String taskStatus, List<UUID> updatedIds) {
+        this.taskStatus = taskStatus;
+        this.updatedCount = updatedIds.size();
+        this.updatedIds = updatedIds;
+    }
+
+    public String getTaskStatus() {
+        return taskStatus;
+    }
+
+    public void setTaskStatus(String taskStatus) {
+        this.taskStatus = taskStatus;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    public List<UUID> getUpdatedIds() {
+        return updatedIds;
+    }
+
+    public void setUpdatedIds(List<UUID> updatedIds) {
+        this.updatedIds = updatedIds;
+    }
+}
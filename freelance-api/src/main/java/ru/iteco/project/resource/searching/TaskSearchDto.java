@@ -25,6 +25,11 @@ public class TaskSearchDto extends AbstractSearchDto {
     @ApiModelProperty(value = "Стоимость исполнения задания", allowEmptyValue = true)
     private SearchUnit price;
 
+    @ApiModelProperty(value = "Полнотекстовый поиск по названию и описанию задания (операции FULL_TEXT, NOT_FULL_TEXT). " +
+            "Для сортировки найденных заданий по релевантности используется параметр sort=relevance,desc",
+            allowEmptyValue = true)
+    private SearchUnit fullText;
+
 
     public TaskSearchDto() {
     }
@@ -69,6 +74,14 @@ public class TaskSearchDto extends AbstractSearchDto {
         this.price = price;
     }
 
+    public SearchUnit getFullText() {
+        return fullText;
+    }
+
+    public void setFullText(SearchUnit fullText) {
+        this.fullText = fullText;
+    }
+
     @Override
     public TaskSearchDto searchData() {
         return this;
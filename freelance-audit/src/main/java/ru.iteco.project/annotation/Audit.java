@@ -3,7 +3,8 @@ package ru.iteco.project.annotation;
 import java.lang.annotation.*;
 
 /**
- * Аннотация для методов, для которых предусмотрен аудит
+ * Аннотация для методов, для которых предусмотрен аудит.
+ * Селекторы параметров и результата разрешаются один раз при старте приложения
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
@@ -12,4 +13,25 @@ public @interface Audit {
 
     String operation();
 
+    /**
+     * Селекторы сохраняемых параметров вызова в формате "имяПараметра[.свойство...]",
+     * например "taskDtoRequest.title". Если не заданы - сохраняются все параметры метода
+     */
+    String[] params() default {};
+
+    /**
+     * Селекторы сохраняемых свойств результата в формате "свойство[.свойство...]",
+     * например "body.id". Если не заданы - сохраняется весь результат
+     */
+    String[] result() default {};
+
+    /*** Признак сохранения результата выполнения метода */
+    boolean captureResult() default true;
+
+    /*** Имена свойств, значения которых маскируются на любом уровне вложенности, дополнительно к паролям и токенам */
+    String[] redact() default {};
+
+    /*** Максимальная длина сохраняемых строковых значений, более длинные значения усекаются; 0 - без ограничения */
+    int maxLength() default 1024;
+
 }
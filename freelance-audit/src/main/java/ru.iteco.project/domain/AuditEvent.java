@@ -35,24 +35,28 @@ public class AuditEvent implements Serializable {
     private AuditEventType auditEventType;
 
     /*** Дата и время соответствующие событию START */
-    @Column(name = "time_start")
+    @Column(name = "time_start", nullable = false)
     private LocalDateTime timeStart;
 
     /*** Дата и время соответствующие заключительному событию выполнения метода */
     @Column(name = "time_end")
     private LocalDateTime timeEnd;
 
+    /*** Длительность выполнения метода в миллисекундах, заполняется в заключительном событии */
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
     /*** Имя пользователя от которого выполняется данный запрос */
     @Column(name = "username", nullable = false)
     private String userName;
 
     /*** Параметры запроса */
-    @Column(name = "params", columnDefinition = "json")
+    @Column(name = "params", columnDefinition = "jsonb")
     @Convert(converter = ObjectToJsonAttributeConverter.class)
     private Map<String, Object> params = new HashMap<>();
 
     /*** Возвращаемое значение в результате выполнения метода */
-    @Column(name = "return_value", columnDefinition = "json")
+    @Column(name = "return_value", columnDefinition = "jsonb")
     @Convert(converter = ObjectToJsonAttributeConverter.class)
     private Map<String, Object> returnValue = new HashMap<>();
 
@@ -165,6 +169,14 @@ public class AuditEvent implements Serializable {
         this.timeEnd = timeEnd;
     }
 
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
     public String getUserName() {
         return userName;
     }
@@ -4,29 +4,45 @@ package ru.iteco.project.domain.converter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
+import java.util.Map;
 
 /**
- * Класс-конвертер для преобразований JSON <-> Object
+ * Класс-конвертер для преобразований JSON <-> Object.
+ * JSON записывается в компактном виде, без форматирования: в колонках типа jsonb оно все равно не сохраняется
  */
 @Converter
-public class ObjectToJsonAttributeConverter<T> implements AttributeConverter<T, String> {
+public class ObjectToJsonAttributeConverter implements AttributeConverter<Map<String, Object>, String> {
     private static final Logger log = LogManager.getLogger(ObjectToJsonAttributeConverter.class.getName());
 
+    /*** Тип значения атрибута, сохраняется явно, так как параметр типа стирается при компиляции */
+    private static final TypeReference<Map<String, Object>> ATTRIBUTE_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
     /*** Экземпляр ObjectMapper, предоставляет функциональные возможности для преобразований JSON <-> POJO */
-    private final ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(SerializationFeature.INDENT_OUTPUT);
+
+    /*** Потокобезопасный экземпляр ObjectWriter, общий для всех экземпляров конвертера */
+    private static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer();
+
+    /*** Потокобезопасный экземпляр ObjectReader, общий для всех экземпляров конвертера */
+    private static final ObjectReader OBJECT_READER = OBJECT_MAPPER.readerFor(ATTRIBUTE_TYPE);
 
 
     @Override
-    public String convertToDatabaseColumn(T attribute) {
+    public String convertToDatabaseColumn(Map<String, Object> attribute) {
         String jsonString = null;
         try {
-            jsonString = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(attribute);
+            jsonString = OBJECT_WRITER.writeValueAsString(attribute);
         } catch (JsonProcessingException e) {
             log.error("Ошибка конвертации объекта в JSON!", e);
         }
@@ -34,11 +50,13 @@ public class ObjectToJsonAttributeConverter<T> implements AttributeConverter<T,
     }
 
     @Override
-    public T convertToEntityAttribute(String dbData) {
-        T object = null;
+    public Map<String, Object> convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        Map<String, Object> object = null;
         try {
-            object = objectMapper.readValue(dbData, new TypeReference<T>() {
-            });
+            object = OBJECT_READER.readValue(dbData);
         } catch (JsonProcessingException e) {
             log.error("Ошибка конвертации JSON в объект!", e);
         }
@@ -0,0 +1,20 @@
+package ru.iteco.project.enumaration;
+
+/**
+ * Режимы записи событий аудита
+ */
+public enum AuditMode {
+
+    START_AND_FINISH("Событие START при вызове метода и событие SUCCESS/FAILURE по его завершении"),
+    SINGLE_ROW("Одно событие SUCCESS/FAILURE по завершении метода с данными вызова и длительностью");
+
+    private final String description;
+
+    AuditMode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
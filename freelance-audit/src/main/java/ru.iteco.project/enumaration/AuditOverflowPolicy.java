@@ -0,0 +1,21 @@
+package ru.iteco.project.enumaration;
+
+/**
+ * Политики обработки событий аудита при переполнении очереди асинхронной записи
+ */
+public enum AuditOverflowPolicy {
+
+    BLOCK("Ожидание освобождения места в очереди"),
+    DROP("Отбрасывание события"),
+    SPILL("Запись события в локальный файл");
+
+    private final String description;
+
+    AuditOverflowPolicy(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
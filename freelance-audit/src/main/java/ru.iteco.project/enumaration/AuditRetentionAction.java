@@ -0,0 +1,20 @@
+package ru.iteco.project.enumaration;
+
+/**
+ * Действия с секциями таблицы аудита по истечении срока хранения
+ */
+public enum AuditRetentionAction {
+
+    DROP("Удаление секции"),
+    DETACH("Отключение секции от таблицы аудита с сохранением в виде отдельной таблицы");
+
+    private final String description;
+
+    AuditRetentionAction(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.iteco.project.repository;
+
+import ru.iteco.project.domain.AuditEvent;
+
+import java.util.List;
+
+/**
+ * Интерфейс пакетных операций над событиями аудита, дополняющий AuditRepository
+ */
+public interface AuditBatchRepository {
+
+    /**
+     * Метод сохраняет события аудита одним пакетом JDBC, без загрузки в контекст персистентности и без
+     * предварительной выборки каждой записи, которую выполняет merge в saveAll для сущностей с заданным id
+     *
+     * @param auditEvents - новые события аудита
+     */
+    void insertAll(List<AuditEvent> auditEvents);
+
+}
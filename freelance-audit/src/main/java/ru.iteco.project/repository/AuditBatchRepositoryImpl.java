@@ -0,0 +1,61 @@
+package ru.iteco.project.repository;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.iteco.project.domain.AuditEvent;
+import ru.iteco.project.domain.converter.ObjectToJsonAttributeConverter;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Класс реализует пакетные операции над событиями аудита через JDBC
+ */
+public class AuditBatchRepositoryImpl implements AuditBatchRepository {
+
+    /*** Шаблон запроса добавления события аудита, %s - схема таблицы аудита */
+    private static final String INSERT_AUDIT_EVENT_QUERY = "INSERT INTO %saudit " +
+            "(id, audit_code, audit_event_type, time_start, time_end, duration_ms, username, params, return_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb))";
+
+    /*** Объект выполнения JDBC запросов */
+    private final JdbcTemplate jdbcTemplate;
+
+    /*** Конвертер параметров и возвращаемых значений в JSON, тот же, что и при сохранении сущности */
+    private final ObjectToJsonAttributeConverter jsonConverter = new ObjectToJsonAttributeConverter();
+
+    /*** Запрос добавления события аудита в таблицу схемы по умолчанию Hibernate */
+    private final String insertAuditEventQuery;
+
+
+    public AuditBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertAuditEventQuery = String.format(INSERT_AUDIT_EVENT_QUERY,
+                StringUtils.isBlank(schema) ? "" : schema + ".");
+    }
+
+
+    @Override
+    public void insertAll(List<AuditEvent> auditEvents) {
+        jdbcTemplate.batchUpdate(insertAuditEventQuery, auditEvents, auditEvents.size(), (ps, auditEvent) -> {
+            ps.setObject(1, auditEvent.getId());
+            ps.setString(2, auditEvent.getAuditCode());
+            ps.setString(3, auditEvent.getAuditEventType().name());
+            ps.setTimestamp(4, toTimestamp(auditEvent.getTimeStart()));
+            ps.setTimestamp(5, toTimestamp(auditEvent.getTimeEnd()));
+            ps.setObject(6, auditEvent.getDurationMs(), Types.BIGINT);
+            ps.setString(7, auditEvent.getUserName());
+            ps.setObject(8, jsonConverter.convertToDatabaseColumn(auditEvent.getParams()), Types.VARCHAR);
+            ps.setObject(9, jsonConverter.convertToDatabaseColumn(auditEvent.getReturnValue()), Types.VARCHAR);
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime localDateTime) {
+        return (localDateTime != null) ? Timestamp.valueOf(localDateTime) : null;
+    }
+
+}
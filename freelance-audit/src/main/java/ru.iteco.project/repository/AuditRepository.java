@@ -8,7 +8,7 @@ import ru.iteco.project.domain.AuditEvent;
  * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности AuditEvent
  */
 @Repository
-public interface AuditRepository extends JpaRepository<AuditEvent, AuditEvent.AuditEventId> {
+public interface AuditRepository extends JpaRepository<AuditEvent, AuditEvent.AuditEventId>, AuditBatchRepository {
 
 
 }
@@ -1,23 +1,25 @@
 package ru.iteco.project.service;
 
-import org.apache.commons.lang3.Validate;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-import org.springframework.validation.BeanPropertyBindingResult;
-import org.springframework.web.util.UriBuilder;
-import ru.iteco.project.annotation.Audit;
 import ru.iteco.project.domain.AuditEvent;
 import ru.iteco.project.enumaration.AuditEventType;
+import ru.iteco.project.enumaration.AuditMode;
 
+import javax.annotation.PreDestroy;
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Класс реализует функционал сервисного слоя для работы с аспектами
@@ -26,11 +28,40 @@ import java.util.UUID;
 @Component
 public class AspectService {
 
-    /*** Объект сервисного слоя событий аудита */
-    private final AuditService auditService;
+    /*** Очередь асинхронной записи событий аудита */
+    private final AuditEventQueue auditEventQueue;
+
+    /*** Реестр описаний аудита методов */
+    private final AuditDescriptorRegistry auditDescriptorRegistry;
+
+    /*** Режим записи событий аудита */
+    private final AuditMode auditMode;
+
+    /*** Длительность выполнения метода в миллисекундах, после которой в режиме SINGLE_ROW записывается START */
+    private final long startThresholdMillis;
+
+    /*** Планировщик отложенной записи START в режиме SINGLE_ROW, отмененные записи удаляются из очереди сразу */
+    private final ScheduledThreadPoolExecutor delayedStartScheduler;
+
+    public AspectService(AuditEventQueue auditEventQueue,
+                         AuditDescriptorRegistry auditDescriptorRegistry,
+                         @Value("${audit.mode:START_AND_FINISH}") AuditMode auditMode,
+                         @Value("${audit.startThresholdMillis:0}") long startThresholdMillis) {
+        this.auditEventQueue = auditEventQueue;
+        this.auditDescriptorRegistry = auditDescriptorRegistry;
+        this.auditMode = auditMode;
+        this.startThresholdMillis = startThresholdMillis;
+        this.delayedStartScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "audit-delayed-start");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.delayedStartScheduler.setRemoveOnCancelPolicy(true);
+    }
 
-    public AspectService(AuditService auditService) {
-        this.auditService = auditService;
+    @PreDestroy
+    public void shutdown() {
+        delayedStartScheduler.shutdownNow();
     }
 
     /**
@@ -41,7 +72,11 @@ public class AspectService {
     }
 
     /**
-     * Совет/обработчик для аннотации @Audit
+     * Совет/обработчик для аннотации @Audit. В режиме START_AND_FINISH событие START записывается при вызове
+     * метода. В режиме SINGLE_ROW событие START хранится в памяти, по завершении метода записывается одно событие
+     * с параметрами вызова, длительностью и результатом; START записывается дополнительно, только если метод
+     * выполняется дольше {audit.startThresholdMillis}, чтобы сведения о вызове сохранились при падении приложения.
+     * Если событие завершения не удалось сформировать, оно не записывается, а исключение метода не подменяется
      *
      * @param joinPoint - точка соединения, место, где начинаются определённые действия модуля АОП
      * @return - результат выполнения вызванного метода или его необходимой модификации
@@ -51,26 +86,48 @@ public class AspectService {
     public Object writeAudit(ProceedingJoinPoint joinPoint) throws Throwable {
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
         Method method = methodSignature.getMethod();
-        Audit annotation = method.getAnnotation(Audit.class);
-        Validate.notNull(annotation);
-
-        String operation = annotation.operation();
+        AuditCaptureDescriptor descriptor = auditDescriptorRegistry.getDescriptor(method);
         UUID uuid = UUID.randomUUID();
 
-        auditService.createAuditEvent(prepareStartEvent(uuid, operation, joinPoint));
+        long startNanos = System.nanoTime();
+        AuditEvent startEvent = prepareStartEvent(uuid, descriptor, joinPoint);
+        ScheduledFuture<?> delayedStart = publishStartEvent(startEvent);
         AuditEvent auditEvent = null;
         try {
             Object proceed = joinPoint.proceed();
-            auditEvent = prepareSuccessEvent(uuid, operation, proceed);
+            auditEvent = prepareSuccessEvent(startEvent, descriptor, proceed);
             return proceed;
         } catch (Throwable e) {
-            auditEvent = prepareFailureEvent(uuid, operation, e);
+            auditEvent = prepareFailureEvent(startEvent, e);
             throw e;
         } finally {
-            auditService.createAuditEvent(auditEvent);
+            if (delayedStart != null) {
+                delayedStart.cancel(false);
+            }
+            if (auditEvent != null) {
+                auditEvent.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                auditEventQueue.publish(auditEvent);
+            }
         }
     }
 
+    /**
+     * Метод записывает событие START в соответствии с режимом записи событий аудита
+     *
+     * @param startEvent - событие START
+     * @return - отложенная запись события START, которую необходимо отменить по завершении метода,
+     * или null, если событие уже записано или не будет записано
+     */
+    private ScheduledFuture<?> publishStartEvent(AuditEvent startEvent) {
+        if (auditMode == AuditMode.START_AND_FINISH) {
+            auditEventQueue.publish(startEvent);
+        } else if (startThresholdMillis > 0) {
+            return delayedStartScheduler.schedule(() -> auditEventQueue.publish(startEvent),
+                    startThresholdMillis, TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
 
     private AuditEvent prepareBaseAuditData(UUID uuid, String auditCode) {
         AuditEvent auditEvent = new AuditEvent();
@@ -91,28 +148,42 @@ public class AspectService {
         return principal.toString();
     }
 
-    private AuditEvent prepareStartEvent(UUID uuid, String operation, ProceedingJoinPoint joinPoint) {
-        AuditEvent auditEvent = prepareBaseAuditData(uuid, operation);
+    private AuditEvent prepareStartEvent(UUID uuid, AuditCaptureDescriptor descriptor,
+                                         ProceedingJoinPoint joinPoint) {
+        AuditEvent auditEvent = prepareBaseAuditData(uuid, descriptor.getOperation());
         auditEvent.setAuditEventType(AuditEventType.START);
-        for (Object arg : joinPoint.getArgs()) {
-            if (!(arg instanceof BeanPropertyBindingResult || arg instanceof UriBuilder)) {
-                auditEvent.getParams().put(arg.getClass().getSimpleName(), arg);
-            }
+        descriptor.captureParams(joinPoint.getArgs(), auditEvent.getParams());
+        return auditEvent;
+    }
+
+    /**
+     * Метод формирует заключительное событие. В режиме SINGLE_ROW событие наследует время начала и параметры
+     * вызова из события START
+     *
+     * @param startEvent     - событие START
+     * @param auditEventType - тип заключительного события
+     * @return - заключительное событие без результата выполнения
+     */
+    private AuditEvent prepareFinishEvent(AuditEvent startEvent, AuditEventType auditEventType) {
+        AuditEvent auditEvent = prepareBaseAuditData(startEvent.getId(), startEvent.getAuditCode());
+        auditEvent.setAuditEventType(auditEventType);
+        if (auditMode == AuditMode.SINGLE_ROW) {
+            auditEvent.setTimeStart(startEvent.getTimeStart());
+            auditEvent.setParams(startEvent.getParams());
         }
         return auditEvent;
     }
 
-    private AuditEvent prepareSuccessEvent(UUID uuid, String operation, Object returnValue) {
-        AuditEvent auditEvent = prepareBaseAuditData(uuid, operation);
-        auditEvent.setAuditEventType(AuditEventType.SUCCESS);
+    private AuditEvent prepareSuccessEvent(AuditEvent startEvent, AuditCaptureDescriptor descriptor,
+                                           Object returnValue) {
+        AuditEvent auditEvent = prepareFinishEvent(startEvent, AuditEventType.SUCCESS);
         auditEvent.setTimeEnd(LocalDateTime.now());
-        auditEvent.getReturnValue().put(returnValue.getClass().getSimpleName(), returnValue);
+        descriptor.captureResult(returnValue, auditEvent.getReturnValue());
         return auditEvent;
     }
 
-    private AuditEvent prepareFailureEvent(UUID uuid, String operation, Throwable e) {
-        AuditEvent auditEvent = prepareBaseAuditData(uuid, operation);
-        auditEvent.setAuditEventType(AuditEventType.FAILURE);
+    private AuditEvent prepareFailureEvent(AuditEvent startEvent, Throwable e) {
+        AuditEvent auditEvent = prepareFinishEvent(startEvent, AuditEventType.FAILURE);
         auditEvent.setTimeEnd(LocalDateTime.now());
         auditEvent.getReturnValue().put("exception_msg", e.getMessage());
         return auditEvent;
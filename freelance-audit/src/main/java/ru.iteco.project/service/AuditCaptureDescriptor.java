@@ -0,0 +1,327 @@
+package ru.iteco.project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.Errors;
+import org.springframework.web.util.UriBuilder;
+import ru.iteco.project.annotation.Audit;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Описание аудита метода: какие параметры и свойства результата сохраняются, какие значения маскируются
+ * и до какой длины усекаются. Строится один раз для метода по аннотации @Audit
+ */
+public final class AuditCaptureDescriptor {
+    private static final Logger log = LogManager.getLogger(AuditCaptureDescriptor.class.getName());
+
+    /*** Имена свойств, значения которых маскируются всегда */
+    private static final Set<String> ALWAYS_REDACTED = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("password", "repeatPassword", "accessToken")));
+
+    /*** Значение, которым заменяются маскируемые значения */
+    private static final String REDACTED_VALUE = "***";
+
+    /*** Экземпляр ObjectMapper для преобразования сохраняемых объектов в дерево JSON */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    /*** Определитель имен параметров методов */
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    /*** Код операции аудита */
+    private final String operation;
+
+    /*** Селекторы сохраняемых параметров вызова */
+    private final List<Selector> paramSelectors;
+
+    /*** Селекторы сохраняемых свойств результата, пустой список - результат не сохраняется */
+    private final List<Selector> resultSelectors;
+
+    /*** Имена маскируемых свойств */
+    private final Set<String> redacted;
+
+    /*** Максимальная длина сохраняемых строковых значений, 0 - без ограничения */
+    private final int maxLength;
+
+
+    private AuditCaptureDescriptor(String operation, List<Selector> paramSelectors, List<Selector> resultSelectors,
+                                   Set<String> redacted, int maxLength) {
+        this.operation = operation;
+        this.paramSelectors = paramSelectors;
+        this.resultSelectors = resultSelectors;
+        this.redacted = redacted;
+        this.maxLength = maxLength;
+    }
+
+
+    /**
+     * Метод строит описание аудита метода по аннотации @Audit
+     *
+     * @param method - метод, аннотированный @Audit
+     * @return - описание аудита метода
+     * @throws IllegalStateException - если метод не аннотирован @Audit или селектор ссылается на
+     *                               несуществующий параметр
+     */
+    public static AuditCaptureDescriptor of(Method method) {
+        Audit annotation = method.getAnnotation(Audit.class);
+        if (annotation == null) {
+            throw new IllegalStateException("Method " + method + " is not annotated with @Audit!");
+        }
+
+        Set<String> redacted = new HashSet<>(ALWAYS_REDACTED);
+        redacted.addAll(Arrays.asList(annotation.redact()));
+
+        return new AuditCaptureDescriptor(annotation.operation(), paramSelectors(method, annotation),
+                resultSelectors(method, annotation), Collections.unmodifiableSet(redacted),
+                Math.max(annotation.maxLength(), 0));
+    }
+
+    private static List<Selector> paramSelectors(Method method, Audit annotation) {
+        List<Selector> selectors = new ArrayList<>();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (annotation.params().length == 0) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (!Errors.class.isAssignableFrom(parameterTypes[i])
+                        && !UriBuilder.class.isAssignableFrom(parameterTypes[i])) {
+                    selectors.add(new Selector(parameterTypes[i].getSimpleName(), i, Collections.emptyList()));
+                }
+            }
+            return Collections.unmodifiableList(selectors);
+        }
+
+        String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+        List<String> names = (parameterNames != null) ? Arrays.asList(parameterNames) : Collections.emptyList();
+        for (String selector : annotation.params()) {
+            String[] path = selector.split("\\.");
+            int index = names.indexOf(path[0]);
+            if (index < 0) {
+                throw new IllegalStateException("Audit selector \"" + selector + "\" of method " + method
+                        + " references unknown parameter!");
+            }
+            ResolvableType type = ResolvableType.forMethodParameter(method, index);
+            selectors.add(new Selector(selector, index, resolvePath(type, Arrays.copyOfRange(path, 1, path.length))));
+        }
+        return Collections.unmodifiableList(selectors);
+    }
+
+    private static List<Selector> resultSelectors(Method method, Audit annotation) {
+        if (!annotation.captureResult() || (method.getReturnType() == void.class)) {
+            return Collections.emptyList();
+        }
+        if (annotation.result().length == 0) {
+            return Collections.singletonList(
+                    new Selector(method.getReturnType().getSimpleName(), -1, Collections.emptyList()));
+        }
+
+        List<Selector> selectors = new ArrayList<>();
+        ResolvableType type = ResolvableType.forMethodReturnType(method);
+        for (String selector : annotation.result()) {
+            selectors.add(new Selector(selector, -1, resolvePath(type, selector.split("\\."))));
+        }
+        return Collections.unmodifiableList(selectors);
+    }
+
+    /**
+     * Метод разрешает цепочку свойств по объявленным типам. Если свойство не найдено в объявленном типе,
+     * оно разрешается по фактическому классу значения при вызове
+     *
+     * @param type - объявленный тип корня цепочки
+     * @param path - имена свойств цепочки
+     * @return - шаги чтения свойств цепочки
+     */
+    private static List<PropertyStep> resolvePath(ResolvableType type, String[] path) {
+        List<PropertyStep> steps = new ArrayList<>(path.length);
+        ResolvableType ownerType = type;
+        for (String name : path) {
+            Class<?> ownerClass = ownerType.resolve(Object.class);
+            Method getter = findGetter(ownerClass, name);
+            steps.add(new PropertyStep(name, getter));
+            ownerType = (getter != null)
+                    ? ResolvableType.forType(getter.getGenericReturnType(), ownerType.as(getter.getDeclaringClass()))
+                    : ResolvableType.NONE;
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    private static Method findGetter(Class<?> type, String name) {
+        if (Map.class.isAssignableFrom(type)) {
+            return null;
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+        Method getter = (descriptor != null) ? descriptor.getReadMethod() : null;
+        if (getter != null) {
+            ReflectionUtils.makeAccessible(getter);
+        }
+        return getter;
+    }
+
+
+    /**
+     * Метод сохраняет выбранные параметры вызова
+     *
+     * @param args   - аргументы вызова метода
+     * @param params - параметры события аудита
+     */
+    public void captureParams(Object[] args, Map<String, Object> params) {
+        for (Selector selector : paramSelectors) {
+            capture(selector, args[selector.index], params);
+        }
+    }
+
+    /**
+     * Метод сохраняет выбранные свойства результата выполнения метода
+     *
+     * @param returnValue - результат выполнения метода
+     * @param result      - возвращаемое значение события аудита
+     */
+    public void captureResult(Object returnValue, Map<String, Object> result) {
+        for (Selector selector : resultSelectors) {
+            capture(selector, returnValue, result);
+        }
+    }
+
+    private void capture(Selector selector, Object root, Map<String, Object> target) {
+        Object value = root;
+        for (PropertyStep step : selector.path) {
+            if (value == null) {
+                break;
+            }
+            value = step.read(value);
+        }
+        if (value == null) {
+            return;
+        }
+        String lastName = selector.path.isEmpty() ? selector.key : selector.path.get(selector.path.size() - 1).name;
+        target.put(selector.key, redacted.contains(lastName) ? REDACTED_VALUE : sanitize(value));
+    }
+
+    /**
+     * Метод приводит значение к сохраняемому виду: простые значения сохраняются как есть, строки усекаются,
+     * объекты преобразуются в дерево JSON с маскированием и усечением вложенных значений
+     *
+     * @param value - сохраняемое значение
+     * @return - значение для записи в событие аудита
+     */
+    private Object sanitize(Object value) {
+        if (value instanceof CharSequence) {
+            return truncate(value.toString());
+        } else if ((value instanceof Number) || (value instanceof Boolean) || (value instanceof Enum)
+                || (value instanceof UUID) || (value instanceof Temporal)) {
+            return value;
+        }
+        try {
+            return sanitizeNode(OBJECT_MAPPER.valueToTree(value));
+        } catch (IllegalArgumentException e) {
+            log.error("Ошибка преобразования значения аудита в JSON!", e);
+            return value.getClass().getSimpleName();
+        }
+    }
+
+    private JsonNode sanitizeNode(JsonNode node) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                field.setValue(redacted.contains(field.getKey())
+                        ? TextNode.valueOf(REDACTED_VALUE)
+                        : sanitizeNode(field.getValue()));
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode element = node.get(i);
+                JsonNode sanitized = sanitizeNode(element);
+                if (sanitized != element) {
+                    ((ArrayNode) node).set(i, sanitized);
+                }
+            }
+        } else if (node.isTextual() && (maxLength > 0) && (node.textValue().length() > maxLength)) {
+            return TextNode.valueOf(truncate(node.textValue()));
+        }
+        return node;
+    }
+
+    private String truncate(String value) {
+        if ((maxLength == 0) || (value.length() <= maxLength)) {
+            return value;
+        }
+        return value.substring(0, maxLength) + "...(" + value.length() + ")";
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+
+    /**
+     * Селектор сохраняемого значения
+     */
+    private static final class Selector {
+
+        /*** Ключ значения в событии аудита */
+        private final String key;
+
+        /*** Индекс параметра метода, -1 для результата выполнения */
+        private final int index;
+
+        /*** Цепочка свойств от параметра или результата до значения */
+        private final List<PropertyStep> path;
+
+        private Selector(String key, int index, List<PropertyStep> path) {
+            this.key = key;
+            this.index = index;
+            this.path = path;
+        }
+    }
+
+
+    /**
+     * Шаг чтения свойства объекта
+     */
+    private static final class PropertyStep {
+
+        /*** Имя свойства */
+        private final String name;
+
+        /*** Метод чтения свойства, разрешенный по объявленному типу, null - если тип не содержит свойства */
+        private final Method getter;
+
+        /*** Методы чтения свойства, разрешенные по фактическим классам значений */
+        private final ConcurrentMap<Class<?>, Optional<Method>> runtimeGetters = new ConcurrentHashMap<>();
+
+        private PropertyStep(String name, Method getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        private Object read(Object target) {
+            if (target instanceof Map) {
+                return ((Map<?, ?>) target).get(name);
+            }
+            Method method = ((getter != null) && getter.getDeclaringClass().isInstance(target))
+                    ? getter
+                    : runtimeGetters.computeIfAbsent(target.getClass(),
+                    type -> Optional.ofNullable(findGetter(type, name))).orElse(null);
+            return (method != null) ? ReflectionUtils.invokeMethod(method, target) : null;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package ru.iteco.project.service;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import ru.iteco.project.annotation.Audit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Реестр описаний аудита методов. Описания методов, аннотированных @Audit, строятся при создании бинов,
+ * поэтому ошибки в селекторах обнаруживаются при старте приложения, а не при первом вызове метода
+ */
+@Component
+public class AuditDescriptorRegistry implements BeanPostProcessor {
+
+    /*** Описания аудита по методам */
+    private final ConcurrentMap<Method, AuditCaptureDescriptor> descriptors = new ConcurrentHashMap<>();
+
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+        if (AnnotationUtils.isCandidateClass(beanClass, Audit.class)) {
+            ReflectionUtils.doWithMethods(beanClass, this::getDescriptor,
+                    method -> method.isAnnotationPresent(Audit.class));
+        }
+        return bean;
+    }
+
+    /**
+     * Метод возвращает описание аудита метода, при отсутствии описание строится и сохраняется
+     *
+     * @param method - метод, аннотированный @Audit
+     * @return - описание аудита метода
+     */
+    public AuditCaptureDescriptor getDescriptor(Method method) {
+        return descriptors.computeIfAbsent(method, AuditCaptureDescriptor::of);
+    }
+
+}
@@ -0,0 +1,352 @@
+package ru.iteco.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.iteco.project.domain.AuditEvent;
+import ru.iteco.project.enumaration.AuditOverflowPolicy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченная очередь асинхронной записи событий аудита. События помещаются в очередь в потоке запроса,
+ * фоновый поток выбирает их порциями по {audit.async.batchSize} и передает AuditService одним пакетом.
+ * При переполнении очереди событие обрабатывается по политике {audit.async.overflowPolicy}. При остановке
+ * приложения прием событий в очередь прекращается, оставшиеся события записываются до закрытия соединений с БД
+ */
+@Component
+public class AuditEventQueue implements SmartLifecycle {
+
+    private static final Logger log = LogManager.getLogger(AuditEventQueue.class.getName());
+
+    /*** Наименование метрики количества событий в очереди */
+    public static final String QUEUE_SIZE_METRIC = "freelance.audit.queue.size";
+
+    /*** Наименование метрики размера записываемых пакетов событий */
+    public static final String BATCH_SIZE_METRIC = "freelance.audit.batch.size";
+
+    /*** Наименование метрики задержки записи события с момента помещения в очередь */
+    public static final String LAG_METRIC = "freelance.audit.lag";
+
+    /*** Наименование метрики количества событий, не поместившихся в очередь */
+    public static final String OVERFLOW_METRIC = "freelance.audit.overflow";
+
+    /*** Наименование метрики количества событий, пакет которых не удалось записать */
+    public static final String WRITE_FAILURES_METRIC = "freelance.audit.write.failures";
+
+    /*** Объект сервисного слоя событий аудита, выполняющий запись */
+    private final AuditService auditService;
+
+    /*** Очередь событий с моментом их помещения в очередь */
+    private final BlockingQueue<QueuedAuditEvent> queue;
+
+    /*** Признак асинхронной записи событий */
+    private final boolean enabled;
+
+    /*** Максимальное количество событий в одном пакете записи */
+    private final int batchSize;
+
+    /*** Максимальное время ожидания событий для пакета в миллисекундах */
+    private final long flushIntervalMillis;
+
+    /*** Максимальное время записи оставшихся событий при остановке приложения в миллисекундах */
+    private final long shutdownTimeoutMillis;
+
+    /*** Политика обработки событий при переполнении очереди */
+    private final AuditOverflowPolicy overflowPolicy;
+
+    /*** Файл для событий, не поместившихся в очередь или не записанных из-за ошибки */
+    private final Path spillFile;
+
+    /*** Экземпляр ObjectMapper для записи событий в файл в формате NDJSON */
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    /*** Размер записываемых пакетов событий */
+    private final DistributionSummary batchSizeSummary;
+
+    /*** Задержка записи события с момента помещения в очередь */
+    private final Timer lagTimer;
+
+    /*** Счетчик событий, не поместившихся в очередь */
+    private final Counter overflowCounter;
+
+    /*** Счетчик событий, пакет которых не удалось записать */
+    private final Counter writeFailuresCounter;
+
+    /*** Фоновый поток записи событий */
+    private Thread writerThread;
+
+    /*** Признак приема событий в очередь */
+    private volatile boolean running;
+
+
+    public AuditEventQueue(AuditService auditService, MeterRegistry meterRegistry,
+                           @Value("${audit.async.enabled:true}") boolean enabled,
+                           @Value("${audit.async.queueCapacity:10000}") int queueCapacity,
+                           @Value("${audit.async.batchSize:500}") int batchSize,
+                           @Value("${audit.async.flushIntervalMillis:200}") long flushIntervalMillis,
+                           @Value("${audit.async.shutdownTimeoutMillis:30000}") long shutdownTimeoutMillis,
+                           @Value("${audit.async.overflowPolicy:SPILL}") AuditOverflowPolicy overflowPolicy,
+                           @Value("${audit.async.spillFile:logs/audit-spill.ndjson}") String spillFile) {
+        this.auditService = auditService;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Paths.get(spillFile);
+        Gauge.builder(QUEUE_SIZE_METRIC, queue, BlockingQueue::size)
+                .description("Количество событий аудита в очереди записи")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                .description("Количество событий аудита в записываемом пакете")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder(LAG_METRIC)
+                .description("Задержка записи события аудита с момента помещения в очередь")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder(OVERFLOW_METRIC)
+                .description("Количество событий аудита, не поместившихся в очередь записи")
+                .tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+        this.writeFailuresCounter = Counter.builder(WRITE_FAILURES_METRIC)
+                .description("Количество событий аудита, пакет которых не удалось записать")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Метод помещает событие в очередь записи. Если асинхронная запись отключена или очередь остановлена,
+     * событие записывается сразу в вызывающем потоке. Признак приема событий проверяется повторно после помещения
+     * события в очередь: если очередь остановлена в этот промежуток, остановка могла уже выбрать оставшиеся события,
+     * поэтому очередь дописывается в вызывающем потоке
+     *
+     * @param auditEvent - событие аудита
+     */
+    public void publish(AuditEvent auditEvent) {
+        if (!enabled || !running) {
+            auditService.createAuditEvent(auditEvent);
+            return;
+        }
+        QueuedAuditEvent queuedAuditEvent = new QueuedAuditEvent(auditEvent, System.nanoTime());
+        if (!queue.offer(queuedAuditEvent)) {
+            overflowCounter.increment();
+            handleOverflow(queuedAuditEvent);
+        }
+        if (!running) {
+            writeRemaining();
+        }
+    }
+
+    /**
+     * Метод обрабатывает событие, не поместившееся в очередь, по политике {audit.async.overflowPolicy}
+     *
+     * @param queuedAuditEvent - событие аудита
+     */
+    private void handleOverflow(QueuedAuditEvent queuedAuditEvent) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(queuedAuditEvent);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    spill(Collections.singletonList(queuedAuditEvent.getAuditEvent()));
+                }
+                break;
+            case DROP:
+                log.warn("Audit queue is full, event {} {} dropped", queuedAuditEvent.getAuditEvent().getId(),
+                        queuedAuditEvent.getAuditEvent().getAuditEventType());
+                break;
+            case SPILL:
+            default:
+                spill(Collections.singletonList(queuedAuditEvent.getAuditEvent()));
+                break;
+        }
+    }
+
+    /**
+     * Метод фонового потока: выбирает события порциями и записывает их, пока очередь принимает события
+     * или в ней остаются незаписанные события
+     */
+    private void drain() {
+        List<QueuedAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedAuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                write(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Метод записывает пакет событий. При ошибке записи события пакета записываются в файл
+     * {audit.async.spillFile}, чтобы они не были потеряны
+     *
+     * @param batch - пакет событий
+     */
+    private void write(List<QueuedAuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AuditEvent> auditEvents = new ArrayList<>(batch.size());
+        batch.forEach(queuedAuditEvent -> auditEvents.add(queuedAuditEvent.getAuditEvent()));
+        try {
+            auditService.createAuditEvents(auditEvents);
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of " + auditEvents.size() + " audit events", e);
+            writeFailuresCounter.increment(auditEvents.size());
+            spill(auditEvents);
+        }
+        long now = System.nanoTime();
+        batchSizeSummary.record(auditEvents.size());
+        batch.forEach(queuedAuditEvent ->
+                lagTimer.record(now - queuedAuditEvent.getEnqueuedNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Метод выбирает все события из очереди и записывает их одним пакетом в вызывающем потоке
+     */
+    private void writeRemaining() {
+        List<QueuedAuditEvent> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        write(rest);
+    }
+
+    /**
+     * Метод дописывает события в файл {audit.async.spillFile}, по одному JSON объекту в строке
+     *
+     * @param auditEvents - события аудита
+     */
+    private synchronized void spill(List<AuditEvent> auditEvents) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (AuditEvent auditEvent : auditEvents) {
+                lines.append(objectMapper.writeValueAsString(auditEvent)).append(System.lineSeparator());
+            }
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(spillFile, lines.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize audit events", e);
+        } catch (IOException e) {
+            log.error("Failed to spill " + auditEvents.size() + " audit events to " + spillFile, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drain, "audit-writer");
+        writerThread.start();
+    }
+
+    /**
+     * Очередь прекращает прием событий, фоновый поток записывает оставшиеся события. Если запись не завершилась
+     * за {audit.async.shutdownTimeoutMillis}, поток прерывается и записывает выбранные события последним пакетом.
+     * События, помещенные в очередь одновременно с остановкой, записываются в вызывающем потоке
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+            if (writerThread.isAlive()) {
+                log.warn("Audit queue was not drained in {} ms, {} events left", shutdownTimeoutMillis,
+                        queue.size());
+                writerThread.interrupt();
+                writerThread.join(flushIntervalMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        writeRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Очередь останавливается после веб-сервера (фазы Integer.MAX_VALUE - ...), когда новые запросы уже
+     * не принимаются, и до закрытия соединений с БД при уничтожении бинов
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+
+    /**
+     * Событие аудита в очереди записи
+     */
+    private static class QueuedAuditEvent {
+
+        /*** Событие аудита */
+        private final AuditEvent auditEvent;
+
+        /*** Момент помещения события в очередь, System.nanoTime() */
+        private final long enqueuedNanos;
+
+        QueuedAuditEvent(AuditEvent auditEvent, long enqueuedNanos) {
+            this.auditEvent = auditEvent;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        AuditEvent getAuditEvent() {
+            return auditEvent;
+        }
+
+        long getEnqueuedNanos() {
+            return enqueuedNanos;
+        }
+    }
+}
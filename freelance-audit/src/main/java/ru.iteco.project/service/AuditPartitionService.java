@@ -0,0 +1,299 @@
+package ru.iteco.project.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.iteco.project.enumaration.AuditRetentionAction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Класс реализует обслуживание помесячных секций таблицы аудита: создание секций на {audit.partitioning.monthsAhead}
+ * месяцев вперед и удаление или отключение секций старше {audit.partitioning.retentionMonths} месяцев.
+ * Срок хранения соблюдается удалением секций целиком, без DELETE по таблице аудита. Обслуживание выполняется
+ * только при записи аудита в БД (audit.destination: DB)
+ */
+@Service
+@ConditionalOnExpression("'${audit.destination:FILE}' == 'DB' and ${audit.partitioning.enabled:true}")
+public class AuditPartitionService {
+
+    private static final Logger log = LogManager.getLogger(AuditPartitionService.class.getName());
+
+    /*** Наименование метрики количества созданных секций таблицы аудита */
+    public static final String PARTITIONS_CREATED_METRIC = "freelance.audit.partitions.created";
+
+    /*** Наименование метрики количества секций таблицы аудита с истекшим сроком хранения */
+    public static final String PARTITIONS_EXPIRED_METRIC = "freelance.audit.partitions.expired";
+
+    /*** Наименование метрики количества неудачных операций обслуживания секций таблицы аудита */
+    public static final String PARTITIONS_FAILED_METRIC = "freelance.audit.partitions.failed";
+
+    /*** Наименование метрики количества событий в секции по умолчанию, не попавших в помесячные секции */
+    public static final String DEFAULT_PARTITION_ROWS_METRIC = "freelance.audit.partitions.default.rows";
+
+    /*** Имя секции по умолчанию */
+    private static final String DEFAULT_PARTITION = "audit_default";
+
+    /*** Формат месяца в имени секции: audit_pYYYY_MM */
+    private static final DateTimeFormatter PARTITION_MONTH_FORMAT = DateTimeFormatter.ofPattern("uuuu_MM");
+
+    /*** Шаблон имени помесячной секции */
+    private static final Pattern PARTITION_NAME_PATTERN = Pattern.compile("audit_p(\\d{4}_\\d{2})");
+
+    /*** Запрос захвата блокировки обслуживания секций на время транзакции, исключает параллельный запуск */
+    private static final String LOCK_QUERY = "SELECT pg_try_advisory_xact_lock(hashtextextended(?, 0))";
+
+    /*** Запрос имен подключенных секций таблицы аудита */
+    private static final String PARTITIONS_QUERY = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)";
+
+    /*** Шаблон создания секции, %1$s - схема таблицы аудита, %2$s - имя секции, %3$s и %4$s - границы секции */
+    private static final String CREATE_PARTITION_QUERY = "CREATE TABLE IF NOT EXISTS %1$s%2$s " +
+            "PARTITION OF %1$saudit FOR VALUES FROM ('%3$s') TO ('%4$s')";
+
+    /*** Шаблон проверки наличия событий месяца в секции по умолчанию, %3$s и %4$s - границы месяца */
+    private static final String DEFAULT_ROWS_EXIST_QUERY = "SELECT EXISTS (SELECT 1 FROM %1$s" + DEFAULT_PARTITION +
+            " WHERE time_start >= '%3$s' AND time_start < '%4$s')";
+
+    /*** Шаблон создания таблицы будущей секции вне таблицы аудита, %2$s - имя секции */
+    private static final String CREATE_DETACHED_PARTITION_QUERY = "CREATE TABLE %1$s%2$s " +
+            "(LIKE %1$saudit INCLUDING DEFAULTS INCLUDING CONSTRAINTS)";
+
+    /*** Шаблон переноса событий месяца из секции по умолчанию в таблицу будущей секции */
+    private static final String MOVE_DEFAULT_ROWS_QUERY = "WITH moved AS (DELETE FROM %1$s" + DEFAULT_PARTITION +
+            " WHERE time_start >= '%3$s' AND time_start < '%4$s' RETURNING *) INSERT INTO %1$s%2$s SELECT * FROM moved";
+
+    /*** Шаблон подключения таблицы в качестве секции, %3$s и %4$s - границы секции */
+    private static final String ATTACH_PARTITION_QUERY = "ALTER TABLE %1$saudit ATTACH PARTITION %1$s%2$s " +
+            "FOR VALUES FROM ('%3$s') TO ('%4$s')";
+
+    /*** Шаблон подсчета событий в секции по умолчанию, %1$s - схема таблицы аудита */
+    private static final String DEFAULT_ROWS_COUNT_QUERY = "SELECT count(*) FROM %1$s" + DEFAULT_PARTITION;
+
+    /*** Шаблон удаления секции, %1$s - схема таблицы аудита, %2$s - имя секции */
+    private static final String DROP_PARTITION_QUERY = "DROP TABLE IF EXISTS %1$s%2$s";
+
+    /*** Шаблон отключения секции, %1$s - схема таблицы аудита, %2$s - имя секции */
+    private static final String DETACH_PARTITION_QUERY = "ALTER TABLE %1$saudit DETACH PARTITION %1$s%2$s";
+
+    /*** Объект выполнения JDBC запросов */
+    private final JdbcTemplate jdbcTemplate;
+
+    /*** Шаблон выполнения каждой операции обслуживания секций в отдельной транзакции */
+    private final TransactionTemplate transactionTemplate;
+
+    /*** Схема таблицы аудита с точкой или пустая строка для схемы по умолчанию */
+    private final String schemaPrefix;
+
+    /*** Количество месяцев вперед, на которые создаются секции */
+    private final int monthsAhead;
+
+    /*** Срок хранения событий аудита в месяцах, 0 - без ограничения */
+    private final int retentionMonths;
+
+    /*** Действие с секциями по истечении срока хранения */
+    private final AuditRetentionAction retentionAction;
+
+    /*** Максимальное время ожидания блокировки таблицы аудита в миллисекундах */
+    private final long lockTimeoutMillis;
+
+    /*** Счетчик созданных секций */
+    private final Counter createdCounter;
+
+    /*** Счетчик секций с истекшим сроком хранения */
+    private final Counter expiredCounter;
+
+    /*** Счетчик неудачных операций обслуживания секций */
+    private final Counter failedCounter;
+
+    /*** Количество событий в секции по умолчанию по результатам последнего обслуживания */
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+
+    public AuditPartitionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema,
+                                 @Value("${audit.partitioning.monthsAhead:3}") int monthsAhead,
+                                 @Value("${audit.partitioning.retentionMonths:12}") int retentionMonths,
+                                 @Value("${audit.partitioning.retentionAction:DROP}")
+                                         AuditRetentionAction retentionAction,
+                                 @Value("${audit.partitioning.lockTimeoutMillis:5000}") long lockTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.schemaPrefix = StringUtils.isBlank(schema) ? "" : schema + ".";
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionAction = retentionAction;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.createdCounter = Counter.builder(PARTITIONS_CREATED_METRIC)
+                .description("Количество созданных секций таблицы аудита")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder(PARTITIONS_EXPIRED_METRIC)
+                .description("Количество секций таблицы аудита с истекшим сроком хранения")
+                .tag("action", retentionAction.name())
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(PARTITIONS_FAILED_METRIC)
+                .description("Количество неудачных операций обслуживания секций таблицы аудита")
+                .register(meterRegistry);
+        Gauge.builder(DEFAULT_PARTITION_ROWS_METRIC, defaultPartitionRows, AtomicLong::get)
+                .description("Количество событий аудита в секции по умолчанию")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Обслуживание выполняется при старте приложения и по расписанию {audit.partitioning.cron}. Создание каждой
+     * секции и удаление или отключение каждой секции выполняются в отдельных транзакциях, поэтому ошибка одной
+     * операции не блокирует остальные, в том числе соблюдение срока хранения. Операция пропускается, если
+     * обслуживание уже выполняет другой экземпляр приложения. Изменение секций требует кратковременной
+     * исключительной блокировки таблицы аудита, ожидание которой ограничено {audit.partitioning.lockTimeoutMillis},
+     * чтобы не задерживать запись событий
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partitioning.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        createFuturePartitions();
+        expirePartitions();
+        reportDefaultPartitionRows();
+    }
+
+    private void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partitionName = partitionName(month);
+            executeLocked("create " + partitionName, () -> createPartition(month, partitionName));
+        }
+    }
+
+    /**
+     * Метод создает секцию месяца. Если в секции по умолчанию уже есть события этого месяца, Postgres не позволит
+     * создать секцию, поэтому секция создается отдельной таблицей, события месяца переносятся в нее из секции
+     * по умолчанию и таблица подключается к таблице аудита
+     *
+     * @param month         - месяц секции
+     * @param partitionName - имя секции
+     */
+    private void createPartition(YearMonth month, String partitionName) {
+        Boolean absent = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class,
+                schemaPrefix + partitionName);
+        if (!Boolean.TRUE.equals(absent)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Boolean defaultRowsExist = jdbcTemplate.queryForObject(
+                String.format(DEFAULT_ROWS_EXIST_QUERY, schemaPrefix, partitionName, from, to), Boolean.class);
+        if (Boolean.TRUE.equals(defaultRowsExist)) {
+            jdbcTemplate.execute(String.format(CREATE_DETACHED_PARTITION_QUERY, schemaPrefix, partitionName));
+            int moved = jdbcTemplate.update(
+                    String.format(MOVE_DEFAULT_ROWS_QUERY, schemaPrefix, partitionName, from, to));
+            jdbcTemplate.execute(String.format(ATTACH_PARTITION_QUERY, schemaPrefix, partitionName, from, to));
+            log.warn("Audit partition {} created, {} events moved from the default partition", partitionName, moved);
+        } else {
+            jdbcTemplate.execute(String.format(CREATE_PARTITION_QUERY, schemaPrefix, partitionName, from, to));
+            log.info("Audit partition {} created", partitionName);
+        }
+        createdCounter.increment();
+    }
+
+    private void expirePartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestRetained = YearMonth.now().minusMonths(retentionMonths);
+        List<String> partitions;
+        try {
+            partitions = jdbcTemplate.queryForList(PARTITIONS_QUERY, String.class, schemaPrefix + "audit");
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            log.error("Audit partitions listing failed!", e);
+            return;
+        }
+        for (String partitionName : partitions) {
+            Matcher matcher = PARTITION_NAME_PATTERN.matcher(partitionName);
+            if (!matcher.matches()
+                    || !YearMonth.parse(matcher.group(1), PARTITION_MONTH_FORMAT).isBefore(oldestRetained)) {
+                continue;
+            }
+            executeLocked("expire " + partitionName, () -> expirePartition(partitionName));
+        }
+    }
+
+    private void expirePartition(String partitionName) {
+        String query = (retentionAction == AuditRetentionAction.DROP)
+                ? DROP_PARTITION_QUERY
+                : DETACH_PARTITION_QUERY;
+        jdbcTemplate.execute(String.format(query, schemaPrefix, partitionName));
+        expiredCounter.increment();
+        log.info("Audit partition {} expired: {}", partitionName, retentionAction.getDescription());
+    }
+
+    /**
+     * Метод подсчитывает события в секции по умолчанию. Такие события не попадают в помесячные секции и не удаляются
+     * по истечении срока хранения, их появление означает запись событий за пределами созданных секций
+     */
+    private void reportDefaultPartitionRows() {
+        try {
+            Long rows = jdbcTemplate.queryForObject(String.format(DEFAULT_ROWS_COUNT_QUERY, schemaPrefix), Long.class);
+            defaultPartitionRows.set((rows != null) ? rows : 0L);
+            if (defaultPartitionRows.get() > 0) {
+                log.warn("Audit default partition contains {} events outside monthly partitions",
+                        defaultPartitionRows.get());
+            }
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            log.error("Audit default partition check failed!", e);
+        }
+    }
+
+    /**
+     * Метод выполняет операцию обслуживания секций в отдельной транзакции под блокировкой обслуживания.
+     * Ошибка операции учитывается в метрике freelance.audit.partitions.failed и не прерывает остальные операции
+     *
+     * @param operation - описание операции для журнала
+     * @param action    - операция обслуживания
+     */
+    private void executeLocked(String operation, Runnable action) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(LOCK_QUERY, Boolean.class, schemaPrefix + "audit");
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.info("Audit partitions maintenance is already running, {} skipped", operation);
+                    return;
+                }
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMillis);
+                action.run();
+            });
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            log.error("Audit partitions maintenance failed: {}!", operation, e);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "audit_p" + month.format(PARTITION_MONTH_FORMAT);
+    }
+
+}
@@ -2,6 +2,8 @@ package ru.iteco.project.service;
 
 import ru.iteco.project.domain.AuditEvent;
 
+import java.util.List;
+
 /**
  * Интерфейс описывает общий функционал Service слоя для сущности AuditEvent
  */
@@ -14,5 +16,14 @@ public interface AuditService {
      */
     void createAuditEvent(AuditEvent auditEvent);
 
+    /**
+     * Метод создает записи группы событий в аудите. По умолчанию события записываются по одному
+     *
+     * @param auditEvents - сущности с данными для создания записей аудита
+     */
+    default void createAuditEvents(List<AuditEvent> auditEvents) {
+        auditEvents.forEach(this::createAuditEvent);
+    }
+
 }
 
@@ -5,6 +5,9 @@ import org.springframework.stereotype.Service;
 import ru.iteco.project.domain.AuditEvent;
 import ru.iteco.project.repository.AuditRepository;
 
+import java.util.Collections;
+import java.util.List;
+
 
 /**
  * Класс реализует функционал сервисного слоя для работы с событиями аудита
@@ -22,8 +25,16 @@ public class AuditServiceDevelopmentImpl implements AuditService {
         this.auditRepository = auditRepository;
     }
 
+    /**
+     * Событие добавляется через insertAll: save для сущности с заданным id выполняет merge с предварительной выборкой
+     */
     @Override
     public void createAuditEvent(AuditEvent auditEvent) {
-        auditRepository.save(auditEvent);
+        auditRepository.insertAll(Collections.singletonList(auditEvent));
+    }
+
+    @Override
+    public void createAuditEvents(List<AuditEvent> auditEvents) {
+        auditRepository.insertAll(auditEvents);
     }
 }
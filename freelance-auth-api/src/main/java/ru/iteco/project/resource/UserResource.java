@@ -4,6 +4,7 @@ import io.swagger.annotations.*;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
@@ -42,6 +43,26 @@ public interface UserResource {
     ResponseEntity<List<UserDtoResponse>> getAllUsers();
 
 
+    /**
+     * Контроллер выгружает всех пользователей в формате NDJSON. Пользователи записываются в ответ по мере чтения из БД
+     *
+     * @return - потоковый ответ с объектами UserDtoResponse
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Потоковая выгрузка всех пользователей")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Поток пользователей, доступных вызывающей стороне, в формате NDJSON",
+                    response = UserDtoResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Непредвиденная ошибка", response = ResponseError.class),
+            @ApiResponse(code = 401,
+                    message = "Полномочия не подтверждены. Например, JWT невалиден, отсутствует, либо неверного формата",
+                    response = ResponseError.class),
+            @ApiResponse(code = 403, message = "Нет полномочий на выполнение запрашиваемой операции",
+                    response = ResponseError.class)
+    })
+    ResponseEntity<?> exportUsers();
+
+
     /**
      * Эндпоинт с реализацией пагинации и сортировки результатов поиска
      *
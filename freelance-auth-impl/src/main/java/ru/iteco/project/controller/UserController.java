@@ -8,8 +8,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.iteco.project.annotation.Audit;
+import ru.iteco.project.controller.export.NdjsonResponseWriter;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.UserResource;
 import ru.iteco.project.resource.dto.UserBaseDto;
@@ -45,10 +47,15 @@ public class UserController implements UserResource {
     /*** Объект валидатора для UserDtoRequest*/
     private final UserDtoRequestValidator userDtoRequestValidator;
 
+    /*** Объект формирования потоковых ответов в формате NDJSON */
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
-    public UserController(UserService userService, UserDtoRequestValidator userDtoRequestValidator) {
+
+    public UserController(UserService userService, UserDtoRequestValidator userDtoRequestValidator,
+                          NdjsonResponseWriter ndjsonResponseWriter) {
         this.userService = userService;
         this.userDtoRequestValidator = userDtoRequestValidator;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
     }
 
 
@@ -60,6 +67,12 @@ public class UserController implements UserResource {
         return ResponseEntity.ok().body(allUsers);
     }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        beforeCall(Level.DEBUG, "exportUsers()", "{}");
+        return ndjsonResponseWriter.write(userService::exportAllUsers);
+    }
+
     @Override
     public PageDto getUsers(UserSearchDto userSearchDto, Pageable pageable) {
         beforeCall(Level.DEBUG, "getUsers()", userSearchDto, pageable);
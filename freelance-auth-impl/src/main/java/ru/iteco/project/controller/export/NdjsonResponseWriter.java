@@ -0,0 +1,85 @@
+package ru.iteco.project.controller.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Класс формирует потоковые ответы в формате NDJSON (по одному JSON объекту на строку). Объекты записываются
+ * в тело ответа по мере их получения от сервисного слоя и не накапливаются в памяти
+ */
+@Component
+public class NdjsonResponseWriter {
+
+    /*** Количество записанных объектов, после которого буфер ответа принудительно отправляется клиенту */
+    private static final int FLUSH_INTERVAL = 100;
+
+    /*** Разделитель объектов в формате NDJSON */
+    private static final String LINE_SEPARATOR = "\n";
+
+    /*** Объект сериализации DTO с настройками приложения */
+    private final ObjectWriter objectWriter;
+
+
+    public NdjsonResponseWriter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator(LINE_SEPARATOR);
+    }
+
+
+    /**
+     * Метод формирует потоковый ответ, тело которого заполняется переданной функцией выгрузки
+     *
+     * @param exporter - функция выгрузки, передающая объекты в получателя по мере их формирования
+     * @param <T>      - тип выгружаемых объектов
+     * @return - ответ с телом в формате NDJSON
+     */
+    public <T> ResponseEntity<StreamingResponseBody> write(Consumer<Consumer<T>> exporter) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequenceWriter = objectWriter.writeValues(outputStream)) {
+                LineCounter counter = new LineCounter();
+                exporter.accept(dto -> writeLine(sequenceWriter, dto, counter));
+                sequenceWriter.flush();
+                if (counter.lines > 0) {
+                    outputStream.write(LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Метод записывает объект в тело ответа и периодически отправляет накопленный буфер клиенту
+     */
+    private void writeLine(SequenceWriter sequenceWriter, Object dto, LineCounter counter) {
+        try {
+            sequenceWriter.write(dto);
+            if (++counter.lines % FLUSH_INTERVAL == 0) {
+                sequenceWriter.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Счетчик записанных в тело ответа объектов
+     */
+    private static class LineCounter {
+        private long lines;
+    }
+
+}
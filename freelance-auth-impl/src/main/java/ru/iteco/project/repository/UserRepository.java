@@ -2,11 +2,19 @@ package ru.iteco.project.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.iteco.project.domain.User;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.iteco.project.specification.StreamExportExecutor.EXPORT_FETCH_SIZE;
 
 /**
  * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности User
@@ -51,4 +59,17 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Метод потокового получения всех пользователей. Строки читаются из курсора JDBC порциями, поток должен быть
+     * закрыт внутри транзакции, в которой он был открыт
+     *
+     * @return - поток всех пользователей
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select u from User u")
+    Stream<User> streamAllUsers();
+
 }
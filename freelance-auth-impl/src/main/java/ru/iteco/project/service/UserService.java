@@ -10,6 +10,7 @@ import ru.iteco.project.resource.searching.UserSearchDto;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс описывает общий функционал Service слоя для сущности User
@@ -55,6 +56,14 @@ public interface UserService {
      */
     List<UserDtoResponse> getAllUsers();
 
+    /**
+     * Метод потоковой выгрузки данных обо всех пользователях. Пользователи читаются из БД порциями и передаются
+     * получателю по мере преобразования, не накапливаясь в памяти
+     *
+     * @param consumer - получатель объектов UserDtoResponse
+     */
+    void exportAllUsers(Consumer<UserDtoResponse> consumer);
+
     /**
      * Метод удаляет пользователя из коллекции
      *
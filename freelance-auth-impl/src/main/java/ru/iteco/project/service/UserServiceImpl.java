@@ -1,12 +1,12 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,14 +21,20 @@ import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.UserDtoRequest;
 import ru.iteco.project.resource.dto.UserDtoResponse;
 import ru.iteco.project.resource.searching.UserSearchDto;
+import ru.iteco.project.service.mappers.UserMapper;
 import ru.iteco.project.specification.CriteriaObject;
+import ru.iteco.project.specification.SearchPageExecutor;
 import ru.iteco.project.specification.SpecificationBuilder;
+import ru.iteco.project.specification.StreamExportExecutor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static ru.iteco.project.specification.SearchPageExecutor.isExactCount;
+import static ru.iteco.project.specification.SearchPageExecutor.isKeysetPaging;
 import static ru.iteco.project.specification.SpecificationBuilder.prepareRestrictionValue;
 
 /**
@@ -48,14 +54,29 @@ public class UserServiceImpl implements UserService {
     private final SpecificationBuilder<User> specificationBuilder;
 
     /*** Объект маппера dto <-> сущность пользователя */
-    private final MapperFacade mapperFacade;
+    private final UserMapper userMapper;
+
+    /*** Объект энкодера для шифрования пароля пользователя */
+    private final PasswordEncoder passwordEncoder;
+
+    /*** Сервис выполнения поисковых запросов с постраничным выводом */
+    private final SearchPageExecutor searchPageExecutor;
+
+    /*** Сервис потоковой выгрузки сущностей */
+    private final StreamExportExecutor streamExportExecutor;
 
 
     public UserServiceImpl(UserRepository userRepository, SpecificationBuilder<User> specificationBuilder,
-                           MapperFacade mapperFacade) {
+                           UserMapper userMapper,
+                           PasswordEncoder passwordEncoder,
+                           SearchPageExecutor searchPageExecutor,
+                           StreamExportExecutor streamExportExecutor) {
         this.userRepository = userRepository;
         this.specificationBuilder = specificationBuilder;
-        this.mapperFacade = mapperFacade;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.searchPageExecutor = searchPageExecutor;
+        this.streamExportExecutor = streamExportExecutor;
     }
 
     /**
@@ -69,7 +90,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(uuid).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
-        return mapperFacade.map(user, UserDtoResponse.class);
+        return userMapper.toDto(user);
     }
 
     /**
@@ -82,10 +103,11 @@ public class UserServiceImpl implements UserService {
     public UserDtoResponse createUser(UserDtoRequest userDtoRequest) {
         isCorrectUsernameEmail(userDtoRequest.getUsername(), userDtoRequest.getEmail());
 
-        User newUser = mapperFacade.map(userDtoRequest, User.class);
+        User newUser = userMapper.toEntity(userDtoRequest);
+        newUser.setPassword(passwordEncoder.encode(userDtoRequest.getPassword()));
         newUser.setId(UUID.randomUUID());
         User save = userRepository.save(newUser);
-        return mapperFacade.map(save, UserDtoResponse.class);
+        return userMapper.toDto(save);
     }
 
     /**
@@ -99,14 +121,15 @@ public class UserServiceImpl implements UserService {
         List<User> usersList = userDtoRequestList.stream()
                 .map(requestDto -> {
                     isCorrectUsernameEmail(requestDto.getUsername(), requestDto.getEmail());
-                    User mappedUser = mapperFacade.map(requestDto, User.class);
+                    User mappedUser = userMapper.toEntity(requestDto);
+                    mappedUser.setPassword(passwordEncoder.encode(requestDto.getPassword()));
                     mappedUser.setId(UUID.randomUUID());
                     return mappedUser;
                 })
                 .collect(Collectors.toList());
 
         return userRepository.saveAll(usersList).stream()
-                .map(entity -> mapperFacade.map(entity, UserDtoResponse.class))
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -123,9 +146,12 @@ public class UserServiceImpl implements UserService {
         );
         checkingUpdatedData(userDtoRequest, user);
 
-        mapperFacade.map(userDtoRequest, user);
+        userMapper.updateEntity(userDtoRequest, user);
+        if (userDtoRequest.getPassword() != null) {
+            user.setPassword(passwordEncoder.encode(userDtoRequest.getPassword()));
+        }
         User save = userRepository.save(user);
-        return mapperFacade.map(save, UserDtoResponse.class);
+        return userMapper.toDto(save);
     }
 
 
@@ -139,10 +165,23 @@ public class UserServiceImpl implements UserService {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public List<UserDtoResponse> getAllUsers() {
         return userRepository.findAll().stream()
-                .map(user -> mapperFacade.map(user, UserDtoResponse.class))
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     *
+     * @param consumer - получатель объектов UserDtoResponse
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void exportAllUsers(Consumer<UserDtoResponse> consumer) {
+        streamExportExecutor.export(userRepository.streamAllUsers(),
+                userMapper::toDtoList, consumer);
+    }
+
     /**
      * SERIALIZABLE - во время удаления внешние тразнзакции не должны иметь никакого доступа к записи
      * REQUIRED - в транзакции внешней или новой, т.к. используется в других сервисах при удалении записей и
@@ -191,7 +230,13 @@ public class UserServiceImpl implements UserService {
     public PageDto<UserDtoResponse> getUsers(SearchDto<UserSearchDto> searchDto, Pageable pageable) {
         Page<User> page;
         try {
-            if ((searchDto != null) && (searchDto.searchData() != null)) {
+            if (isKeysetPaging(searchDto)) {
+                return searchPageExecutor.findKeysetPage(User.class, specificationBuilder.getSpec(prepareCriteriaObject(searchDto)),
+                        pageable, searchDto.searchData().getCursor(), userMapper::toDtoList);
+            } else if (!isExactCount(searchDto)) {
+                return searchPageExecutor.findOffsetPage(User.class, specificationBuilder.getSpec(prepareCriteriaObject(searchDto)),
+                        pageable, searchDto.searchData().getCountMode(), userMapper::toDtoList);
+            } else if ((searchDto != null) && (searchDto.searchData() != null)) {
                 page = userRepository.findAll(specificationBuilder.getSpec(prepareCriteriaObject(searchDto)), pageable);
             } else {
                 page = userRepository.findAll(pageable);
@@ -200,7 +245,7 @@ public class UserServiceImpl implements UserService {
             throw new InvalidSearchExpressionException("errors.search.expression.invalid");
         }
 
-        List<UserDtoResponse> userDtoResponses = page.map(entity -> mapperFacade.map(entity, UserDtoResponse.class)).toList();
+        List<UserDtoResponse> userDtoResponses = page.map(userMapper::toDto).toList();
         return new PageDto<>(userDtoResponses, page.getTotalElements(), page.getTotalPages());
     }
 
@@ -251,6 +296,9 @@ public class UserServiceImpl implements UserService {
         SearchUnit createdAt = userSearchDto.getCreatedAt();
         prepareRestrictionValue(restrictionValues, createdAt, "createdAt", searchUnit -> createdAt.getValue());
 
+        SearchUnit username = userSearchDto.getUsername();
+        prepareRestrictionValue(restrictionValues, username, "username", searchUnit -> username.getValue());
+
         SearchUnit email = userSearchDto.getEmail();
         prepareRestrictionValue(restrictionValues, email, "email", searchUnit -> email.getValue());
 
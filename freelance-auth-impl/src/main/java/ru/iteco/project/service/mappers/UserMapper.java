@@ -0,0 +1,53 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import ru.iteco.project.domain.User;
+import ru.iteco.project.resource.dto.UserDtoRequest;
+import ru.iteco.project.resource.dto.UserDtoResponse;
+
+import java.util.List;
+
+/**
+ * Маппер dto <-> сущность пользователя. Пароль пользователя не переносится маппером, шифрование пароля
+ * выполняется в сервисном слое
+ */
+@Mapper(config = CommonMapperConfig.class)
+public interface UserMapper {
+
+    /**
+     * Метод преобразует сущность пользователя в UserDtoResponse
+     *
+     * @param user - сущность пользователя
+     * @return - объект UserDtoResponse
+     */
+    UserDtoResponse toDto(User user);
+
+    /**
+     * Метод преобразует список сущностей пользователей в список UserDtoResponse
+     *
+     * @param users - список сущностей пользователей
+     * @return - список объектов UserDtoResponse
+     */
+    List<UserDtoResponse> toDtoList(List<User> users);
+
+    /**
+     * Метод создает сущность пользователя по данным запроса, без пароля
+     *
+     * @param userDtoRequest - запрос с данными пользователя
+     * @return - сущность пользователя
+     */
+    @Mapping(target = "password", ignore = true)
+    User toEntity(UserDtoRequest userDtoRequest);
+
+    /**
+     * Метод обновляет сущность пользователя данными запроса, пароль не изменяется
+     *
+     * @param userDtoRequest - запрос с данными пользователя
+     * @param user           - обновляемая сущность пользователя
+     */
+    @Mapping(target = "password", ignore = true)
+    void updateEntity(UserDtoRequest userDtoRequest, @MappingTarget User user);
+
+}
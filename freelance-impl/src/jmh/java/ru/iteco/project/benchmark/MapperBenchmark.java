@@ -0,0 +1,299 @@
+package ru.iteco.project.benchmark;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.BidirectionalConverter;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import ru.iteco.project.domain.*;
+import ru.iteco.project.resource.dto.ClientDtoResponse;
+import ru.iteco.project.resource.dto.ContractDtoResponse;
+import ru.iteco.project.resource.dto.TaskDtoResponse;
+import ru.iteco.project.service.mappers.ClientMapper;
+import ru.iteco.project.service.mappers.ContractMapper;
+import ru.iteco.project.service.mappers.DateTimeMapper;
+import ru.iteco.project.service.mappers.TaskMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение преобразования сущностей в dto ответа сгенерированными мапперами MapStruct и MapperFacade Orika
+ * с конфигурацией классов, действовавшей до перехода на MapStruct. Преобразуется страница из {pageSize} заданий,
+ * контрактов и пользователей; идентификаторы заданий пользователей загружены заранее в обоих вариантах
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    /*** Установленный формат даты и времени, совпадает с format.date.time */
+    private static final String FORMAT_DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+
+    /*** Ключ свойства контекста маппинга Orika с заранее загруженными id заданий пользователей */
+    private static final String CLIENTS_TASKS_IDS_PROPERTY = "clientsTasksIds";
+
+    /*** Количество заданий на одного пользователя */
+    private static final int TASKS_PER_CLIENT = 10;
+
+    /*** Количество преобразуемых сущностей каждого типа */
+    @Param({"1", "100"})
+    private int pageSize;
+
+    /*** Контекст Spring со сгенерированными мапперами */
+    private AnnotationConfigApplicationContext context;
+
+    private TaskMapper taskMapper;
+
+    private ContractMapper contractMapper;
+
+    private ClientMapper clientMapper;
+
+    /*** Фабрика контекстов маппинга Orika */
+    private MappingContext.Factory mappingContextFactory;
+
+    private MapperFacade mapperFacade;
+
+    private List<Task> tasks;
+
+    private List<Contract> contracts;
+
+    private List<Client> clients;
+
+    /*** Отображение id пользователя на список id его заданий */
+    private Map<UUID, List<UUID>> clientsTasksIds;
+
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Collections.singletonMap("format.date.time", FORMAT_DATE_TIME)));
+        context.scan("ru.iteco.project.service.mappers");
+        context.refresh();
+        taskMapper = context.getBean(TaskMapper.class);
+        contractMapper = context.getBean(ContractMapper.class);
+        clientMapper = context.getBean(ClientMapper.class);
+
+        mappingContextFactory = new MappingContext.Factory();
+        mapperFacade = orikaMapperFacade(mappingContextFactory);
+
+        prepareEntities();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+
+    @Benchmark
+    public List<TaskDtoResponse> mapStructTasks() {
+        return taskMapper.toDtoList(tasks);
+    }
+
+    @Benchmark
+    public List<TaskDtoResponse> orikaTasks() {
+        return mapperFacade.mapAsList(tasks, TaskDtoResponse.class);
+    }
+
+    @Benchmark
+    public List<ContractDtoResponse> mapStructContracts() {
+        return contractMapper.toDtoList(contracts);
+    }
+
+    @Benchmark
+    public List<ContractDtoResponse> orikaContracts() {
+        return mapperFacade.mapAsList(contracts, ContractDtoResponse.class);
+    }
+
+    @Benchmark
+    public List<ClientDtoResponse> mapStructClients() {
+        List<ClientDtoResponse> clientDtoResponses = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            clientDtoResponses.add(clientMapper.toDto(client, clientsTasksIds.get(client.getId())));
+        }
+        return clientDtoResponses;
+    }
+
+    @Benchmark
+    public List<ClientDtoResponse> orikaClients() {
+        MappingContext mappingContext = mappingContextFactory.getContext();
+        try {
+            mappingContext.setProperty(CLIENTS_TASKS_IDS_PROPERTY, clientsTasksIds);
+            return mapperFacade.mapAsList(clients, ClientDtoResponse.class, mappingContext);
+        } finally {
+            mappingContextFactory.release(mappingContext);
+        }
+    }
+
+
+    private void prepareEntities() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        ClientRole customerRole = new ClientRole(UUID.randomUUID(), ClientRole.ClientRoleEnum.CUSTOMER.name());
+        ClientStatus activeStatus = new ClientStatus(UUID.randomUUID(), ClientStatus.ClientStatusEnum.ACTIVE.name(),
+                "Активен");
+        TaskStatus inProgressStatus = new TaskStatus(UUID.randomUUID(),
+                TaskStatus.TaskStatusEnum.IN_PROGRESS.name(), "Задание на выполнении");
+        ContractStatus paidStatus = new ContractStatus(UUID.randomUUID(),
+                ContractStatus.ContractStatusEnum.PAID.name(), "Договор оплачен");
+
+        tasks = new ArrayList<>(pageSize);
+        contracts = new ArrayList<>(pageSize);
+        clients = new ArrayList<>(pageSize);
+        clientsTasksIds = new HashMap<>();
+        for (int i = 0; i < pageSize; i++) {
+            Client customer = new Client();
+            customer.setId(UUID.randomUUID());
+            customer.setFirstName("first_name_" + i);
+            customer.setSecondName("second_name_" + i);
+            customer.setLastName("last_name_" + i);
+            customer.setEmail("customer_" + i + "@mail.ru");
+            customer.setPhoneNumber("8900000" + i);
+            customer.setClientRole(customerRole);
+            customer.setClientStatus(activeStatus);
+            customer.setWallet(BigDecimal.valueOf(1000));
+            customer.setCreatedAt(now);
+            customer.setUpdatedAt(now);
+            clients.add(customer);
+
+            List<UUID> tasksIds = new ArrayList<>(TASKS_PER_CLIENT);
+            for (int j = 0; j < TASKS_PER_CLIENT; j++) {
+                tasksIds.add(UUID.randomUUID());
+            }
+            clientsTasksIds.put(customer.getId(), tasksIds);
+
+            Task task = new Task();
+            task.setId(tasksIds.get(0));
+            task.setCustomer(customer);
+            task.setExecutor(customer);
+            task.setTitle("title_" + i);
+            task.setDescription("description_" + i);
+            task.setTaskCompletionDate(now.plusDays(10));
+            task.setPrice(BigDecimal.valueOf(500));
+            task.setTaskStatus(inProgressStatus);
+            task.setTaskDecision("task_decision_" + i);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+
+            Contract contract = new Contract();
+            contract.setId(UUID.randomUUID());
+            contract.setCustomer(customer);
+            contract.setExecutor(customer);
+            contract.setTask(task);
+            contract.setContractStatus(paidStatus);
+            contract.setCreatedAt(now);
+            contract.setUpdatedAt(now);
+            contracts.add(contract);
+        }
+    }
+
+    /**
+     * Метод создает MapperFacade с конфигурацией классов Client, Task и Contract, действовавшей до перехода
+     * на MapStruct, для преобразования сущностей в dto ответа
+     *
+     * @param mappingContextFactory - фабрика контекстов маппинга
+     * @return - MapperFacade Orika
+     */
+    private static MapperFacade orikaMapperFacade(MappingContext.Factory mappingContextFactory) {
+        MapperFactory mapperFactory = new DefaultMapperFactory.Builder()
+                .mappingContextFactory(mappingContextFactory)
+                .build();
+        mapperFactory.getConverterFactory().registerConverter("dateTimeFormatter", new DateTimeFormatter());
+
+        mapperFactory
+                .classMap(Client.class, ClientDtoResponse.class)
+                .byDefault()
+                .customize(new CustomMapper<Client, ClientDtoResponse>() {
+                    @Override
+                    public void mapAtoB(Client client, ClientDtoResponse clientDtoResponse, MappingContext context) {
+                        @SuppressWarnings("unchecked")
+                        Map<UUID, List<UUID>> clientsTasksIds =
+                                (Map<UUID, List<UUID>>) context.getProperty(CLIENTS_TASKS_IDS_PROPERTY);
+                        clientDtoResponse.getTasksIdList().addAll(clientsTasksIds.get(client.getId()));
+                        clientDtoResponse.setClientRole(client.getClientRole().getValue());
+                        clientDtoResponse.setClientStatus(client.getClientStatus().getValue());
+                    }
+                })
+                .fieldMap("createdAt").converter("dateTimeFormatter").add()
+                .fieldMap("updatedAt").converter("dateTimeFormatter").add()
+                .register();
+
+        mapperFactory
+                .classMap(Task.class, TaskDtoResponse.class)
+                .byDefault()
+                .customize(new CustomMapper<Task, TaskDtoResponse>() {
+                    @Override
+                    public void mapAtoB(Task task, TaskDtoResponse taskDtoResponse, MappingContext context) {
+                        taskDtoResponse.setCustomerId(task.getCustomer().getId());
+                        taskDtoResponse.setTaskStatus(task.getTaskStatus().getValue());
+                        if (task.getExecutor() != null) {
+                            taskDtoResponse.setExecutorId(task.getExecutor().getId());
+                        }
+                    }
+                })
+                .fieldMap("createdAt").converter("dateTimeFormatter").add()
+                .fieldMap("updatedAt").converter("dateTimeFormatter").add()
+                .fieldMap("taskCompletionDate").converter("dateTimeFormatter").add()
+                .register();
+
+        mapperFactory
+                .classMap(Contract.class, ContractDtoResponse.class)
+                .byDefault()
+                .customize(new CustomMapper<Contract, ContractDtoResponse>() {
+                    @Override
+                    public void mapAtoB(Contract contract, ContractDtoResponse contractDtoResponse,
+                                        MappingContext context) {
+                        contractDtoResponse.setCustomerId(contract.getCustomer().getId());
+                        contractDtoResponse.setExecutorId(contract.getExecutor().getId());
+                        contractDtoResponse.setTaskId(contract.getTask().getId());
+                        contractDtoResponse.setContractStatus(contract.getContractStatus().getValue());
+                    }
+                })
+                .fieldMap("createdAt").converter("dateTimeFormatter").add()
+                .fieldMap("updatedAt").converter("dateTimeFormatter").add()
+                .register();
+
+        return mapperFactory.getMapperFacade();
+    }
+
+
+    /**
+     * Класс-конвертер Orika для преобразования типов и форматов дат
+     */
+    private static class DateTimeFormatter extends BidirectionalConverter<LocalDateTime, String> {
+
+        @Override
+        public String convertTo(LocalDateTime source, Type<String> destinationType, MappingContext mappingContext) {
+            return DateTimeMapper.objectToString(source, FORMAT_DATE_TIME);
+        }
+
+        @Override
+        public LocalDateTime convertFrom(String source, Type<LocalDateTime> destinationType,
+                                         MappingContext mappingContext) {
+            return DateTimeMapper.stringToObject(source, FORMAT_DATE_TIME);
+        }
+    }
+
+}
@@ -7,8 +7,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.iteco.project.annotation.Audit;
+import ru.iteco.project.controller.export.NdjsonResponseWriter;
 import ru.iteco.project.resource.ClientResource;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.dto.ClientBaseDto;
@@ -16,8 +18,10 @@ import ru.iteco.project.resource.dto.ClientDtoRequest;
 import ru.iteco.project.resource.dto.ClientDtoResponse;
 import ru.iteco.project.resource.searching.ClientSearchDto;
 import ru.iteco.project.service.ClientService;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.validator.ClientDtoRequestValidator;
 
+import java.math.BigDecimal;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -38,10 +42,15 @@ public class ClientController implements ClientResource {
     /*** Объект валидатора для ClientDtoRequest*/
     private final ClientDtoRequestValidator clientDtoRequestValidator;
 
+    /*** Объект формирования потоковых ответов в формате NDJSON */
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
-    public ClientController(ClientService clientService, ClientDtoRequestValidator clientDtoRequestValidator) {
+
+    public ClientController(ClientService clientService, ClientDtoRequestValidator clientDtoRequestValidator,
+                            NdjsonResponseWriter ndjsonResponseWriter) {
         this.clientService = clientService;
         this.clientDtoRequestValidator = clientDtoRequestValidator;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
     }
 
 
@@ -53,6 +62,12 @@ public class ClientController implements ClientResource {
         return ResponseEntity.ok().body(allClients);
     }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportClients() {
+        beforeCall(Level.DEBUG, "exportClients()", "{}");
+        return ndjsonResponseWriter.write(clientService::exportAllClients);
+    }
+
     @Override
     public PageDto getClients(ClientSearchDto clientSearchDto, Pageable pageable) {
         beforeCall(Level.DEBUG, "getClients()", clientSearchDto, pageable);
@@ -67,7 +82,7 @@ public class ClientController implements ClientResource {
         beforeCall(Level.DEBUG, "getClient()", id);
         ClientDtoResponse clientById = clientService.getClientById(id);
         afterCall(Level.DEBUG, "getClient()", clientById);
-        return ResponseEntity.ok().body(clientById);
+        return ResponseEntity.ok().eTag(String.valueOf(clientById.getVersion())).body(clientById);
     }
 
     @Override
@@ -90,18 +105,20 @@ public class ClientController implements ClientResource {
 
     @Override
     @Audit(operation = CLIENT_UPDATE)
-    public ResponseEntity<? extends ClientBaseDto> updateClient(UUID id, ClientDtoRequest clientDtoRequest, BindingResult result) {
+    public ResponseEntity<? extends ClientBaseDto> updateClient(UUID id, ClientDtoRequest clientDtoRequest, BindingResult result,
+                                                                String ifMatch) {
 
-        beforeCall(Level.DEBUG, "updateClient()", id, clientDtoRequest);
+        beforeCall(Level.DEBUG, "updateClient()", id, clientDtoRequest, ifMatch);
 
         if (result.hasErrors()) {
             clientDtoRequest.setErrors(result.getAllErrors());
             return ResponseEntity.unprocessableEntity().body(clientDtoRequest);
         }
 
-        ClientDtoResponse clientDtoResponse = clientService.updateClient(clientDtoRequest);
+        ClientDtoResponse clientDtoResponse = clientService.updateClient(clientDtoRequest,
+                EntityVersionUtil.parseIfMatch(ifMatch));
         afterCall(Level.DEBUG, "updateClient()", clientDtoResponse);
-        return ResponseEntity.ok().body(clientDtoResponse);
+        return ResponseEntity.ok().eTag(String.valueOf(clientDtoResponse.getVersion())).body(clientDtoResponse);
     }
 
     @Override
@@ -110,7 +127,16 @@ public class ClientController implements ClientResource {
         beforeCall(Level.DEBUG, "updateClientStatus()", id, val);
         ClientDtoResponse responseEntity = clientService.updateClientStatus(id, val);
         afterCall(Level.DEBUG, "updateClientStatus()", responseEntity);
-        return ResponseEntity.ok().body(responseEntity);
+        return ResponseEntity.ok().eTag(String.valueOf(responseEntity.getVersion())).body(responseEntity);
+    }
+
+    @Override
+    @Audit(operation = CLIENT_WALLET_CHANGE)
+    public ResponseEntity<? extends ClientBaseDto> changeClientWallet(UUID id, BigDecimal amount) {
+        beforeCall(Level.DEBUG, "changeClientWallet()", id, amount);
+        ClientDtoResponse responseEntity = clientService.changeWalletBalance(id, amount);
+        afterCall(Level.DEBUG, "changeClientWallet()", responseEntity);
+        return ResponseEntity.ok().eTag(String.valueOf(responseEntity.getVersion())).body(responseEntity);
     }
 
     @Override
@@ -7,8 +7,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.iteco.project.annotation.Audit;
+import ru.iteco.project.controller.export.NdjsonResponseWriter;
 import ru.iteco.project.resource.ContractResource;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.dto.ContractBaseDto;
@@ -16,6 +18,7 @@ import ru.iteco.project.resource.dto.ContractDtoRequest;
 import ru.iteco.project.resource.dto.ContractDtoResponse;
 import ru.iteco.project.resource.searching.ContractSearchDto;
 import ru.iteco.project.service.ContractService;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.validator.ContractDtoRequestValidator;
 
 import java.net.URI;
@@ -38,10 +41,15 @@ public class ContractController implements ContractResource {
     /*** Объект валидатора для ContractDtoRequest*/
     private final ContractDtoRequestValidator contractDtoRequestValidator;
 
+    /*** Объект формирования потоковых ответов в формате NDJSON */
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
-    public ContractController(ContractService contractService, ContractDtoRequestValidator contractDtoRequestValidator) {
+
+    public ContractController(ContractService contractService, ContractDtoRequestValidator contractDtoRequestValidator,
+                              NdjsonResponseWriter ndjsonResponseWriter) {
         this.contractService = contractService;
         this.contractDtoRequestValidator = contractDtoRequestValidator;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
     }
 
 
@@ -54,12 +62,19 @@ public class ContractController implements ContractResource {
     }
 
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportContracts() {
+        beforeCall(Level.DEBUG, "exportContracts()", "{}");
+        return ndjsonResponseWriter.write(contractService::exportAllContracts);
+    }
+
+
     @Override
     public ResponseEntity<ContractDtoResponse> getContract(UUID id) {
         beforeCall(Level.DEBUG, "getContract()", id);
         ContractDtoResponse contractById = contractService.getContractById(id);
         afterCall(Level.DEBUG, "getContract()", contractById);
-        return ResponseEntity.ok().body(contractById);
+        return ResponseEntity.ok().eTag(String.valueOf(contractById.getVersion())).body(contractById);
     }
 
 
@@ -99,17 +114,18 @@ public class ContractController implements ContractResource {
     @Override
     @Audit(operation = CONTRACT_UPDATE)
     public ResponseEntity<? extends ContractBaseDto> updateContract(ContractDtoRequest contractDtoRequest, UUID id,
-                                                                    BindingResult result) {
+                                                                    BindingResult result, String ifMatch) {
 
-        beforeCall(Level.DEBUG, "updateContract()", contractDtoRequest, id);
+        beforeCall(Level.DEBUG, "updateContract()", contractDtoRequest, id, ifMatch);
         if (result.hasErrors()) {
             contractDtoRequest.setErrors(result.getAllErrors());
             return ResponseEntity.unprocessableEntity().body(contractDtoRequest);
         }
 
-        ContractDtoResponse contractDtoResponse = contractService.updateContract(contractDtoRequest);
+        ContractDtoResponse contractDtoResponse = contractService.updateContract(contractDtoRequest,
+                EntityVersionUtil.parseIfMatch(ifMatch));
         afterCall(Level.DEBUG, "updateContract()", contractDtoResponse);
-        return ResponseEntity.ok().body(contractDtoResponse);
+        return ResponseEntity.ok().eTag(String.valueOf(contractDtoResponse.getVersion())).body(contractDtoResponse);
     }
 
 
@@ -3,22 +3,29 @@ package ru.iteco.project.controller;
 import org.apache.logging.log4j.Level;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.iteco.project.annotation.Audit;
+import ru.iteco.project.controller.export.NdjsonResponseWriter;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.TaskResource;
 import ru.iteco.project.resource.dto.TaskBaseDto;
 import ru.iteco.project.resource.dto.TaskDtoRequest;
 import ru.iteco.project.resource.dto.TaskDtoResponse;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoRequest;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoResponse;
 import ru.iteco.project.resource.searching.TaskSearchDto;
 import ru.iteco.project.service.TaskService;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.validator.TaskDtoRequestValidator;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -38,10 +45,15 @@ public class TaskController implements TaskResource {
     /*** Объект валидатора для TaskDtoRequest*/
     private final TaskDtoRequestValidator taskDtoRequestValidator;
 
+    /*** Объект формирования потоковых ответов в формате NDJSON */
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
-    public TaskController(TaskService taskService, TaskDtoRequestValidator taskDtoRequestValidator) {
+
+    public TaskController(TaskService taskService, TaskDtoRequestValidator taskDtoRequestValidator,
+                          NdjsonResponseWriter ndjsonResponseWriter) {
         this.taskService = taskService;
         this.taskDtoRequestValidator = taskDtoRequestValidator;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
     }
 
 
@@ -59,12 +71,23 @@ public class TaskController implements TaskResource {
     }
 
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportTasks(UUID clientId) {
+        beforeCall(Level.DEBUG, "exportTasks()", clientId);
+        if (clientId != null) {
+            return ndjsonResponseWriter.<TaskDtoResponse>write(
+                    consumer -> taskService.exportAllClientTasks(clientId, consumer));
+        }
+        return ndjsonResponseWriter.write(taskService::exportAllTasks);
+    }
+
+
     @Override
     public ResponseEntity<TaskDtoResponse> getTask(UUID id) {
         beforeCall(Level.DEBUG, "getTask()", id);
         TaskDtoResponse taskById = taskService.getTaskById(id);
         afterCall(Level.DEBUG, "getTask()", taskById);
-        return ResponseEntity.ok().body(taskById);
+        return ResponseEntity.ok().eTag(String.valueOf(taskById.getVersion())).body(taskById);
     }
 
 
@@ -78,7 +101,7 @@ public class TaskController implements TaskResource {
 
 
     @Override
-    @Audit(operation = TASK_CREATE)
+    @Audit(operation = TASK_CREATE, result = {"statusCodeValue", "body.id", "body.version"})
     public ResponseEntity<? extends TaskBaseDto> createTask(TaskDtoRequest taskDtoRequest,
                                                             BindingResult result,
                                                             UriComponentsBuilder componentsBuilder) {
@@ -102,18 +125,65 @@ public class TaskController implements TaskResource {
 
 
     @Override
-    @Audit(operation = TASK_UPDATE)
+    @Audit(operation = TASK_BATCH_CREATE, result = {"statusCodeValue"})
+    public ResponseEntity<List<? extends TaskBaseDto>> createBatchTask(ArrayList<TaskDtoRequest> taskDtoRequestList,
+                                                                       UriComponentsBuilder componentsBuilder) {
+        beforeCall(Level.DEBUG, "createBatchTask()", taskDtoRequestList);
+
+        List<TaskBaseDto> results = new ArrayList<>(taskDtoRequestList);
+        List<Integer> validIndexes = new ArrayList<>();
+        List<TaskDtoRequest> validRequests = new ArrayList<>();
+        for (int i = 0; i < taskDtoRequestList.size(); i++) {
+            TaskDtoRequest taskDtoRequest = taskDtoRequestList.get(i);
+            BindingResult result = new BeanPropertyBindingResult(taskDtoRequest, "taskDtoRequest");
+            taskDtoRequestValidator.validate(taskDtoRequest, result);
+            if (result.hasErrors()) {
+                taskDtoRequest.setErrors(result.getAllErrors());
+            } else {
+                validIndexes.add(i);
+                validRequests.add(taskDtoRequest);
+            }
+        }
+        if (validRequests.isEmpty()) {
+            return ResponseEntity.unprocessableEntity().body(results);
+        }
+
+        List<TaskDtoResponse> bundleTasks = taskService.createBundleTasks(validRequests);
+        for (int i = 0; i < bundleTasks.size(); i++) {
+            results.set(validIndexes.get(i), bundleTasks.get(i));
+        }
+        afterCall(Level.DEBUG, "createBatchTask()", results);
+
+        URI uri = componentsBuilder.path("/api/v1/tasks").build().toUri();
+        return ResponseEntity.created(uri).body(results);
+    }
+
+
+    @Override
+    @Audit(operation = TASK_BATCH_STATUS_UPDATE)
+    public ResponseEntity<TaskStatusTransitionDtoResponse> updateTasksStatus(
+            TaskStatusTransitionDtoRequest transitionDtoRequest) {
+        beforeCall(Level.DEBUG, "updateTasksStatus()", transitionDtoRequest);
+        TaskStatusTransitionDtoResponse transitionDtoResponse = taskService.updateTasksStatus(transitionDtoRequest);
+        afterCall(Level.DEBUG, "updateTasksStatus()", transitionDtoResponse);
+        return ResponseEntity.ok().body(transitionDtoResponse);
+    }
+
+
+    @Override
+    @Audit(operation = TASK_UPDATE, result = {"statusCodeValue", "body.id", "body.version"})
     public ResponseEntity<? extends TaskBaseDto> updateTask(UUID id, TaskDtoRequest taskDtoRequest,
-                                                            BindingResult result) {
-        beforeCall(Level.DEBUG, "updateTask()", id, taskDtoRequest);
+                                                            BindingResult result, String ifMatch) {
+        beforeCall(Level.DEBUG, "updateTask()", id, taskDtoRequest, ifMatch);
         if (result.hasErrors()) {
             taskDtoRequest.setErrors(result.getAllErrors());
             return ResponseEntity.unprocessableEntity().body(taskDtoRequest);
         }
 
-        TaskDtoResponse taskDtoResponse = taskService.updateTask(taskDtoRequest);
+        TaskDtoResponse taskDtoResponse = taskService.updateTask(taskDtoRequest,
+                EntityVersionUtil.parseIfMatch(ifMatch));
         afterCall(Level.DEBUG, "updateTask()", taskDtoResponse);
-        return ResponseEntity.ok().body(taskDtoResponse);
+        return ResponseEntity.ok().eTag(String.valueOf(taskDtoResponse.getVersion())).body(taskDtoResponse);
     }
 
 
@@ -13,6 +13,8 @@ public class AuditCode {
     public static final String CLIENT_DELETE = "CLIENT_DELETE";
     /*** Изменение статуса клиента*/
     public static final String UPDATE_CLIENT_STATUS = "UPDATE_CLIENT_STATUS";
+    /*** Изменение баланса кошелька клиента*/
+    public static final String CLIENT_WALLET_CHANGE = "CLIENT_WALLET_CHANGE";
 
 
     /*** Создание роли клиента*/
@@ -31,10 +33,14 @@ public class AuditCode {
 
     /*** Создание задания*/
     public static final String TASK_CREATE = "TASK_CREATE";
+    /*** Пакетное создание заданий*/
+    public static final String TASK_BATCH_CREATE = "TASK_BATCH_CREATE";
     /*** Обновление задания*/
     public static final String TASK_UPDATE = "TASK_UPDATE";
     /*** Удаление задания*/
     public static final String TASK_DELETE = "TASK_DELETE";
+    /*** Пакетный перевод заданий в новый статус*/
+    public static final String TASK_BATCH_STATUS_UPDATE = "TASK_BATCH_STATUS_UPDATE";
 
     /*** Создание статуса задания*/
     public static final String TASK_STATUS_CREATE = "TASK_STATUS_CREATE";
@@ -48,10 +48,15 @@ public class Client extends CreateAtIdentified implements Identified<UUID> {
     @JoinColumn(name = "status_id", nullable = false)
     private ClientStatus clientStatus;
 
-    /*** Кошелек пользователя */
-    @Column(name = "wallet", nullable = false, precision = 1000, scale = 2)
+    /*** Учтенный баланс кошелька пользователя, изменяется только учетом операций журнала кошельков */
+    @Column(name = "wallet", nullable = false, updatable = false, precision = 1000, scale = 2)
     private BigDecimal wallet = new BigDecimal(0);
 
+    /*** Версия записи для оптимистической блокировки, увеличивается при каждом обновлении */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     public Client() {
     }
@@ -142,4 +147,8 @@ public class Client extends CreateAtIdentified implements Identified<UUID> {
         this.wallet = wallet;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
 }
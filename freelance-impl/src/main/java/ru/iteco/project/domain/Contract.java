@@ -37,6 +37,11 @@ public class Contract extends CreateAtIdentified implements Identified<UUID> {
     @JoinColumn(name = "contract_status_id", nullable = false)
     private ContractStatus contractStatus;
 
+    /*** Версия записи для оптимистической блокировки, увеличивается при каждом обновлении */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     public Contract() {
     }
@@ -90,4 +95,9 @@ public class Contract extends CreateAtIdentified implements Identified<UUID> {
     public void setCustomer(Client customer) {
         this.customer = customer;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
 }
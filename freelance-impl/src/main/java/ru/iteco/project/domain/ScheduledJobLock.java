@@ -0,0 +1,80 @@
+package ru.iteco.project.domain;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Модель данных представляющая блокировку задания по расписанию и сведения о его последнем запуске.
+ * Записи изменяются только атомарными запросами ScheduledJobLockRepository
+ */
+@Entity
+@Immutable
+@Table(schema = "freelance", name = "scheduled_job_lock")
+public class ScheduledJobLock {
+
+    /*** Наименование задания */
+    @Id
+    @Column
+    private String name;
+
+    /*** Дата и время, до которых задание не может быть запущено другим экземпляром */
+    @Column(name = "lock_until", nullable = false)
+    private LocalDateTime lockUntil;
+
+    /*** Дата и время последнего запуска */
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    /*** Экземпляр приложения, выполнивший последний запуск */
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    /*** Дата и время завершения последнего запуска, null - задание выполняется */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /*** Длительность последнего запуска в миллисекундах */
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    /*** Признак успешного завершения последнего запуска */
+    @Column
+    private Boolean succeeded;
+
+
+    public ScheduledJobLock() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getLockUntil() {
+        return lockUntil;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public Boolean getSucceeded() {
+        return succeeded;
+    }
+}
@@ -57,6 +57,11 @@ public class Task extends CreateAtIdentified implements Identified<UUID> {
     @Column(name = "task_decision")
     private String taskDecision;
 
+    /*** Версия записи для оптимистической блокировки, увеличивается при каждом обновлении */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     public Task() {
     }
@@ -147,4 +152,8 @@ public class Task extends CreateAtIdentified implements Identified<UUID> {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
 }
@@ -4,6 +4,8 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -90,6 +92,38 @@ public class TaskStatus extends CreateAtIdentified implements Identified<UUID> {
             return isTerminated;
         }
 
+        /**
+         * Метод возвращает статусы, из которых администратор может пакетно перевести задания в данный статус.
+         * Переходы повторяют ограничения обновления задания: из терминальных статусов переход невозможен,
+         * отменить можно только задание без исполнителя, остальные статусы требуют наличия исполнителя
+         *
+         * @return - множество допустимых исходных статусов, пустое, если пакетный переход в статус недоступен
+         */
+        public Set<TaskStatusEnum> getBatchSourceStatuses() {
+            switch (this) {
+                case IN_PROGRESS:
+                    return EnumSet.of(ON_CHECK, ON_FIX);
+                case ON_CHECK:
+                    return EnumSet.of(IN_PROGRESS, ON_FIX);
+                case ON_FIX:
+                case DONE:
+                    return EnumSet.of(ON_CHECK);
+                case CANCELED:
+                    return EnumSet.of(REGISTERED);
+                default:
+                    return EnumSet.noneOf(TaskStatusEnum.class);
+            }
+        }
+
+        /**
+         * Метод определяет, должен ли у задания в данном статусе быть назначен исполнитель
+         *
+         * @return true - статус требует наличия исполнителя, false - задание в статусе не должно иметь исполнителя
+         */
+        public boolean isExecutorRequired() {
+            return (this != REGISTERED) && (this != CANCELED);
+        }
+
         /**
          * Метод проверяет является ли входная строка текстовым представлением одного из элементов перечисления
          *
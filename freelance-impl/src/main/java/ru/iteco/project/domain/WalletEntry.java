@@ -0,0 +1,101 @@
+package ru.iteco.project.domain;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Модель данных представляющая запись журнала операций по кошельку пользователя.
+ * Записи только добавляются атомарными запросами WalletLedgerRepository и не изменяются, баланс пользователя
+ * равен сумме clients.wallet и сумм записей, еще не учтенных в нем (applied = false)
+ */
+@Entity
+@Immutable
+@Table(schema = "freelance", name = "wallet_entries")
+public class WalletEntry {
+
+    /*** Уникальный id записи */
+    @Id
+    @Column
+    private UUID id;
+
+    /*** Идентификатор пользователя */
+    @Column(name = "client_id", nullable = false)
+    private UUID clientId;
+
+    /*** Идентификатор договора, по которому выполнена операция */
+    @Column(name = "contract_id")
+    private UUID contractId;
+
+    /*** Сумма операции: отрицательная - списание, положительная - зачисление */
+    @Column(name = "amount", nullable = false, precision = 1000, scale = 2)
+    private BigDecimal amount;
+
+    /*** Тип операции */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private Operation operation;
+
+    /*** Признак учета суммы операции в балансе clients.wallet */
+    @Column(name = "applied", nullable = false)
+    private boolean applied;
+
+    /*** Дата и время операции */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+
+    public WalletEntry() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getClientId() {
+        return clientId;
+    }
+
+    public UUID getContractId() {
+        return contractId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+
+    /**
+     * Типы операций по кошельку
+     */
+    public enum Operation {
+
+        /*** Оплата договора заказчиком при его создании */
+        CONTRACT_PAYMENT,
+
+        /*** Вознаграждение исполнителю за выполненный договор */
+        CONTRACT_REWARD,
+
+        /*** Возврат средств заказчику при расторжении договора */
+        CONTRACT_REFUND,
+
+        /*** Пополнение или списание средств кошелька пользователем */
+        ADJUSTMENT
+
+    }
+}
@@ -0,0 +1,26 @@
+package ru.iteco.project.exception;
+
+/**
+ * Класс исключения EntityVersionMismatchException, возникающего при обновлении записи по устаревшей версии,
+ * переданной в заголовке If-Match
+ */
+public class EntityVersionMismatchException extends RuntimeException {
+
+
+    public EntityVersionMismatchException() {
+        super();
+    }
+
+    public EntityVersionMismatchException(String message) {
+        super(message);
+    }
+
+    public EntityVersionMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public EntityVersionMismatchException(Throwable cause) {
+        super(cause);
+    }
+
+}
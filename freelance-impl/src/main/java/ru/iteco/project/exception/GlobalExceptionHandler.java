@@ -3,6 +3,8 @@ package ru.iteco.project.exception;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -276,6 +278,78 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(responseError, new HttpHeaders(), HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Перехватчик исключения EntityVersionMismatchException, возникающего при обновлении записи по версии из
+     * заголовка If-Match, не совпадающей с текущей
+     *
+     * @param e - объект исключения
+     * @return - объект ResponseError с полной информацией о возникшей проблеме
+     */
+    @ExceptionHandler(EntityVersionMismatchException.class)
+    public ResponseEntity<ResponseError> entityVersionMismatchException(EntityVersionMismatchException e) {
+        ResponseError responseError = new ResponseError(
+                UUID.randomUUID(),
+                environment.getProperty(e.getMessage(), e.getLocalizedMessage()),
+                e.getClass().getName()
+        );
+        log.debug(responseError, e);
+        return new ResponseEntity<>(responseError, new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Перехватчик исключения OptimisticLockingFailureException, возникающего при сохранении записи, версия которой
+     * была изменена конкурентной транзакцией
+     *
+     * @param e - объект исключения
+     * @return - объект ResponseError с полной информацией о возникшей проблеме
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ResponseError> optimisticLockingFailureException(OptimisticLockingFailureException e) {
+        ResponseError responseError = new ResponseError(
+                UUID.randomUUID(),
+                environment.getProperty("errors.persistence.entity.version.conflict", e.getLocalizedMessage()),
+                e.getClass().getName()
+        );
+        log.debug(responseError, e);
+        return new ResponseEntity<>(responseError, new HttpHeaders(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Перехватчик исключения PessimisticLockingFailureException, возникающего при попытке заблокировать запись,
+     * уже заблокированную конкурентной транзакцией (FOR UPDATE NOWAIT)
+     *
+     * @param e - объект исключения
+     * @return - объект ResponseError с полной информацией о возникшей проблеме
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ResponseError> pessimisticLockingFailureException(PessimisticLockingFailureException e) {
+        ResponseError responseError = new ResponseError(
+                UUID.randomUUID(),
+                environment.getProperty("errors.persistence.entity.locked", e.getLocalizedMessage()),
+                e.getClass().getName()
+        );
+        log.debug(responseError, e);
+        return new ResponseEntity<>(responseError, new HttpHeaders(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Перехватчик исключения TransactionConflictException, возникающего при исчерпании попыток повтора транзакции,
+     * прерванной ошибкой сериализации или взаимоблокировкой
+     *
+     * @param e - объект исключения
+     * @return - объект ResponseError с полной информацией о возникшей проблеме
+     */
+    @ExceptionHandler(TransactionConflictException.class)
+    public ResponseEntity<ResponseError> transactionConflictException(TransactionConflictException e) {
+        ResponseError responseError = new ResponseError(
+                UUID.randomUUID(),
+                environment.getProperty(e.getMessage(), e.getLocalizedMessage()),
+                e.getClass().getName()
+        );
+        log.debug(responseError, e);
+        return new ResponseEntity<>(responseError, new HttpHeaders(), HttpStatus.CONFLICT);
+    }
+
     /**
      * Класс исключения IllegalArgumentException, возникающего при получении некорректных/неполных данных
      *
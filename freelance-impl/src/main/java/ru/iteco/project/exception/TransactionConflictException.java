@@ -0,0 +1,26 @@
+package ru.iteco.project.exception;
+
+/**
+ * Класс исключения TransactionConflictException, возникающего при исчерпании попыток повторного выполнения
+ * транзакции, прерванной ошибкой сериализации или взаимоблокировкой
+ */
+public class TransactionConflictException extends RuntimeException {
+
+
+    public TransactionConflictException() {
+        super();
+    }
+
+    public TransactionConflictException(String message) {
+        super(message);
+    }
+
+    public TransactionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public TransactionConflictException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -2,13 +2,24 @@ package ru.iteco.project.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.iteco.project.domain.Client;
 import ru.iteco.project.domain.ClientRole;
 import ru.iteco.project.domain.ClientStatus;
+import ru.iteco.project.repository.projection.ClientView;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.iteco.project.specification.StreamExportExecutor.EXPORT_FETCH_SIZE;
 
 /**
  * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности Client
@@ -57,4 +68,29 @@ public interface ClientRepository extends JpaRepository<Client, UUID>, JpaSpecif
      */
     boolean existsById(UUID id);
 
+    /**
+     * Метод получения проекции пользователя по его id. Загружаются только данные, необходимые для формирования ответа
+     *
+     * @param id - уникальный идентификатор пользователя
+     * @return - Объект Optional с проекцией пользователя или пустой, если пользователь не существует
+     */
+    @Query("select c.id as id, c.firstName as firstName, c.secondName as secondName, c.lastName as lastName, " +
+            "c.email as email, c.phoneNumber as phoneNumber, c.clientRole.value as clientRole, " +
+            "c.clientStatus.value as clientStatus, c.wallet as wallet, c.createdAt as createdAt, " +
+            "c.updatedAt as updatedAt, c.version as version from Client c where c.id = :id")
+    Optional<ClientView> findClientViewById(@Param("id") UUID id);
+
+    /**
+     * Метод потокового получения всех пользователей. Строки читаются из курсора JDBC порциями, поток должен быть
+     * закрыт внутри транзакции, в которой он был открыт
+     *
+     * @return - поток всех пользователей
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select c from Client c")
+    Stream<Client> streamAllClients();
+
 }
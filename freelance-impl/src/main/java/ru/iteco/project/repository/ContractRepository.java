@@ -2,14 +2,24 @@ package ru.iteco.project.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.iteco.project.domain.Contract;
 import ru.iteco.project.domain.ContractStatus;
 import ru.iteco.project.domain.Task;
+import ru.iteco.project.repository.projection.ContractView;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static ru.iteco.project.specification.StreamExportExecutor.EXPORT_FETCH_SIZE;
 
 /**
  * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности Contract
@@ -25,6 +35,18 @@ public interface ContractRepository extends JpaRepository<Contract, UUID>, JpaSp
      */
     Optional<Contract> findContractByTask(Task task);
 
+    /**
+     * Метод получения проекции контракта по его id. Загружаются только данные, необходимые для формирования ответа
+     *
+     * @param id - уникальный идентификатор контракта
+     * @return - Объект Optional с проекцией контракта или пустой, если контракт не существует
+     */
+    @Query("select c.id as id, c.customer.id as customerId, c.executor.id as executorId, c.task.id as taskId, " +
+            "c.contractStatus.value as contractStatus, c.createdAt as createdAt, c.updatedAt as updatedAt, " +
+            "c.version as version " +
+            "from Contract c where c.id = :id")
+    Optional<ContractView> findContractViewById(@Param("id") UUID id);
+
     /**
      * Метод получения всех контрактов с переданным статусом
      *
@@ -33,4 +55,17 @@ public interface ContractRepository extends JpaRepository<Contract, UUID>, JpaSp
      */
     Collection<Contract> findContractsByContractStatus(ContractStatus contractStatus);
 
+    /**
+     * Метод потокового получения всех контрактов. Строки читаются из курсора JDBC порциями, поток должен быть
+     * закрыт внутри транзакции, в которой он был открыт
+     *
+     * @return - поток всех контрактов
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select c from Contract c")
+    Stream<Contract> streamAllContracts();
+
 }
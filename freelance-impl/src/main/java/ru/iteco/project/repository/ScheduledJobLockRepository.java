@@ -0,0 +1,54 @@
+package ru.iteco.project.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.iteco.project.domain.ScheduledJobLock;
+
+/**
+ * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности ScheduledJobLock.
+ * Время блокировок вычисляется по часам БД, поэтому расхождение часов экземпляров приложения не влияет на блокировку
+ */
+@Repository
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+
+    /**
+     * Метод атомарно захватывает блокировку задания, если она отсутствует или срок ее действия истек
+     *
+     * @param name             - наименование задания
+     * @param lockedBy         - экземпляр приложения, захватывающий блокировку
+     * @param lockAtMostMillis - максимальный срок действия блокировки в миллисекундах
+     * @return - 1 - блокировка захвачена, 0 - задание заблокировано другим экземпляром
+     */
+    @Modifying
+    @Query(value = "INSERT INTO freelance.scheduled_job_lock (name, lock_until, locked_at, locked_by) " +
+            "VALUES (:name, now() + :lockAtMostMillis * interval '1 millisecond', now(), :lockedBy) " +
+            "ON CONFLICT (name) DO UPDATE SET lock_until = EXCLUDED.lock_until, locked_at = EXCLUDED.locked_at, " +
+            "locked_by = EXCLUDED.locked_by, finished_at = NULL, duration_ms = NULL, succeeded = NULL " +
+            "WHERE scheduled_job_lock.lock_until <= now()", nativeQuery = true)
+    int tryLock(@Param("name") String name, @Param("lockedBy") String lockedBy,
+                @Param("lockAtMostMillis") long lockAtMostMillis);
+
+    /**
+     * Метод освобождает блокировку задания, сохраняя ее не менее lockAtLeastMillis с момента запуска, и фиксирует
+     * результат запуска
+     *
+     * @param name              - наименование задания
+     * @param lockedBy          - экземпляр приложения, захвативший блокировку
+     * @param lockAtLeastMillis - минимальный срок действия блокировки в миллисекундах
+     * @param durationMillis    - длительность запуска в миллисекундах
+     * @param succeeded         - признак успешного завершения запуска
+     * @return - количество обновленных записей
+     */
+    @Modifying
+    @Query(value = "UPDATE freelance.scheduled_job_lock " +
+            "SET lock_until = GREATEST(now(), locked_at + :lockAtLeastMillis * interval '1 millisecond'), " +
+            "finished_at = now(), duration_ms = :durationMillis, succeeded = :succeeded " +
+            "WHERE name = :name AND locked_by = :lockedBy AND finished_at IS NULL", nativeQuery = true)
+    int unlock(@Param("name") String name, @Param("lockedBy") String lockedBy,
+               @Param("lockAtLeastMillis") long lockAtLeastMillis, @Param("durationMillis") long durationMillis,
+               @Param("succeeded") boolean succeeded);
+
+}
@@ -0,0 +1,61 @@
+package ru.iteco.project.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.iteco.project.domain.Task;
+import ru.iteco.project.domain.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Интерфейс пакетных операций над заданиями, дополняющий TaskRepository
+ */
+public interface TaskBatchRepository {
+
+    /**
+     * Метод сохраняет новые задания через persist, без предварительной выборки каждой записи, которую выполняет
+     * merge в saveAll для сущностей с заранее заданным id. Вставки группируются в JDBC пакеты
+     * (hibernate.jdbc.batch_size) при сбросе контекста персистентности
+     *
+     * @param tasks - новые задания с проставленными id
+     * @return - сохраненные задания
+     */
+    List<Task> persistAll(List<Task> tasks);
+
+    /**
+     * Метод получения идентификаторов заданий, удовлетворяющих спецификации, без загрузки сущностей
+     *
+     * @param specification - спецификация поиска заданий
+     * @return - список идентификаторов заданий
+     */
+    List<UUID> findIds(Specification<Task> specification);
+
+    /**
+     * Метод переводит задания в новый статус одним запросом UPDATE ... RETURNING на каждые
+     * {@link TaskBatchRepositoryImpl#TASKS_IDS_BATCH_SIZE} идентификаторов. Допустимость перехода проверяется
+     * в условии запроса: обновляются только задания в одном из исходных статусов с исполнителем или без него
+     *
+     * @param tasksIds         - идентификаторы заданий
+     * @param taskStatus       - новый статус заданий
+     * @param sourceStatuses   - наименования допустимых исходных статусов
+     * @param executorRequired - true - у задания должен быть исполнитель, false - исполнителя быть не должно
+     * @return - идентификаторы фактически обновленных заданий
+     */
+    List<UUID> updateTasksStatus(Collection<UUID> tasksIds, TaskStatus taskStatus, Collection<String> sourceStatuses,
+                                 boolean executorRequired);
+
+    /**
+     * Метод блокирует и возвращает идентификаторы не более limit заданий, у которых: статус совпадает с переданным
+     * и срок выполнения наступил не позднее expiredDate. Задания, заблокированные другими транзакциями, пропускаются
+     * (FOR UPDATE SKIP LOCKED), поэтому выборка не ожидает пользовательские транзакции и не конфликтует с ними
+     *
+     * @param taskStatus  - статус в котором должно находиться задание
+     * @param expiredDate - дата, задания со сроком выполнения <= expiredDate считаются просроченными
+     * @param limit       - максимальное количество заданий в выборке
+     * @return - идентификаторы заблокированных заданий
+     */
+    List<UUID> lockOverdueTasksIds(TaskStatus taskStatus, LocalDateTime expiredDate, int limit);
+
+}
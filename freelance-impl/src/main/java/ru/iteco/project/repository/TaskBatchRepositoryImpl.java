@@ -0,0 +1,106 @@
+package ru.iteco.project.repository;
+
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.StringType;
+import org.springframework.data.jpa.domain.Specification;
+import ru.iteco.project.domain.Task;
+import ru.iteco.project.domain.TaskStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Класс реализует пакетные операции над заданиями
+ */
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    /*** Максимальное количество id заданий в одном запросе обновления статуса */
+    public static final int TASKS_IDS_BATCH_SIZE = 1000;
+
+    /*** Запрос перевода заданий в новый статус с проверкой исходного статуса и наличия исполнителя и увеличением версии */
+    private static final String UPDATE_TASKS_STATUS_QUERY = "UPDATE freelance.task t " +
+            "SET task_status_id = :taskStatusId, updated_at = now(), version = t.version + 1 " +
+            "FROM freelance.task_statuses s " +
+            "WHERE s.id = t.task_status_id " +
+            "AND t.id IN (:tasksIds) " +
+            "AND s.value IN (:sourceStatuses) " +
+            "AND (t.executor_id IS NOT NULL) = :executorRequired " +
+            "RETURNING t.id";
+
+    /*** Запрос блокировки просроченных заданий с пропуском уже заблокированных записей */
+    private static final String LOCK_OVERDUE_TASKS_QUERY = "SELECT t.id FROM freelance.task t " +
+            "WHERE t.task_status_id = :taskStatusId " +
+            "AND t.task_completion_date <= :expiredDate " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED";
+
+    /*** Объект управления контекстом персистентности */
+    private final EntityManager entityManager;
+
+
+    public TaskBatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+
+    @Override
+    public List<Task> persistAll(List<Task> tasks) {
+        tasks.forEach(entityManager::persist);
+        entityManager.flush();
+        return tasks;
+    }
+
+    @Override
+    public List<UUID> findIds(Specification<Task> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = builder.createQuery(UUID.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, builder));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> updateTasksStatus(Collection<UUID> tasksIds, TaskStatus taskStatus,
+                                        Collection<String> sourceStatuses, boolean executorRequired) {
+        List<UUID> ids = new ArrayList<>(tasksIds);
+        List<UUID> updatedIds = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += TASKS_IDS_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + TASKS_IDS_BATCH_SIZE, ids.size()));
+            NativeQuery<UUID> query = entityManager.createNativeQuery(UPDATE_TASKS_STATUS_QUERY)
+                    .unwrap(NativeQuery.class)
+                    .addScalar("id", PostgresUUIDType.INSTANCE)
+                    .addSynchronizedEntityClass(Task.class)
+                    .setParameter("taskStatusId", taskStatus.getId(), PostgresUUIDType.INSTANCE)
+                    .setParameterList("tasksIds", batch, PostgresUUIDType.INSTANCE)
+                    .setParameterList("sourceStatuses", sourceStatuses, StringType.INSTANCE)
+                    .setParameter("executorRequired", executorRequired);
+            updatedIds.addAll(query.getResultList());
+        }
+        return updatedIds;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> lockOverdueTasksIds(TaskStatus taskStatus, LocalDateTime expiredDate, int limit) {
+        NativeQuery<UUID> query = entityManager.createNativeQuery(LOCK_OVERDUE_TASKS_QUERY)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", PostgresUUIDType.INSTANCE)
+                .setParameter("taskStatusId", taskStatus.getId(), PostgresUUIDType.INSTANCE)
+                .setParameter("expiredDate", expiredDate)
+                .setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+}
@@ -2,26 +2,47 @@ package ru.iteco.project.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.iteco.project.domain.Task;
 import ru.iteco.project.domain.TaskStatus;
 import ru.iteco.project.domain.Client;
+import ru.iteco.project.repository.projection.TaskClientsIdView;
+import ru.iteco.project.repository.projection.TaskView;
 
-import java.time.LocalDateTime;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.hibernate.cfg.AvailableSettings.JPA_LOCK_TIMEOUT;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 import static ru.iteco.project.domain.ClientRole.ClientRoleEnum.*;
+import static ru.iteco.project.specification.StreamExportExecutor.EXPORT_FETCH_SIZE;
 
 /**
  * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности Task
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>, TaskBatchRepository {
+
+    /*** Максимальное количество id пользователей в одном запросе получения идентификаторов заданий */
+    int CLIENTS_IDS_BATCH_SIZE = 1000;
 
     /**
      * Метод получения всех заданий заказчика по его id
@@ -55,6 +76,122 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificat
         }
     }
 
+    /**
+     * Метод получения идентификаторов заданий, в которых пользователи с переданными id являются заказчиками
+     * или исполнителями. Сущности заданий при этом не загружаются
+     *
+     * @param clientsIds - коллекция уникальных идентификаторов пользователей
+     * @return - список проекций с идентификаторами задания, заказчика и исполнителя
+     */
+    @Query("select t.id as taskId, t.customer.id as customerId, t.executor.id as executorId from Task t " +
+            "where t.customer.id in :clientsIds or t.executor.id in :clientsIds")
+    List<TaskClientsIdView> findTaskClientsIdsByClientsIds(@Param("clientsIds") Collection<UUID> clientsIds);
+
+    /**
+     * Метод получения проекции задания по его id. Загружаются только данные, необходимые для формирования ответа
+     *
+     * @param id - уникальный идентификатор задания
+     * @return - Объект Optional с проекцией задания или пустой, если задание не существует
+     */
+    @Query("select t.id as id, t.customer.id as customerId, t.executor.id as executorId, t.title as title, " +
+            "t.description as description, t.taskStatus.value as taskStatus, " +
+            "t.taskCompletionDate as taskCompletionDate, t.price as price, t.taskDecision as taskDecision, " +
+            "t.createdAt as createdAt, t.updatedAt as updatedAt, t.version as version from Task t where t.id = :id")
+    Optional<TaskView> findTaskViewById(@Param("id") UUID id);
+
+    /**
+     * Метод получения задания по его id с блокировкой строки задания до конца транзакции
+     * (SELECT ... FOR UPDATE NOWAIT). Если задание уже заблокировано другой транзакцией, запрос не ожидает ее
+     * завершения и сразу завершается ошибкой PessimisticLockingFailureException
+     *
+     * @param id - уникальный идентификатор задания
+     * @return - Объект Optional с заблокированным заданием или пустой, если задание не существует
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(value = {
+            @QueryHint(name = JPA_LOCK_TIMEOUT, value = "0")
+    })
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findByIdForUpdateNoWait(@Param("id") UUID id);
+
+    /**
+     * Метод получения идентификаторов заданий для группы пользователей одним запросом на каждые
+     * {@link #CLIENTS_IDS_BATCH_SIZE} пользователей. Для заказчика учитываются задания, в которых он является заказчиком,
+     * для исполнителя - задания, в которых он является исполнителем
+     *
+     * @param clients - коллекция сущностей пользователей
+     * @return - отображение id пользователя на список id его заданий, для пользователя без заданий - пустой список
+     */
+    default Map<UUID, List<UUID>> findTasksIdsByClients(Collection<Client> clients) {
+        Map<UUID, String> clientsRoles = new LinkedHashMap<>();
+        for (Client client : clients) {
+            clientsRoles.put(client.getId(), (client.getClientRole() != null) ? client.getClientRole().getValue() : null);
+        }
+        return findTasksIdsByClientsRoles(clientsRoles);
+    }
+
+    /**
+     * Метод получения идентификаторов заданий для группы пользователей по их ролям, без загрузки сущностей
+     * пользователей. Аналогичен {@link #findTasksIdsByClients(Collection)}
+     *
+     * @param clientsRoles - отображение id пользователя на значение его роли
+     * @return - отображение id пользователя на список id его заданий, для пользователя без заданий - пустой список
+     */
+    default Map<UUID, List<UUID>> findTasksIdsByClientsRoles(Map<UUID, String> clientsRoles) {
+        Map<UUID, List<UUID>> tasksIdsByClient = new HashMap<>();
+        Set<UUID> customersIds = new HashSet<>();
+        Set<UUID> executorsIds = new HashSet<>();
+        clientsRoles.forEach((clientId, clientRole) -> {
+            if (isEqualsClientRole(CUSTOMER, clientRole)) {
+                customersIds.add(clientId);
+            } else if (isEqualsClientRole(EXECUTOR, clientRole)) {
+                executorsIds.add(clientId);
+            }
+            tasksIdsByClient.put(clientId, new ArrayList<>());
+        });
+
+        List<UUID> clientsIds = new ArrayList<>(customersIds);
+        clientsIds.addAll(executorsIds);
+        for (int from = 0; from < clientsIds.size(); from += CLIENTS_IDS_BATCH_SIZE) {
+            Set<UUID> batch = new HashSet<>(clientsIds.subList(from, Math.min(from + CLIENTS_IDS_BATCH_SIZE, clientsIds.size())));
+            for (TaskClientsIdView view : findTaskClientsIdsByClientsIds(batch)) {
+                if (batch.contains(view.getCustomerId()) && customersIds.contains(view.getCustomerId())) {
+                    tasksIdsByClient.get(view.getCustomerId()).add(view.getTaskId());
+                }
+                if (batch.contains(view.getExecutorId()) && executorsIds.contains(view.getExecutorId())) {
+                    tasksIdsByClient.get(view.getExecutorId()).add(view.getTaskId());
+                }
+            }
+        }
+        return tasksIdsByClient;
+    }
+
+    /**
+     * Метод потокового получения всех заданий. Строки читаются из курсора JDBC порциями, поток должен быть
+     * закрыт внутри транзакции, в которой он был открыт
+     *
+     * @return - поток всех заданий
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select t from Task t")
+    Stream<Task> streamAllTasks();
+
+    /**
+     * Метод потокового получения всех заданий заказчика по его id. Строки читаются из курсора JDBC порциями,
+     * поток должен быть закрыт внутри транзакции, в которой он был открыт
+     *
+     * @param id - уникальный идентификатор заказчика
+     * @return - поток заданий заказчика
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Task> streamTasksByCustomerId(UUID id);
+
     /**
      * Метод получения всех заданий с переданным статусом
      *
@@ -65,16 +202,13 @@ public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificat
 
 
     /**
-     * Метод удаляет задания у которых: статус REGISTERED - задание не взято в работу и с момента заданной  даты
-     * выполнения задания прошло заданное в {task.scheduler.taskCompletionDate.expiredDays} количество дней или более.
-     * Данные задания считаются неактуальными/невостребованными, т.к. в случае актуальности задания для заказчика он
-     * обновил бы крайний срок выполнения задания.
+     * Метод удаляет задания по списку идентификаторов
      *
-     * @param taskStatus  - статус в котором должно находиться удаляемое задание
-     * @param expiredDate - дата, ранее которой задания со сроком выполнения <= expiredDate считаются невостребованными
+     * @param tasksIds - идентификаторы удаляемых заданий
+     * @return - количество удаленных заданий
      */
     @Modifying
-    @Query("delete from Task t where t.taskStatus = :taskStatus and t.taskCompletionDate <= :expiredDate")
-    void scheduledDeletingTasks(@Param("taskStatus") TaskStatus taskStatus, @Param("expiredDate") LocalDateTime expiredDate);
+    @Query("delete from Task t where t.id in :tasksIds")
+    int deleteTasksByIds(@Param("tasksIds") Collection<UUID> tasksIds);
 
 }
@@ -0,0 +1,25 @@
+package ru.iteco.project.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.iteco.project.domain.WalletEntry;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Интерфейс JPA репозитория для предоставления методов взаимодействия с данными сущности WalletEntry.
+ * Записи журнала добавляются только методами WalletLedgerRepository
+ */
+@Repository
+public interface WalletEntryRepository extends JpaRepository<WalletEntry, UUID>, WalletLedgerRepository {
+
+    /**
+     * Метод получения операций по кошельку пользователя в порядке их выполнения
+     *
+     * @param clientId - идентификатор пользователя
+     * @return - список операций по кошельку пользователя
+     */
+    List<WalletEntry> findAllByClientIdOrderByCreatedAt(UUID clientId);
+
+}
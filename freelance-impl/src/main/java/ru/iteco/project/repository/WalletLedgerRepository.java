@@ -0,0 +1,62 @@
+package ru.iteco.project.repository;
+
+import ru.iteco.project.domain.WalletEntry;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Интерфейс операций журнала кошельков пользователей, дополняющий WalletEntryRepository.
+ * Баланс пользователя равен clients.wallet и сумме операций, еще не учтенных в нем. Операции только добавляются
+ * в журнал, строка пользователя не блокируется и не изменяется, поэтому платежи по разным договорам одного
+ * пользователя не конкурируют за нее с изменениями данных пользователя
+ */
+public interface WalletLedgerRepository {
+
+    /**
+     * Метод списывает сумму с кошелька пользователя, если баланса достаточно. Списания одного пользователя
+     * упорядочиваются транзакционной advisory блокировкой по его id, которая удерживается до конца транзакции,
+     * проверка баланса и добавление записи выполняются одним запросом INSERT ... SELECT ... WHERE
+     *
+     * @param clientId   - идентификатор пользователя
+     * @param contractId - идентификатор договора, по которому выполняется списание
+     * @param amount     - списываемая сумма, положительная
+     * @param operation  - тип операции
+     * @return - true - сумма списана, false - баланса пользователя недостаточно
+     */
+    boolean debit(UUID clientId, UUID contractId, BigDecimal amount, WalletEntry.Operation operation);
+
+    /**
+     * Метод зачисляет сумму на кошелек пользователя. Зачисление не уменьшает баланс, поэтому выполняется
+     * без блокировок
+     *
+     * @param clientId   - идентификатор пользователя
+     * @param contractId - идентификатор договора, по которому выполняется зачисление
+     * @param amount     - зачисляемая сумма, положительная
+     * @param operation  - тип операции
+     */
+    void credit(UUID clientId, UUID contractId, BigDecimal amount, WalletEntry.Operation operation);
+
+    /**
+     * Метод получения сумм операций, еще не учтенных в балансе clients.wallet, одним запросом на каждые
+     * {@link WalletLedgerRepositoryImpl#CLIENTS_IDS_BATCH_SIZE} пользователей
+     *
+     * @param clientsIds - идентификаторы пользователей
+     * @return - соответствие id пользователя и суммы его неучтенных операций, пользователи без таких операций
+     * в результат не попадают
+     */
+    Map<UUID, BigDecimal> findUnappliedAmounts(Collection<UUID> clientsIds);
+
+    /**
+     * Метод учитывает в балансе clients.wallet не более limit самых ранних операций журнала одним запросом:
+     * операции отмечаются учтенными, их суммы добавляются к балансам пользователей. Операции, заблокированные
+     * другими транзакциями, пропускаются (FOR UPDATE SKIP LOCKED). Баланс пользователя при этом не изменяется
+     *
+     * @param limit - максимальное количество учитываемых операций
+     * @return - количество учтенных операций
+     */
+    int applyEntries(int limit);
+
+}
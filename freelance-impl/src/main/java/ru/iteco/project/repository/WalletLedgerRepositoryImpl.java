@@ -0,0 +1,147 @@
+package ru.iteco.project.repository;
+
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.StringType;
+import ru.iteco.project.domain.Client;
+import ru.iteco.project.domain.WalletEntry;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Класс реализует операции журнала кошельков пользователей
+ */
+public class WalletLedgerRepositoryImpl implements WalletLedgerRepository {
+
+    /*** Максимальное количество id пользователей в одном запросе получения неучтенных сумм */
+    public static final int CLIENTS_IDS_BATCH_SIZE = 1000;
+
+    /*** Запрос транзакционной advisory блокировки кошелька пользователя */
+    private static final String LOCK_WALLET_QUERY = "SELECT 1 AS locked " +
+            "FROM pg_advisory_xact_lock(hashtextextended('wallet:' || CAST(:clientId AS text), 0))";
+
+    /*** Текущий баланс пользователя: учтенный баланс и сумма неучтенных операций */
+    private static final String BALANCE_CTE = "WITH balance AS (" +
+            "SELECT c.id, c.wallet + COALESCE((SELECT sum(e.amount) FROM freelance.wallet_entries e " +
+            "WHERE e.client_id = c.id AND NOT e.applied), 0) AS value " +
+            "FROM freelance.clients c WHERE c.id = :clientId) ";
+
+    /*** Запрос списания с проверкой достаточности баланса */
+    private static final String DEBIT_QUERY = BALANCE_CTE +
+            "INSERT INTO freelance.wallet_entries (id, client_id, contract_id, amount, operation) " +
+            "SELECT :id, b.id, :contractId, -1 * :amount, :operation FROM balance b " +
+            "WHERE b.value >= :amount";
+
+    /*** Запрос добавления операции в журнал без проверки баланса */
+    private static final String CREDIT_QUERY = "INSERT INTO freelance.wallet_entries " +
+            "(id, client_id, contract_id, amount, operation) " +
+            "VALUES (:id, :clientId, :contractId, :amount, :operation)";
+
+    /*** Запрос сумм неучтенных операций пользователей */
+    private static final String UNAPPLIED_AMOUNTS_QUERY = "SELECT e.client_id, sum(e.amount) AS amount " +
+            "FROM freelance.wallet_entries e " +
+            "WHERE NOT e.applied AND e.client_id IN (:clientsIds) " +
+            "GROUP BY e.client_id";
+
+    /*** Запрос учета операций в балансах пользователей */
+    private static final String APPLY_ENTRIES_QUERY = "WITH applied AS (" +
+            "UPDATE freelance.wallet_entries SET applied = true " +
+            "WHERE id IN (SELECT id FROM freelance.wallet_entries WHERE NOT applied " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING client_id, amount), " +
+            "delta AS (SELECT client_id, sum(amount) AS amount FROM applied GROUP BY client_id), " +
+            "updated AS (UPDATE freelance.clients c SET wallet = c.wallet + d.amount " +
+            "FROM delta d WHERE c.id = d.client_id RETURNING c.id) " +
+            "SELECT CAST(count(*) AS integer) AS applied FROM applied";
+
+    /*** Объект управления контекстом персистентности */
+    private final EntityManager entityManager;
+
+
+    public WalletLedgerRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+
+    @Override
+    public boolean debit(UUID clientId, UUID contractId, BigDecimal amount, WalletEntry.Operation operation) {
+        lockWallet(clientId);
+        int inserted = entityManager.createNativeQuery(DEBIT_QUERY)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(WalletEntry.class)
+                .setParameter("id", UUID.randomUUID(), PostgresUUIDType.INSTANCE)
+                .setParameter("clientId", clientId, PostgresUUIDType.INSTANCE)
+                .setParameter("contractId", contractId, PostgresUUIDType.INSTANCE)
+                .setParameter("amount", amount, BigDecimalType.INSTANCE)
+                .setParameter("operation", operation.name(), StringType.INSTANCE)
+                .executeUpdate();
+        return inserted > 0;
+    }
+
+    @Override
+    public void credit(UUID clientId, UUID contractId, BigDecimal amount, WalletEntry.Operation operation) {
+        entityManager.createNativeQuery(CREDIT_QUERY)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(WalletEntry.class)
+                .setParameter("id", UUID.randomUUID(), PostgresUUIDType.INSTANCE)
+                .setParameter("clientId", clientId, PostgresUUIDType.INSTANCE)
+                .setParameter("contractId", contractId, PostgresUUIDType.INSTANCE)
+                .setParameter("amount", amount, BigDecimalType.INSTANCE)
+                .setParameter("operation", operation.name(), StringType.INSTANCE)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<UUID, BigDecimal> findUnappliedAmounts(Collection<UUID> clientsIds) {
+        List<UUID> ids = new ArrayList<>(clientsIds);
+        Map<UUID, BigDecimal> amounts = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CLIENTS_IDS_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + CLIENTS_IDS_BATCH_SIZE, ids.size()));
+            NativeQuery<Object[]> query = entityManager.createNativeQuery(UNAPPLIED_AMOUNTS_QUERY)
+                    .unwrap(NativeQuery.class)
+                    .addScalar("client_id", PostgresUUIDType.INSTANCE)
+                    .addScalar("amount", BigDecimalType.INSTANCE)
+                    .setParameterList("clientsIds", batch, PostgresUUIDType.INSTANCE);
+            query.getResultList().forEach(row -> amounts.put((UUID) row[0], (BigDecimal) row[1]));
+        }
+        return amounts;
+    }
+
+    @Override
+    public int applyEntries(int limit) {
+        Object applied = entityManager.createNativeQuery(APPLY_ENTRIES_QUERY)
+                .unwrap(NativeQuery.class)
+                .addScalar("applied", IntegerType.INSTANCE)
+                .addSynchronizedEntityClass(WalletEntry.class)
+                .addSynchronizedEntityClass(Client.class)
+                .setParameter("limit", limit)
+                .getSingleResult();
+        return (Integer) applied;
+    }
+
+    /**
+     * Метод захватывает транзакционную advisory блокировку кошелька пользователя. Блокировка берется отдельным
+     * запросом до проверки баланса, чтобы снимок данных проверяющего запроса включал все списания, завершенные
+     * до ее получения
+     *
+     * @param clientId - идентификатор пользователя
+     */
+    private void lockWallet(UUID clientId) {
+        entityManager.createNativeQuery(LOCK_WALLET_QUERY)
+                .unwrap(NativeQuery.class)
+                .addScalar("locked", IntegerType.INSTANCE)
+                .setParameter("clientId", clientId, PostgresUUIDType.INSTANCE)
+                .getSingleResult();
+    }
+
+}
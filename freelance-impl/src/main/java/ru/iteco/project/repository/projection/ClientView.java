@@ -0,0 +1,91 @@
+package ru.iteco.project.repository.projection;
+
+import ru.iteco.project.domain.Client;
+import ru.iteco.project.specification.EntityView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Проекция пользователя, содержащая только данные, необходимые для формирования ClientDtoResponse
+ * (кроме списка заданий пользователя, который загружается отдельным запросом)
+ */
+public interface ClientView {
+
+    /*** Описание проекции для поисковых запросов */
+    EntityView<Client, ClientView> ENTITY_VIEW = EntityView.of(Client.class, ClientView.class)
+            .property("id")
+            .property("firstName")
+            .property("secondName")
+            .property("lastName")
+            .property("email")
+            .property("phoneNumber")
+            .property("clientRole", "clientRole.value")
+            .property("clientStatus", "clientStatus.value")
+            .property("wallet")
+            .property("createdAt")
+            .property("updatedAt")
+            .property("version");
+
+    /**
+     * Возвращает уникальный идентификатор пользователя
+     */
+    UUID getId();
+
+    /**
+     * Возвращает имя пользователя
+     */
+    String getFirstName();
+
+    /**
+     * Возвращает отчество пользователя
+     */
+    String getSecondName();
+
+    /**
+     * Возвращает фамилию пользователя
+     */
+    String getLastName();
+
+    /**
+     * Возвращает электронную почту пользователя
+     */
+    String getEmail();
+
+    /**
+     * Возвращает телефонный номер пользователя
+     */
+    String getPhoneNumber();
+
+    /**
+     * Возвращает значение роли пользователя
+     */
+    String getClientRole();
+
+    /**
+     * Возвращает значение статуса пользователя
+     */
+    String getClientStatus();
+
+    /**
+     * Возвращает баланс кошелька пользователя
+     */
+    BigDecimal getWallet();
+
+    /**
+     * Возвращает дату и время создания пользователя
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Возвращает дату и время последнего обновления пользователя
+     */
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Возвращает версию записи пользователя
+     */
+    Long getVersion();
+
+}
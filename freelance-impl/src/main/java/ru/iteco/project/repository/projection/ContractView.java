@@ -0,0 +1,65 @@
+package ru.iteco.project.repository.projection;
+
+import ru.iteco.project.domain.Contract;
+import ru.iteco.project.specification.EntityView;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Проекция контракта, содержащая только данные, необходимые для формирования ContractDtoResponse
+ */
+public interface ContractView {
+
+    /*** Описание проекции для поисковых запросов */
+    EntityView<Contract, ContractView> ENTITY_VIEW = EntityView.of(Contract.class, ContractView.class)
+            .property("id")
+            .property("customerId", "customer.id")
+            .property("executorId", "executor.id")
+            .property("taskId", "task.id")
+            .property("contractStatus", "contractStatus.value")
+            .property("createdAt")
+            .property("updatedAt")
+            .property("version");
+
+    /**
+     * Возвращает уникальный идентификатор контракта
+     */
+    UUID getId();
+
+    /**
+     * Возвращает уникальный идентификатор заказчика
+     */
+    UUID getCustomerId();
+
+    /**
+     * Возвращает уникальный идентификатор исполнителя
+     */
+    UUID getExecutorId();
+
+    /**
+     * Возвращает уникальный идентификатор задания
+     */
+    UUID getTaskId();
+
+    /**
+     * Возвращает значение статуса контракта
+     */
+    String getContractStatus();
+
+    /**
+     * Возвращает дату и время создания контракта
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Возвращает дату и время последнего обновления контракта
+     */
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Возвращает версию записи контракта
+     */
+    Long getVersion();
+
+}
@@ -0,0 +1,25 @@
+package ru.iteco.project.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Проекция задания, содержащая только идентификаторы задания, заказчика и исполнителя
+ */
+public interface TaskClientsIdView {
+
+    /**
+     * Возвращает уникальный идентификатор задания
+     */
+    UUID getTaskId();
+
+    /**
+     * Возвращает уникальный идентификатор заказчика задания
+     */
+    UUID getCustomerId();
+
+    /**
+     * Возвращает уникальный идентификатор исполнителя задания или null, если исполнитель не назначен
+     */
+    UUID getExecutorId();
+
+}
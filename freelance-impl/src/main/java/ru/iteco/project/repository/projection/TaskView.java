@@ -0,0 +1,90 @@
+package ru.iteco.project.repository.projection;
+
+import ru.iteco.project.domain.Task;
+import ru.iteco.project.specification.EntityView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Проекция задания, содержащая только данные, необходимые для формирования TaskDtoResponse
+ */
+public interface TaskView {
+
+    /*** Описание проекции для поисковых запросов */
+    EntityView<Task, TaskView> ENTITY_VIEW = EntityView.of(Task.class, TaskView.class)
+            .property("id")
+            .property("customerId", "customer.id")
+            .property("executorId", "executor.id")
+            .property("title")
+            .property("description")
+            .property("taskStatus", "taskStatus.value")
+            .property("taskCompletionDate")
+            .property("price")
+            .property("taskDecision")
+            .property("createdAt")
+            .property("updatedAt")
+            .property("version");
+
+    /**
+     * Возвращает уникальный идентификатор задания
+     */
+    UUID getId();
+
+    /**
+     * Возвращает уникальный идентификатор заказчика задания
+     */
+    UUID getCustomerId();
+
+    /**
+     * Возвращает уникальный идентификатор исполнителя задания или null, если исполнитель не назначен
+     */
+    UUID getExecutorId();
+
+    /**
+     * Возвращает заголовок задания
+     */
+    String getTitle();
+
+    /**
+     * Возвращает описание задания
+     */
+    String getDescription();
+
+    /**
+     * Возвращает значение статуса задания
+     */
+    String getTaskStatus();
+
+    /**
+     * Возвращает крайний срок выполнения задания
+     */
+    LocalDateTime getTaskCompletionDate();
+
+    /**
+     * Возвращает стоимость выполнения задания
+     */
+    BigDecimal getPrice();
+
+    /**
+     * Возвращает решение по заданию
+     */
+    String getTaskDecision();
+
+    /**
+     * Возвращает дату и время создания задания
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Возвращает дату и время последнего обновления задания
+     */
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Возвращает версию записи задания
+     */
+    Long getVersion();
+
+}
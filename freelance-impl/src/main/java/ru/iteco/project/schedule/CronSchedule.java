@@ -6,6 +6,7 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import ru.iteco.project.schedule.lock.SchedulerLock;
 import ru.iteco.project.service.scheduler.SchedulerService;
 
 import java.time.Clock;
@@ -31,6 +32,8 @@ public class CronSchedule {
     }
 
     @Scheduled(cron = "${scheduling.cron.expression}")
+    @SchedulerLock(name = "overdueTasksPurge", lockAtMostFor = "${scheduling.cron.lock.atMostFor}",
+            lockAtLeastFor = "${scheduling.cron.lock.atLeastFor}")
     public void schedule() {
         Instant now = clock.instant();
         log.info("cron start:\t current time: {}", now);
@@ -0,0 +1,45 @@
+package ru.iteco.project.schedule;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.iteco.project.schedule.lock.SchedulerLock;
+import ru.iteco.project.service.scheduler.SchedulerService;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Инициализация и вызов Cron задания учета операций журнала кошельков в балансах пользователей.
+ * Задание включается отдельно от остальных Cron заданий: без него неучтенные операции накапливаются,
+ * и каждая проверка баланса при списании суммирует все большее их количество
+ */
+@Component
+@ConditionalOnProperty(prefix = "scheduling.wallet", name = {"enabled"}, matchIfMissing = true)
+public class WalletSchedule {
+    private static final Logger log = LogManager.getLogger(WalletSchedule.class.getName());
+
+    /*** Объект Clock для логирования времени выполнения*/
+    private final Clock clock;
+
+    /*** Объект сервисного слоя отложенных заданий */
+    private final SchedulerService schedulerService;
+
+    public WalletSchedule(Clock clock, SchedulerService schedulerService) {
+        this.clock = clock;
+        this.schedulerService = schedulerService;
+    }
+
+    @Scheduled(cron = "${scheduling.wallet.expression}")
+    @SchedulerLock(name = "walletBalancesMaterialization", lockAtMostFor = "${scheduling.wallet.lock.atMostFor}",
+            lockAtLeastFor = "${scheduling.wallet.lock.atLeastFor}")
+    public void materializeWalletBalances() {
+        Instant now = clock.instant();
+        log.info("wallet cron start:\t current time: {}", now);
+        schedulerService.materializeWalletBalances();
+        log.info("wallet cron end:\t current time: {}", now);
+    }
+}
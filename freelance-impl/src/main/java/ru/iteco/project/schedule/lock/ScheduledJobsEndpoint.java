@@ -0,0 +1,48 @@
+package ru.iteco.project.schedule.lock;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.iteco.project.domain.ScheduledJobLock;
+import ru.iteco.project.service.scheduler.SchedulerLockService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/scheduledjobs со сведениями о последних запусках заданий по расписанию:
+ * экземпляр приложения, время запуска и завершения, длительность и результат
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+public class ScheduledJobsEndpoint {
+
+    /*** Объект сервисного слоя блокировок заданий */
+    private final SchedulerLockService schedulerLockService;
+
+    public ScheduledJobsEndpoint(SchedulerLockService schedulerLockService) {
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> scheduledJobs() {
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        for (ScheduledJobLock lock : schedulerLockService.getAllLocks()) {
+            Map<String, Object> job = new LinkedHashMap<>();
+            job.put("lockedBy", lock.getLockedBy());
+            job.put("lockedAt", lock.getLockedAt());
+            job.put("lockUntil", lock.getLockUntil());
+            job.put("finishedAt", lock.getFinishedAt());
+            job.put("durationMs", lock.getDurationMs());
+            job.put("succeeded", lock.getSucceeded());
+            job.put("running", lock.getFinishedAt() == null);
+            jobs.put(lock.getName(), job);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("node", schedulerLockService.getNodeName());
+        response.put("jobs", jobs);
+        return response;
+    }
+
+}
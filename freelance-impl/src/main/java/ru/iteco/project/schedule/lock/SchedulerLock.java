@@ -0,0 +1,27 @@
+package ru.iteco.project.schedule.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для заданий по расписанию, которые должны выполняться не более чем одним экземпляром приложения
+ * в кластере. Сроки задаются в формате ISO-8601 (например, PT10M) и поддерживают placeholder ${...}
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SchedulerLock {
+
+    /*** Уникальное наименование задания */
+    String name();
+
+    /*** Максимальный срок действия блокировки на случай аварийного завершения экземпляра */
+    String lockAtMostFor();
+
+    /*** Минимальный срок действия блокировки с момента запуска */
+    String lockAtLeastFor() default "PT0S";
+
+}
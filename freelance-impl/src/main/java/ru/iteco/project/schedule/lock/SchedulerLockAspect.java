@@ -0,0 +1,81 @@
+package ru.iteco.project.schedule.lock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import ru.iteco.project.service.scheduler.SchedulerLockService;
+
+import java.time.Duration;
+
+/**
+ * Аспект блокировки заданий по расписанию: задание выполняется только экземпляром, захватившим блокировку,
+ * остальные экземпляры пропускают запуск
+ */
+@Aspect
+@Component
+public class SchedulerLockAspect {
+    private static final Logger log = LogManager.getLogger(SchedulerLockAspect.class.getName());
+
+    /*** Объект сервисного слоя блокировок заданий */
+    private final SchedulerLockService schedulerLockService;
+
+    /*** Окружение для разрешения placeholder в сроках блокировки */
+    private final Environment environment;
+
+    public SchedulerLockAspect(SchedulerLockService schedulerLockService, Environment environment) {
+        this.schedulerLockService = schedulerLockService;
+        this.environment = environment;
+    }
+
+    /**
+     * Срез события для всех public методов аннотированных @SchedulerLock
+     */
+    @Pointcut("@annotation(schedulerLock) && execution(public void * (..))")
+    public void schedulerLockPointcut(SchedulerLock schedulerLock) {
+    }
+
+    /**
+     * Совет/обработчик для аннотации @SchedulerLock
+     *
+     * @param joinPoint     - точка соединения, место, где начинаются определённые действия модуля АОП
+     * @param schedulerLock - аннотация задания
+     * @return - результат выполнения задания, null - если задание выполняется другим экземпляром
+     * @throws Throwable - исключительная ситуация в процессе выполнения задания
+     */
+    @Around(value = "schedulerLockPointcut(schedulerLock)", argNames = "joinPoint,schedulerLock")
+    public Object lock(ProceedingJoinPoint joinPoint, SchedulerLock schedulerLock) throws Throwable {
+        String name = schedulerLock.name();
+        Duration lockAtMostFor = resolveDuration(schedulerLock.lockAtMostFor());
+        Duration lockAtLeastFor = resolveDuration(schedulerLock.lockAtLeastFor());
+
+        if (!schedulerLockService.tryLock(name, lockAtMostFor)) {
+            log.debug("scheduled job {} skipped:\t locked by another node", name);
+            return null;
+        }
+
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Object result = joinPoint.proceed();
+            succeeded = true;
+            return result;
+        } finally {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            try {
+                schedulerLockService.unlock(name, lockAtLeastFor, duration, succeeded);
+            } catch (RuntimeException e) {
+                log.error("scheduled job {} unlock failed, lock expires by lockAtMostFor", name, e);
+            }
+        }
+    }
+
+    private Duration resolveDuration(String value) {
+        return Duration.parse(environment.resolveRequiredPlaceholders(value));
+    }
+
+}
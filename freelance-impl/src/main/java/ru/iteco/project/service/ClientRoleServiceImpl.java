@@ -1,6 +1,5 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +17,9 @@ import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.ClientRoleDtoRequest;
 import ru.iteco.project.resource.dto.ClientRoleDtoResponse;
 import ru.iteco.project.resource.searching.ClientRoleSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.DictionaryMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.specification.CriteriaObject;
 import ru.iteco.project.specification.SpecificationBuilder;
 
@@ -44,20 +46,26 @@ public class ClientRoleServiceImpl implements ClientRoleService {
     /*** Объект сервисного слоя пользователей */
     private final ClientService clientService;
 
-    /*** Объект маппера dto <-> сущность роль пользователя */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера dto <-> сущность справочника */
+    private final DictionaryMapper dictionaryMapper;
 
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<ClientRole> specificationBuilder;
 
+    /*** Реестр справочных данных */
+    private final DictionaryRegistry dictionaryRegistry;
+
+
     public ClientRoleServiceImpl(ClientRoleRepository clientRoleRepository, ClientRepository clientRepository, ClientService clientService,
-                                 MapperFacade mapperFacade, SpecificationBuilder<ClientRole> specificationBuilder) {
+                                 DictionaryMapper dictionaryMapper, SpecificationBuilder<ClientRole> specificationBuilder,
+                                 DictionaryRegistry dictionaryRegistry) {
 
         this.clientRoleRepository = clientRoleRepository;
         this.clientRepository = clientRepository;
         this.clientService = clientService;
-        this.mapperFacade = mapperFacade;
+        this.dictionaryMapper = dictionaryMapper;
         this.specificationBuilder = specificationBuilder;
+        this.dictionaryRegistry = dictionaryRegistry;
     }
 
 
@@ -71,7 +79,7 @@ public class ClientRoleServiceImpl implements ClientRoleService {
     public ClientRoleDtoResponse getClientRoleById(UUID id) {
         ClientRole clientRole = clientRoleRepository.findById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
-        return mapperFacade.map(clientRole, ClientRoleDtoResponse.class);
+        return dictionaryMapper.toDto(clientRole);
     }
 
 
@@ -80,14 +88,16 @@ public class ClientRoleServiceImpl implements ClientRoleService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ClientRoleDtoResponse createClientRole(ClientRoleDtoRequest clientRoleDtoRequest) {
         checkPossibilityToCreate(clientRoleDtoRequest);
-        ClientRole newClientRole = mapperFacade.map(clientRoleDtoRequest, ClientRole.class);
+        ClientRole newClientRole = dictionaryMapper.toEntity(clientRoleDtoRequest);
         newClientRole.setId(UUID.randomUUID());
         ClientRole save = clientRoleRepository.save(newClientRole);
-        return mapperFacade.map(save, ClientRoleDtoResponse.class);
+        dictionaryRegistry.refreshClientRoles();
+        return dictionaryMapper.toDto(save);
     }
 
 
@@ -96,15 +106,17 @@ public class ClientRoleServiceImpl implements ClientRoleService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ClientRoleDtoResponse updateClientRole(UUID id, ClientRoleDtoRequest clientRoleDtoRequest) {
         ClientRole clientRole = clientRoleRepository.findById(clientRoleDtoRequest.getId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
         checkUpdatedData(clientRoleDtoRequest, clientRole);
-        mapperFacade.map(clientRoleDtoRequest, clientRole);
+        dictionaryMapper.updateEntity(clientRoleDtoRequest, clientRole);
         ClientRole save = clientRoleRepository.save(clientRole);
-        return mapperFacade.map(save, ClientRoleDtoResponse.class);
+        dictionaryRegistry.refreshClientRoles();
+        return dictionaryMapper.toDto(save);
     }
 
 
@@ -118,7 +130,7 @@ public class ClientRoleServiceImpl implements ClientRoleService {
     @PreAuthorize("hasRole('ADMIN')")
     public List<ClientRoleDtoResponse> getAllClientsRoles() {
         return clientRoleRepository.findAll().stream()
-                .map(clientRole -> mapperFacade.map(clientRole, ClientRoleDtoResponse.class))
+                .map(clientRole -> dictionaryMapper.toDto(clientRole))
                 .collect(Collectors.toList());
     }
 
@@ -129,6 +141,7 @@ public class ClientRoleServiceImpl implements ClientRoleService {
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public Boolean deleteClientRole(UUID id) {
@@ -137,6 +150,7 @@ public class ClientRoleServiceImpl implements ClientRoleService {
         clientRepository.findAllByClientRole(clientRole)
                 .forEach(client -> clientService.deleteClient(client.getId()));
         clientRoleRepository.deleteById(id);
+        dictionaryRegistry.refreshClientRoles();
         return true;
     }
 
@@ -172,7 +186,7 @@ public class ClientRoleServiceImpl implements ClientRoleService {
         }
 
         List<ClientRoleDtoResponse> clientRoleDtoResponses = page
-                .map(clientRole -> mapperFacade.map(clientRole, ClientRoleDtoResponse.class))
+                .map(clientRole -> dictionaryMapper.toDto(clientRole))
                 .toList();
         return new PageDto<>(clientRoleDtoResponses, page.getTotalElements(), page.getTotalPages());
 
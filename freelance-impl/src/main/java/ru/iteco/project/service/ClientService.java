@@ -8,8 +8,10 @@ import ru.iteco.project.resource.dto.ClientDtoRequest;
 import ru.iteco.project.resource.dto.ClientDtoResponse;
 import ru.iteco.project.resource.searching.ClientSearchDto;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс описывает общий функционал Service слоя для сущности Client
@@ -36,9 +38,10 @@ public interface ClientService extends CommonService<ClientDtoRequest, Client> {
      * Метод обновления данны пользователя
      *
      * @param clientDtoRequest - запрос с обновленными данными клиента
+     * @param expectedVersion  - ожидаемая версия пользователя из заголовка If-Match, null - без проверки версии
      * @return - объект ClientDtoResponse с обновленной сущностью пользователя
      */
-    ClientDtoResponse updateClient(ClientDtoRequest clientDtoRequest);
+    ClientDtoResponse updateClient(ClientDtoRequest clientDtoRequest, Long expectedVersion);
 
     /**
      * Метод обновления статуса клиента
@@ -49,6 +52,15 @@ public interface ClientService extends CommonService<ClientDtoRequest, Client> {
      */
     ClientDtoResponse updateClientStatus(UUID id, String status);
 
+    /**
+     * Метод изменения баланса кошелька пользователя на заданную сумму
+     *
+     * @param id     - уникальный идентификатор пользователя
+     * @param amount - сумма изменения: положительная - зачисление, отрицательная - списание
+     * @return - объект ClientDtoResponse с обновленным балансом пользователя
+     */
+    ClientDtoResponse changeWalletBalance(UUID id, BigDecimal amount);
+
 
     /**
      * Метод получения данных обо всех пользователях
@@ -57,6 +69,14 @@ public interface ClientService extends CommonService<ClientDtoRequest, Client> {
      */
     List<ClientDtoResponse> getAllClients();
 
+    /**
+     * Метод потоковой выгрузки данных обо всех пользователях. Пользователи читаются из БД порциями и передаются
+     * получателю по мере преобразования, не накапливаясь в памяти
+     *
+     * @param consumer - получатель объектов ClientDtoResponse
+     */
+    void exportAllClients(Consumer<ClientDtoResponse> consumer);
+
     /**
      * Метод удаляет пользователя из коллекции
      *
@@ -1,36 +1,48 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.iteco.project.domain.Client;
 import ru.iteco.project.domain.ClientStatus;
+import ru.iteco.project.domain.WalletEntry;
 import ru.iteco.project.exception.*;
 import ru.iteco.project.repository.ClientRepository;
-import ru.iteco.project.repository.ClientRoleRepository;
-import ru.iteco.project.repository.ClientStatusRepository;
 import ru.iteco.project.repository.TaskRepository;
+import ru.iteco.project.repository.WalletEntryRepository;
+import ru.iteco.project.repository.projection.ClientView;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.SearchDto;
 import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.ClientDtoRequest;
 import ru.iteco.project.resource.dto.ClientDtoResponse;
 import ru.iteco.project.resource.searching.ClientSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.ClientMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.service.util.AuthenticationUtil;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.specification.CriteriaObject;
+import ru.iteco.project.specification.SearchPageExecutor;
 import ru.iteco.project.specification.SpecificationBuilder;
+import ru.iteco.project.specification.StreamExportExecutor;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.CREATED;
 import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.isEqualsClientStatus;
+import static ru.iteco.project.specification.SearchPageExecutor.isExactCount;
+import static ru.iteco.project.specification.SearchPageExecutor.isKeysetPaging;
 import static ru.iteco.project.specification.SpecificationBuilder.prepareRestrictionValue;
 
 /**
@@ -45,11 +57,11 @@ public class ClientServiceImpl implements ClientService {
     /*** Объект доступа к репозиторию заданий */
     private final TaskRepository taskRepository;
 
-    /*** Объект доступа к репозиторию ролей пользователей */
-    private final ClientRoleRepository clientRoleRepository;
+    /*** Объект доступа к журналу операций по кошелькам */
+    private final WalletEntryRepository walletEntryRepository;
 
-    /*** Объект доступа к репозиторию статусов пользователей */
-    private final ClientStatusRepository clientStatusRepository;
+    /*** Реестр справочных данных (роли и статусы пользователей) */
+    private final DictionaryRegistry dictionaryRegistry;
 
     /*** Объект сервисного слоя заданий */
     private final TaskService taskService;
@@ -58,19 +70,29 @@ public class ClientServiceImpl implements ClientService {
     private final SpecificationBuilder<Client> specificationBuilder;
 
     /*** Объект маппера dto <-> сущность пользователя */
-    private final MapperFacade mapperFacade;
+    private final ClientMapper clientMapper;
 
+    /*** Сервис выполнения поисковых запросов с постраничным выводом */
+    private final SearchPageExecutor searchPageExecutor;
 
-    public ClientServiceImpl(ClientRepository clientRepository, TaskRepository taskRepository, ClientRoleRepository clientRoleRepository,
-                             ClientStatusRepository clientStatusRepository, TaskService taskService,
-                             SpecificationBuilder<Client> specificationBuilder, MapperFacade mapperFacade) {
+    /*** Сервис потоковой выгрузки сущностей */
+    private final StreamExportExecutor streamExportExecutor;
+
+
+    public ClientServiceImpl(ClientRepository clientRepository, TaskRepository taskRepository, DictionaryRegistry dictionaryRegistry,
+                             WalletEntryRepository walletEntryRepository, TaskService taskService,
+                             SpecificationBuilder<Client> specificationBuilder, ClientMapper clientMapper,
+                             SearchPageExecutor searchPageExecutor,
+                             StreamExportExecutor streamExportExecutor) {
         this.clientRepository = clientRepository;
         this.taskRepository = taskRepository;
-        this.clientRoleRepository = clientRoleRepository;
-        this.clientStatusRepository = clientStatusRepository;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.walletEntryRepository = walletEntryRepository;
         this.taskService = taskService;
         this.specificationBuilder = specificationBuilder;
-        this.mapperFacade = mapperFacade;
+        this.clientMapper = clientMapper;
+        this.searchPageExecutor = searchPageExecutor;
+        this.streamExportExecutor = streamExportExecutor;
     }
 
     /**
@@ -82,46 +104,88 @@ public class ClientServiceImpl implements ClientService {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ClientDtoResponse getClientById(UUID uuid) {
         AuthenticationUtil.checkIdForRole(AuthenticationUtil.ROLE_USER, uuid);
-        Client client = clientRepository.findById(uuid).orElseThrow(
+        ClientView clientView = clientRepository.findClientViewById(uuid).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
-        return mapperFacade.map(client, ClientDtoResponse.class);
+        return mapClientViews(Collections.singletonList(clientView)).get(0);
     }
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * READ_COMMITTED - уникальность email и телефона гарантируется ограничениями уникальности в БД
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
     public ClientDtoResponse createClient(ClientDtoRequest clientDtoRequest) {
         checkPossibilityToCreate(clientDtoRequest);
-        Client newClient = mapperFacade.map(clientDtoRequest, Client.class);
+        Client newClient = clientMapper.toEntity(clientDtoRequest);
         newClient.setId(AuthenticationUtil.getUserPrincipalId());
+        newClient.setClientRole(dictionaryRegistry.findClientRoleByValue(clientDtoRequest.getClientRole())
+                .orElseThrow(() -> new InvalidClientRoleException("errors.client.role.invalid")));
+        newClient.setClientStatus(dictionaryRegistry.findClientStatusByValue(clientDtoRequest.getClientStatus())
+                .orElseThrow(() -> new InvalidClientStatusException("errors.client.status.invalid")));
         Client save = clientRepository.save(newClient);
-        return mapperFacade.map(save, ClientDtoResponse.class);
+        return mapClients(Collections.singletonList(save)).get(0);
     }
 
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * Баланс кошелька при обновлении пользователя не изменяется: операции журнала кошельков не меняют версию
+     * пользователя, поэтому значение из запроса могло быть прочитано до последних списаний и зачислений.
+     * Баланс изменяется только операциями журнала, см. {@link #changeWalletBalance(UUID, BigDecimal)}
+     * READ_COMMITTED - конкурентные изменения записи обнаруживаются по ее версии (@Version) при сохранении
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
-    public ClientDtoResponse updateClient(ClientDtoRequest clientDtoRequest) {
+    public ClientDtoResponse updateClient(ClientDtoRequest clientDtoRequest, Long expectedVersion) {
         Client client = clientRepository.findById(clientDtoRequest.getId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        EntityVersionUtil.checkVersion(expectedVersion, client.getVersion());
         checkUpdatedData(clientDtoRequest, client);
-        mapperFacade.map(clientDtoRequest, client);
-        Client save = clientRepository.save(client);
-        return mapperFacade.map(save, ClientDtoResponse.class);
+        clientMapper.updateEntity(clientDtoRequest, client);
+        Client save = clientRepository.saveAndFlush(client);
+        return mapClients(Collections.singletonList(save)).get(0);
     }
 
 
+    /**
+     * Изменение задается суммой, а не итоговым балансом, поэтому не зависит от ранее прочитанного баланса.
+     * Положительная сумма зачисляется, отрицательная списывается с проверкой достаточности баланса
+     * READ_COMMITTED - списание выполняется под блокировкой кошелька пользователя, как и списания по договорам
+     * REQUIRED - в транзакции внешней или новой
+     */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
+    @PreAuthorize("hasRole('USER')")
+    public ClientDtoResponse changeWalletBalance(UUID id, BigDecimal amount) {
+        if ((amount == null) || (amount.signum() == 0)) {
+            throw new IllegalArgumentException("errors.client.wallet.amount.invalid");
+        }
+        Client client = clientRepository.findById(id).orElseThrow(
+                () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        AuthenticationUtil.userIdAndClientIdIsMatched(client.getId());
+        if (amount.signum() > 0) {
+            walletEntryRepository.credit(client.getId(), null, amount, WalletEntry.Operation.ADJUSTMENT);
+        } else if (!walletEntryRepository.debit(client.getId(), null, amount.negate(),
+                WalletEntry.Operation.ADJUSTMENT)) {
+            throw new InsufficientFundsException("errors.client.wallet.insufficient");
+        }
+        return mapClients(Collections.singletonList(client)).get(0);
+    }
+
+
+    /**
+     * READ_COMMITTED - конкурентные изменения записи обнаруживаются по ее версии (@Version) при сохранении
+     * REQUIRED - в транзакции внешней или новой
+     */
+    @Override
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public ClientDtoResponse updateClientStatus(UUID id, String status) {
         if (!ClientStatus.ClientStatusEnum.isCorrectValue(status)) {
@@ -129,12 +193,12 @@ public class ClientServiceImpl implements ClientService {
         }
         Client client = clientRepository.findById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
-        ClientStatus clientStatus = clientStatusRepository.findClientStatusByValue(status).orElseThrow(
+        ClientStatus clientStatus = dictionaryRegistry.findClientStatusByValue(status).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
 
         client.setClientStatus(clientStatus);
-        Client save = clientRepository.save(client);
-        return mapperFacade.map(save, ClientDtoResponse.class);
+        Client save = clientRepository.saveAndFlush(client);
+        return mapClients(Collections.singletonList(save)).get(0);
     }
 
     /**
@@ -146,18 +210,28 @@ public class ClientServiceImpl implements ClientService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('ADMIN')")
     public List<ClientDtoResponse> getAllClients() {
-        return clientRepository.findAll().stream()
-                .map(client -> mapperFacade.map(client, ClientDtoResponse.class))
-                .collect(Collectors.toList());
+        return mapClients(clientRepository.findAll());
+    }
+
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public void exportAllClients(Consumer<ClientDtoResponse> consumer) {
+        streamExportExecutor.export(clientRepository.streamAllClients(), this::mapClients, consumer);
     }
 
     /**
-     * SERIALIZABLE - во время удаления внешние тразнзакции не должны иметь никакого доступа к записи
+     * READ_COMMITTED - удаление выполняется с проверкой версии записи, конкурентное изменение отклоняет удаление
      * REQUIRED - в транзакции внешней или новой, т.к. используется в других сервисах при удалении записей и
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public Boolean deleteClient(UUID id) {
         Client client = clientRepository.findById(id).orElseThrow(
@@ -216,19 +290,74 @@ public class ClientServiceImpl implements ClientService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public PageDto<ClientDtoResponse> getClients(SearchDto<ClientSearchDto> searchDto, Pageable pageable) {
-        Page<Client> page;
         try {
-            if ((searchDto != null) && (searchDto.searchData() != null)) {
-                page = clientRepository.findAll(specificationBuilder.getSpec(prepareCriteriaObject(searchDto)), pageable);
-            } else {
-                page = clientRepository.findAll(pageable);
+            Specification<Client> specification = ((searchDto != null) && (searchDto.searchData() != null)) ?
+                    specificationBuilder.getSpec(prepareCriteriaObject(searchDto)) : null;
+            if (isKeysetPaging(searchDto)) {
+                return searchPageExecutor.findKeysetPage(ClientView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCursor(), this::mapClientViews);
+            } else if (!isExactCount(searchDto)) {
+                return searchPageExecutor.findOffsetPage(ClientView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCountMode(), this::mapClientViews);
             }
+            return searchPageExecutor.findPage(ClientView.ENTITY_VIEW, specification, pageable, this::mapClientViews);
         } catch (Exception e) {
             throw new InvalidSearchExpressionException("errors.search.expression.invalid");
         }
-        List<ClientDtoResponse> clientDtoResponses = page.map(entity -> mapperFacade.map(entity, ClientDtoResponse.class)).toList();
-        return new PageDto<>(clientDtoResponses, page.getTotalElements(), page.getTotalPages());
+    }
 
+    /**
+     * Метод преобразует список пользователей в список dto. Идентификаторы заданий и суммы неучтенных операций
+     * по кошелькам всех пользователей загружаются заранее одним запросом
+     *
+     * @param clients - список сущностей пользователей
+     * @return - список dto пользователей
+     */
+    private List<ClientDtoResponse> mapClients(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, List<UUID>> clientsTasksIds = taskRepository.findTasksIdsByClients(clients);
+        Map<UUID, BigDecimal> unappliedAmounts = walletEntryRepository.findUnappliedAmounts(
+                clients.stream().map(Client::getId).collect(Collectors.toList()));
+        return clients.stream()
+                .map(client -> addUnappliedAmount(clientMapper.toDto(client, clientsTasksIds.get(client.getId())),
+                        unappliedAmounts))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Метод преобразует список проекций пользователей в список dto. Идентификаторы заданий и суммы неучтенных
+     * операций по кошелькам всех пользователей загружаются одним запросом
+     *
+     * @param clientViews - список проекций пользователей
+     * @return - список dto пользователей
+     */
+    private List<ClientDtoResponse> mapClientViews(List<ClientView> clientViews) {
+        Map<UUID, String> clientsRoles = new LinkedHashMap<>();
+        clientViews.forEach(clientView -> clientsRoles.put(clientView.getId(), clientView.getClientRole()));
+        Map<UUID, List<UUID>> clientsTasksIds = taskRepository.findTasksIdsByClientsRoles(clientsRoles);
+        Map<UUID, BigDecimal> unappliedAmounts = walletEntryRepository.findUnappliedAmounts(clientsRoles.keySet());
+        return clientViews.stream()
+                .map(clientView -> addUnappliedAmount(
+                        clientMapper.toDto(clientView, clientsTasksIds.get(clientView.getId())), unappliedAmounts))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Метод дополняет учтенный баланс кошелька пользователя суммой его неучтенных операций
+     *
+     * @param clientDtoResponse - dto пользователя с учтенным балансом
+     * @param unappliedAmounts  - суммы неучтенных операций пользователей
+     * @return - dto пользователя с текущим балансом
+     */
+    private ClientDtoResponse addUnappliedAmount(ClientDtoResponse clientDtoResponse,
+                                                 Map<UUID, BigDecimal> unappliedAmounts) {
+        BigDecimal unappliedAmount = unappliedAmounts.get(clientDtoResponse.getId());
+        if (unappliedAmount != null) {
+            clientDtoResponse.setWallet(clientDtoResponse.getWallet().add(unappliedAmount));
+        }
+        return clientDtoResponse;
     }
 
     /**
@@ -254,12 +383,12 @@ public class ClientServiceImpl implements ClientService {
 
         SearchUnit role = clientSearchDto.getClientRole();
         prepareRestrictionValue(restrictionValues, role, "clientRole",
-                searchUnit -> clientRoleRepository.findClientRoleByValue(role.getValue())
+                searchUnit -> dictionaryRegistry.findClientRoleByValue(role.getValue())
                         .orElseThrow(InvalidClientRoleException::new));
 
         SearchUnit searchClientStatus = clientSearchDto.getClientStatus();
         prepareRestrictionValue(restrictionValues, searchClientStatus, "clientStatus",
-                searchUnit -> clientStatusRepository.findClientStatusByValue(searchClientStatus.getValue())
+                searchUnit -> dictionaryRegistry.findClientStatusByValue(searchClientStatus.getValue())
                         .orElseThrow(InvalidClientStatusException::new));
 
         SearchUnit secondName = clientSearchDto.getSecondName();
@@ -1,6 +1,5 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +17,9 @@ import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.ClientStatusDtoRequest;
 import ru.iteco.project.resource.dto.ClientStatusDtoResponse;
 import ru.iteco.project.resource.searching.ClientStatusSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.DictionaryMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.specification.CriteriaObject;
 import ru.iteco.project.specification.SpecificationBuilder;
 
@@ -47,18 +49,23 @@ public class ClientStatusServiceImpl implements ClientStatusService {
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<ClientStatus> specificationBuilder;
 
-    /*** Объект маппера dto <-> сущность статуса пользователя */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера dto <-> сущность справочника */
+    private final DictionaryMapper dictionaryMapper;
+
+    /*** Реестр справочных данных */
+    private final DictionaryRegistry dictionaryRegistry;
 
 
     public ClientStatusServiceImpl(ClientStatusRepository clientStatusRepository, ClientRepository clientRepository,
                                    ClientService clientService, SpecificationBuilder<ClientStatus> specificationBuilder,
-                                   MapperFacade mapperFacade) {
+                                   DictionaryMapper dictionaryMapper,
+                                   DictionaryRegistry dictionaryRegistry) {
         this.clientStatusRepository = clientStatusRepository;
         this.clientRepository = clientRepository;
         this.clientService = clientService;
         this.specificationBuilder = specificationBuilder;
-        this.mapperFacade = mapperFacade;
+        this.dictionaryMapper = dictionaryMapper;
+        this.dictionaryRegistry = dictionaryRegistry;
     }
 
 
@@ -73,7 +80,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
         ClientStatus clientStatus = clientStatusRepository.findById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
-        return mapperFacade.map(clientStatus, ClientStatusDtoResponse.class);
+        return dictionaryMapper.toDto(clientStatus);
     }
 
     /**
@@ -81,14 +88,16 @@ public class ClientStatusServiceImpl implements ClientStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ClientStatusDtoResponse createClientStatus(ClientStatusDtoRequest clientStatusDtoRequest) {
         checkPossibilityToCreate(clientStatusDtoRequest);
-        ClientStatus newClientStatus = mapperFacade.map(clientStatusDtoRequest, ClientStatus.class);
+        ClientStatus newClientStatus = dictionaryMapper.toEntity(clientStatusDtoRequest);
         newClientStatus.setId(UUID.randomUUID());
         ClientStatus save = clientStatusRepository.save(newClientStatus);
-        return mapperFacade.map(save, ClientStatusDtoResponse.class);
+        dictionaryRegistry.refreshClientStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
 
@@ -97,6 +106,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ClientStatusDtoResponse updateClientStatus(UUID id, ClientStatusDtoRequest clientStatusDtoRequest) {
@@ -104,9 +114,10 @@ public class ClientStatusServiceImpl implements ClientStatusService {
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
         checkUpdatedData(clientStatusDtoRequest, clientStatusById);
-        mapperFacade.map(clientStatusDtoRequest, clientStatusById);
+        dictionaryMapper.updateEntity(clientStatusDtoRequest, clientStatusById);
         ClientStatus save = clientStatusRepository.save(clientStatusById);
-        return mapperFacade.map(save, ClientStatusDtoResponse.class);
+        dictionaryRegistry.refreshClientStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
     /**
@@ -119,7 +130,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
     @PreAuthorize("hasRole('ADMIN')")
     public List<ClientStatusDtoResponse> getAllClientStatuses() {
         return clientStatusRepository.findAll().stream()
-                .map(clientStatus -> mapperFacade.map(clientStatus, ClientStatusDtoResponse.class))
+                .map(clientStatus -> dictionaryMapper.toDto(clientStatus))
                 .collect(Collectors.toList());
     }
 
@@ -130,6 +141,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public Boolean deleteClientStatus(UUID id) {
@@ -139,6 +151,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
         clientRepository.findAllByClientStatus(clientStatus)
                 .forEach(client -> clientService.deleteClient(client.getId()));
         clientStatusRepository.deleteById(id);
+        dictionaryRegistry.refreshClientStatuses();
         return true;
     }
 
@@ -175,7 +188,7 @@ public class ClientStatusServiceImpl implements ClientStatusService {
             throw new InvalidSearchExpressionException("errors.search.expression.invalid");
         }
         List<ClientStatusDtoResponse> clientStatusDtoResponses = page
-                .map(entity -> mapperFacade.map(entity, ClientStatusDtoResponse.class))
+                .map(entity -> dictionaryMapper.toDto(entity))
                 .toList();
 
         return new PageDto<>(clientStatusDtoResponses, page.getTotalElements(), page.getTotalPages());
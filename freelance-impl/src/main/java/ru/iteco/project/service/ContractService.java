@@ -10,6 +10,7 @@ import ru.iteco.project.resource.searching.ContractSearchDto;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс описывает общий функционал Service слоя для сущности Contract
@@ -23,6 +24,14 @@ public interface ContractService extends CommonService<ContractDtoRequest, Contr
      */
     List<ContractDtoResponse> getAllContracts();
 
+    /**
+     * Метод потоковой выгрузки всех договоров. Договоры читаются из БД порциями и передаются получателю по мере
+     * преобразования, не накапливаясь в памяти
+     *
+     * @param consumer - получатель объектов ContractDtoResponse
+     */
+    void exportAllContracts(Consumer<ContractDtoResponse> consumer);
+
     /**
      * Метод получения Контракта по его id
      *
@@ -43,9 +52,10 @@ public interface ContractService extends CommonService<ContractDtoRequest, Contr
      * Метод обновления существующего контракта
      *
      * @param contractDtoRequest -  тело запроса для обновления
+     * @param expectedVersion    - ожидаемая версия контракта из заголовка If-Match, null - без проверки версии
      * @return ContractDtoResponse - dto объект с данными о контракте
      */
-    ContractDtoResponse updateContract(ContractDtoRequest contractDtoRequest);
+    ContractDtoResponse updateContract(ContractDtoRequest contractDtoRequest, Long expectedVersion);
 
     /**
      * Метод удаляет договор из коллекции
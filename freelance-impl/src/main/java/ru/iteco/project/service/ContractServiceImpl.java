@@ -1,15 +1,14 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.iteco.project.domain.*;
 import ru.iteco.project.exception.*;
 import ru.iteco.project.repository.*;
+import ru.iteco.project.repository.projection.ContractView;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.SearchDto;
 import ru.iteco.project.resource.SearchUnit;
@@ -18,21 +17,30 @@ import ru.iteco.project.resource.dto.ContractDtoRequest;
 import ru.iteco.project.resource.dto.ContractDtoResponse;
 import ru.iteco.project.resource.dto.TaskDtoResponse;
 import ru.iteco.project.resource.searching.ContractSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.ContractMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.service.util.AuthenticationUtil;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.specification.CriteriaObject;
+import ru.iteco.project.specification.SearchPageExecutor;
 import ru.iteco.project.specification.SpecificationBuilder;
+import ru.iteco.project.specification.StreamExportExecutor;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static ru.iteco.project.domain.ClientRole.ClientRoleEnum.EXECUTOR;
+import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.ACTIVE;
 import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.BLOCKED;
 import static ru.iteco.project.domain.ContractStatus.ContractStatusEnum.*;
 import static ru.iteco.project.domain.TaskStatus.TaskStatusEnum.DONE;
 import static ru.iteco.project.domain.TaskStatus.TaskStatusEnum.*;
+import static ru.iteco.project.specification.SearchPageExecutor.isExactCount;
+import static ru.iteco.project.specification.SearchPageExecutor.isKeysetPaging;
 import static ru.iteco.project.specification.SpecificationBuilder.prepareRestrictionValue;
 
 
@@ -51,11 +59,11 @@ public class ContractServiceImpl implements ContractService {
     /*** Объект доступа к репозиторию заданий */
     private final TaskRepository taskRepository;
 
-    /*** Объект доступа к репозиторию статусов заданий */
-    private final TaskStatusRepository taskStatusRepository;
+    /*** Объект доступа к журналу операций по кошелькам */
+    private final WalletEntryRepository walletEntryRepository;
 
-    /*** Объект доступа к репозиторию статусов контрактов */
-    private final ContractStatusRepository contractStatusRepository;
+    /*** Реестр справочных данных (статусы заданий и контрактов) */
+    private final DictionaryRegistry dictionaryRegistry;
 
     /*** Объект сервисного слоя заданий */
     private final TaskService taskService;
@@ -63,22 +71,32 @@ public class ContractServiceImpl implements ContractService {
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<Contract> specificationBuilder;
 
-    /*** Объект маппера dto <-> сущность договога */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера сущность -> dto договора */
+    private final ContractMapper contractMapper;
+
+    /*** Сервис выполнения поисковых запросов с постраничным выводом */
+    private final SearchPageExecutor searchPageExecutor;
+
+    /*** Сервис потоковой выгрузки сущностей */
+    private final StreamExportExecutor streamExportExecutor;
 
 
     public ContractServiceImpl(ContractRepository contractRepository, ClientRepository clientRepository, TaskRepository taskRepository,
-                               TaskStatusRepository taskStatusRepository, ContractStatusRepository contractStatusRepository,
-                               MapperFacade mapperFacade, TaskService taskService,
-                               SpecificationBuilder<Contract> specificationBuilder) {
+                               WalletEntryRepository walletEntryRepository, DictionaryRegistry dictionaryRegistry,
+                               ContractMapper contractMapper, TaskService taskService,
+                               SpecificationBuilder<Contract> specificationBuilder,
+                               SearchPageExecutor searchPageExecutor,
+                               StreamExportExecutor streamExportExecutor) {
         this.contractRepository = contractRepository;
         this.clientRepository = clientRepository;
         this.taskRepository = taskRepository;
-        this.taskStatusRepository = taskStatusRepository;
-        this.contractStatusRepository = contractStatusRepository;
+        this.walletEntryRepository = walletEntryRepository;
+        this.dictionaryRegistry = dictionaryRegistry;
         this.taskService = taskService;
         this.specificationBuilder = specificationBuilder;
-        this.mapperFacade = mapperFacade;
+        this.contractMapper = contractMapper;
+        this.searchPageExecutor = searchPageExecutor;
+        this.streamExportExecutor = streamExportExecutor;
     }
 
     /**
@@ -90,10 +108,22 @@ public class ContractServiceImpl implements ContractService {
     public List<ContractDtoResponse> getAllContracts() {
         return contractRepository.findAll()
                 .stream()
-                .map(contract -> mapperFacade.map(contract, ContractDtoResponse.class))
+                .map(contractMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportAllContracts(Consumer<ContractDtoResponse> consumer) {
+        streamExportExecutor.export(contractRepository.streamAllContracts(),
+                contractMapper::toDtoList, consumer);
+    }
+
     /**
      * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
      */
@@ -101,59 +131,74 @@ public class ContractServiceImpl implements ContractService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ContractDtoResponse getContractById(UUID id) {
-        Contract contract = contractRepository.findById(id).orElseThrow(
+        ContractView contractView = contractRepository.findContractViewById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
-        return mapperFacade.map(contract, ContractDtoResponse.class);
+        return contractMapper.toDto(contractView);
     }
 
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * READ_COMMITTED - задание загружается один раз с блокировкой строки (SELECT ... FOR UPDATE NOWAIT): из
+     * конкурирующих исполнителей задание получает первый, остальные сразу получают отказ без ожидания и без
+     * ошибок сериализации. Статус задания проверяется после получения блокировки по последней зафиксированной
+     * версии строки. Оплата списывается добавлением операции в журнал кошельков с проверкой баланса заказчика
+     * в том же запросе
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
     public ContractDtoResponse createContract(ContractDtoRequest contractDtoRequest) {
-        Task task = taskRepository.findById(contractDtoRequest.getTaskId()).orElseThrow(
+        AuthenticationUtil.userIdAndClientIdIsMatched(contractDtoRequest.getExecutorId());
+        Task task = taskRepository.findByIdForUpdateNoWait(contractDtoRequest.getTaskId()).orElseThrow(
+                () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        Client executor = clientRepository.findById(contractDtoRequest.getExecutorId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
 
-        checkPossibilityToCreate(contractDtoRequest);
-        Contract contract = mapperFacade.map(contractDtoRequest, Contract.class);
+        checkPossibilityToCreate(contractDtoRequest, task, executor);
+        Contract contract = new Contract();
         contract.setId(UUID.randomUUID());
-        Client taskCustomer = contract.getCustomer();
-        taskCustomer.setWallet(taskCustomer.getWallet().subtract(task.getPrice()));
-        Contract save = contractRepository.save(contract);
-        return mapperFacade.map(save, ContractDtoResponse.class);
+        fillNewContract(contract, task, executor);
+        Contract save = contractRepository.saveAndFlush(contract);
+        if (!walletEntryRepository.debit(save.getCustomer().getId(), save.getId(), task.getPrice(),
+                WalletEntry.Operation.CONTRACT_PAYMENT)) {
+            throw new InsufficientFundsException("errors.client.wallet.notEnough");
+        }
+        return contractMapper.toDto(save);
     }
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * READ_COMMITTED - конкурентные изменения записи обнаруживаются по ее версии (@Version) при сохранении
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
-    public ContractDtoResponse updateContract(ContractDtoRequest contractDtoRequest) {
+    public ContractDtoResponse updateContract(ContractDtoRequest contractDtoRequest, Long expectedVersion) {
         Contract contract = contractRepository.findById(contractDtoRequest.getId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        EntityVersionUtil.checkVersion(expectedVersion, contract.getVersion());
 
         checkUpdatedData(contractDtoRequest, contract);
-        mapperFacade.map(contractDtoRequest, contract);
+        contract.setContractStatus(findContractStatus(
+                (contractDtoRequest.getContractStatus() != null) ? contractDtoRequest.getContractStatus() : PAID.name()));
         transferFunds(contract);
-        Contract save = contractRepository.save(contract);
-        return mapperFacade.map(save, ContractDtoResponse.class);
+        Contract save = contractRepository.saveAndFlush(contract);
+        return contractMapper.toDto(save);
     }
 
 
     /**
-     * SERIALIZABLE - во время удаления внешние тразнзакции не должны иметь никакого доступа к записи
+     * READ_COMMITTED - удаление выполняется с проверкой версии записи, конкурентное изменение отклоняет удаление
      * REQUIRED - в транзакции внешней или новой, т.к. используется в других сервисах при удалении записей и
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public Boolean deleteContract(UUID id) {
         Contract contract = contractRepository.findById(id).orElseThrow(
@@ -166,37 +211,58 @@ public class ContractServiceImpl implements ContractService {
         return true;
     }
 
+    /**
+     * Метод заполняет новый договор: задание переходит в работу, исполнитель назначается на задание
+     * и становится активным, договор создается в статусе оплаченного
+     *
+     * @param contract - заполняемый договор
+     * @param task     - задание, по которому заключается договор
+     * @param executor - исполнитель задания
+     */
+    private void fillNewContract(Contract contract, Task task, Client executor) {
+        task.setTaskStatus(dictionaryRegistry.findTaskStatusByValue(IN_PROGRESS.name())
+                .orElseThrow(() -> new InvalidTaskStatusException("errors.task.status.invalid")));
+
+        executor.setClientStatus(dictionaryRegistry.findClientStatusByValue(ACTIVE.name())
+                .orElseThrow(InvalidClientStatusException::new));
+
+        contract.setCustomer(task.getCustomer());
+        contract.setExecutor(executor);
+        task.setExecutor(executor);
+        contract.setTask(task);
+        contract.setContractStatus(findContractStatus(PAID.name()));
+    }
+
+    /**
+     * Метод получения статуса договора из справочника
+     *
+     * @param contractStatus - значение статуса договора
+     * @return - сущность статуса договора
+     */
+    private ContractStatus findContractStatus(String contractStatus) {
+        return dictionaryRegistry.findContractStatusByValue(contractStatus)
+                .orElseThrow(() -> new InvalidContractStatusException("errors.contract.status.invalid"));
+    }
+
     /**
      * Метод осуществляет операция перечисления денежных средств на счет заказчика или исполнителя
-     * в зависимости от статуса договора в который он переводится
+     * в зависимости от статуса договора в который он переводится. Зачисление добавляется в журнал кошельков,
+     * строки пользователей не изменяются
      *
      * @param contract - объект договора
      */
     private void transferFunds(Contract contract) {
         if (isEqualsContractStatus(ContractStatus.ContractStatusEnum.DONE, contract)) {
-            Client executor = contract.getExecutor();
-            executor.setWallet(executor.getWallet().add(contract.getTask().getPrice()));
+            walletEntryRepository.credit(contract.getExecutor().getId(), contract.getId(),
+                    contract.getTask().getPrice(), WalletEntry.Operation.CONTRACT_REWARD);
         } else if (isEqualsContractStatus(TERMINATED, contract)) {
-            Client customer = contract.getCustomer();
-            customer.setWallet(customer.getWallet().add(contract.getTask().getPrice()));
-            contract.getTask().setTaskStatus(taskStatusRepository.findTaskStatusByValue(CANCELED.name()).orElseThrow(
+            walletEntryRepository.credit(contract.getCustomer().getId(), contract.getId(),
+                    contract.getTask().getPrice(), WalletEntry.Operation.CONTRACT_REFUND);
+            contract.getTask().setTaskStatus(dictionaryRegistry.findTaskStatusByValue(CANCELED.name()).orElseThrow(
                     () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")));
         }
     }
 
-    /**
-     * Метод проверяет достаточно ли у заказчика денег для формирования договора оказания услуги
-     *
-     * @param task - задание
-     */
-    private void customerHaveEnoughMoney(Task task) {
-        BigDecimal customerWallet = task.getCustomer().getWallet();
-        BigDecimal taskPrice = task.getPrice();
-        if (customerWallet.compareTo(taskPrice) < 0) {
-            throw new InsufficientFundsException("errors.client.wallet.notEnough");
-        }
-    }
-
     /**
      * Метод проверяет статус клиента
      *
@@ -250,7 +316,17 @@ public class ContractServiceImpl implements ContractService {
         Client executor = clientRepository.findById(contractDtoRequest.getExecutorId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
+        checkPossibilityToCreate(contractDtoRequest, task, executor);
+    }
 
+    /**
+     * Метод проверяет возможность заключения договора по уже загруженным заданию и исполнителю
+     *
+     * @param contractDtoRequest - запрос с данными договора
+     * @param task               - задание, по которому заключается договор
+     * @param executor           - исполнитель задания
+     */
+    private void checkPossibilityToCreate(ContractDtoRequest contractDtoRequest, Task task, Client executor) {
         if (!isEqualsTaskStatus(REGISTERED, task)) {
             throw new InvalidTaskStatusException("errors.task.status.invalid");
         }
@@ -260,7 +336,6 @@ public class ContractServiceImpl implements ContractService {
         clientNotBlocked(task.getCustomer());
         clientNotBlocked(executor);
         checkConfirmCodes(contractDtoRequest.getConfirmationCode(), contractDtoRequest.getRepeatConfirmationCode());
-        customerHaveEnoughMoney(task);
     }
 
 
@@ -268,21 +343,21 @@ public class ContractServiceImpl implements ContractService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     public PageDto<ContractDtoResponse> getContracts(SearchDto<ContractSearchDto> searchDto, Pageable pageable) {
-        Page<Contract> page;
         try {
-            if ((searchDto != null) && (searchDto.searchData() != null)) {
-                page = contractRepository.findAll(specificationBuilder.getSpec(prepareCriteriaObject(searchDto)), pageable);
-            } else {
-                page = contractRepository.findAll(pageable);
+            Specification<Contract> specification = ((searchDto != null) && (searchDto.searchData() != null)) ?
+                    specificationBuilder.getSpec(prepareCriteriaObject(searchDto)) : null;
+            if (isKeysetPaging(searchDto)) {
+                return searchPageExecutor.findKeysetPage(ContractView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCursor(), contractMapper::viewsToDtoList);
+            } else if (!isExactCount(searchDto)) {
+                return searchPageExecutor.findOffsetPage(ContractView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCountMode(), contractMapper::viewsToDtoList);
             }
+            return searchPageExecutor.findPage(ContractView.ENTITY_VIEW, specification, pageable,
+                    contractMapper::viewsToDtoList);
         } catch (Exception e) {
             throw new InvalidSearchExpressionException("errors.search.expression.invalid");
         }
-
-        List<ContractDtoResponse> contractDtoResponses = page
-                .map(contract -> mapperFacade.map(contract, ContractDtoResponse.class)).toList();
-        return new PageDto<>(contractDtoResponses, page.getTotalElements(), page.getTotalPages());
-
     }
 
     /**
@@ -308,7 +383,7 @@ public class ContractServiceImpl implements ContractService {
 
         SearchUnit contractSearchStatus = contractSearchDto.getContractStatus();
         prepareRestrictionValue(restrictionValues, contractSearchStatus, "contractStatus",
-                o -> contractStatusRepository.findContractStatusByValue(contractSearchStatus.getValue())
+                o -> dictionaryRegistry.findContractStatusByValue(contractSearchStatus.getValue())
                         .orElseThrow(InvalidContractStatusException::new));
 
         SearchUnit createdAt = contractSearchDto.getCreatedAt();
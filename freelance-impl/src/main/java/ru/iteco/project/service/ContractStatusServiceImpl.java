@@ -1,6 +1,5 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +17,9 @@ import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.ContractStatusDtoRequest;
 import ru.iteco.project.resource.dto.ContractStatusDtoResponse;
 import ru.iteco.project.resource.searching.ContractStatusSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.DictionaryMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.specification.CriteriaObject;
 import ru.iteco.project.specification.SpecificationBuilder;
 
@@ -46,19 +48,24 @@ public class ContractStatusServiceImpl implements ContractStatusService {
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<ContractStatus> specificationBuilder;
 
-    /*** Объект маппера dto <-> сущность статуса договога */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера dto <-> сущность справочника */
+    private final DictionaryMapper dictionaryMapper;
+
+    /*** Реестр справочных данных */
+    private final DictionaryRegistry dictionaryRegistry;
 
 
     public ContractStatusServiceImpl(ContractStatusRepository contractStatusRepository, ContractRepository contractRepository,
                                      ContractService contractService, SpecificationBuilder<ContractStatus> specificationBuilder,
-                                     MapperFacade mapperFacade) {
+                                     DictionaryMapper dictionaryMapper,
+                                     DictionaryRegistry dictionaryRegistry) {
 
         this.contractStatusRepository = contractStatusRepository;
         this.contractRepository = contractRepository;
         this.contractService = contractService;
         this.specificationBuilder = specificationBuilder;
-        this.mapperFacade = mapperFacade;
+        this.dictionaryMapper = dictionaryMapper;
+        this.dictionaryRegistry = dictionaryRegistry;
     }
 
 
@@ -73,7 +80,7 @@ public class ContractStatusServiceImpl implements ContractStatusService {
         ContractStatus contractStatus = contractStatusRepository.findById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
-        return mapperFacade.map(contractStatus, ContractStatusDtoResponse.class);
+        return dictionaryMapper.toDto(contractStatus);
     }
 
     /**
@@ -81,14 +88,16 @@ public class ContractStatusServiceImpl implements ContractStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ContractStatusDtoResponse createContractStatus(ContractStatusDtoRequest contractStatusDtoRequest) {
         checkPossibilityToCreate(contractStatusDtoRequest);
-        ContractStatus newContractStatus = mapperFacade.map(contractStatusDtoRequest, ContractStatus.class);
+        ContractStatus newContractStatus = dictionaryMapper.toEntity(contractStatusDtoRequest);
         newContractStatus.setId(UUID.randomUUID());
         ContractStatus save = contractStatusRepository.save(newContractStatus);
-        return mapperFacade.map(save, ContractStatusDtoResponse.class);
+        dictionaryRegistry.refreshContractStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
     /**
@@ -96,15 +105,17 @@ public class ContractStatusServiceImpl implements ContractStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public ContractStatusDtoResponse updateContractStatus(UUID id, ContractStatusDtoRequest contractStatusDtoRequest) {
         ContractStatus contractStatus = contractStatusRepository.findById(contractStatusDtoRequest.getId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
         checkUpdatedData(contractStatusDtoRequest, contractStatus);
-        mapperFacade.map(contractStatusDtoRequest, contractStatus);
+        dictionaryMapper.updateEntity(contractStatusDtoRequest, contractStatus);
         ContractStatus save = contractStatusRepository.save(contractStatus);
-        return mapperFacade.map(save, ContractStatusDtoResponse.class);
+        dictionaryRegistry.refreshContractStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
     /**
@@ -117,7 +128,7 @@ public class ContractStatusServiceImpl implements ContractStatusService {
     @PreAuthorize("hasRole('ADMIN')")
     public List<ContractStatusDtoResponse> getAllContractsStatuses() {
         return contractStatusRepository.findAll().stream()
-                .map(contractStatus -> mapperFacade.map(contractStatus, ContractStatusDtoResponse.class))
+                .map(contractStatus -> dictionaryMapper.toDto(contractStatus))
                 .collect(Collectors.toList());
     }
 
@@ -127,6 +138,7 @@ public class ContractStatusServiceImpl implements ContractStatusService {
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public Boolean deleteContractStatus(UUID id) {
@@ -136,6 +148,7 @@ public class ContractStatusServiceImpl implements ContractStatusService {
         contractRepository.findContractsByContractStatus(contractStatus)
                 .forEach(contract -> contractService.deleteContract(contract.getId()));
         contractStatusRepository.deleteById(id);
+        dictionaryRegistry.refreshContractStatuses();
         return true;
     }
 
@@ -171,7 +184,7 @@ public class ContractStatusServiceImpl implements ContractStatusService {
         }
 
         List<ContractStatusDtoResponse> ContractStatusDtoResponses = page
-                .map(contractStatus -> mapperFacade.map(contractStatus, ContractStatusDtoResponse.class))
+                .map(contractStatus -> dictionaryMapper.toDto(contractStatus))
                 .toList();
         return new PageDto<>(ContractStatusDtoResponses, page.getTotalElements(), page.getTotalPages());
 
@@ -6,10 +6,13 @@ import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.SearchDto;
 import ru.iteco.project.resource.dto.TaskDtoRequest;
 import ru.iteco.project.resource.dto.TaskDtoResponse;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoRequest;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoResponse;
 import ru.iteco.project.resource.searching.TaskSearchDto;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс описывает общий функционал Service слоя для сущности Task
@@ -30,6 +33,23 @@ public interface TaskService extends CommonService<TaskDtoRequest, Task> {
      */
     List<TaskDtoResponse> getAllClientTasks(UUID clientId);
 
+    /**
+     * Метод потоковой выгрузки всех заданий. Задания читаются из БД порциями и передаются получателю по мере
+     * преобразования, не накапливаясь в памяти
+     *
+     * @param consumer - получатель объектов TaskDtoResponse
+     */
+    void exportAllTasks(Consumer<TaskDtoResponse> consumer);
+
+    /**
+     * Метод потоковой выгрузки всех заданий пользователя с id. Задания читаются из БД порциями и передаются
+     * получателю по мере преобразования, не накапливаясь в памяти
+     *
+     * @param clientId - уникальный идентификатор пользователя
+     * @param consumer - получатель объектов TaskDtoResponse
+     */
+    void exportAllClientTasks(UUID clientId, Consumer<TaskDtoResponse> consumer);
+
     /**
      * Метод получения задания по его id
      *
@@ -46,13 +66,30 @@ public interface TaskService extends CommonService<TaskDtoRequest, Task> {
      */
     TaskDtoResponse createTask(TaskDtoRequest taskDtoRequest);
 
+    /**
+     * Метод пакетного создания заданий текущего заказчика
+     *
+     * @param taskDtoRequestList - список прошедших валидацию запросов на создание заданий
+     * @return - список созданных заданий в порядке запросов
+     */
+    List<TaskDtoResponse> createBundleTasks(List<TaskDtoRequest> taskDtoRequestList);
+
+    /**
+     * Метод пакетного перевода заданий в новый статус
+     *
+     * @param transitionDtoRequest - новый статус и список идентификаторов или фильтр заданий
+     * @return TaskStatusTransitionDtoResponse - новый статус и идентификаторы переведенных заданий
+     */
+    TaskStatusTransitionDtoResponse updateTasksStatus(TaskStatusTransitionDtoRequest transitionDtoRequest);
+
     /**
      * Метод обновления существующего задания
      *
-     * @param taskDtoRequest -  тело запроса для обновления
+     * @param taskDtoRequest  -  тело запроса для обновления
+     * @param expectedVersion - ожидаемая версия задания из заголовка If-Match, null - без проверки версии
      * @return TaskDtoResponse - dto объект с данными о задании
      */
-    TaskDtoResponse updateTask(TaskDtoRequest taskDtoRequest);
+    TaskDtoResponse updateTask(TaskDtoRequest taskDtoRequest, Long expectedVersion);
 
     /**
      * Метод удаляет пользователя из коллекции
@@ -1,40 +1,62 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ObjectUtils;
 import ru.iteco.project.domain.*;
+import ru.iteco.project.enumaration.SearchOperations;
 import ru.iteco.project.exception.*;
 import ru.iteco.project.repository.ClientRepository;
 import ru.iteco.project.repository.ContractRepository;
 import ru.iteco.project.repository.TaskRepository;
-import ru.iteco.project.repository.TaskStatusRepository;
+import ru.iteco.project.repository.projection.TaskView;
 import ru.iteco.project.resource.PageDto;
 import ru.iteco.project.resource.SearchDto;
 import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.ClientBaseDto;
 import ru.iteco.project.resource.dto.TaskDtoRequest;
 import ru.iteco.project.resource.dto.TaskDtoResponse;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoRequest;
+import ru.iteco.project.resource.dto.TaskStatusTransitionDtoResponse;
 import ru.iteco.project.resource.searching.TaskSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.DateTimeFormatMapper;
+import ru.iteco.project.service.mappers.TaskMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.service.util.AuthenticationUtil;
+import ru.iteco.project.service.util.EntityVersionUtil;
 import ru.iteco.project.specification.CriteriaObject;
+import ru.iteco.project.specification.SearchPageExecutor;
 import ru.iteco.project.specification.SpecificationBuilder;
+import ru.iteco.project.specification.StreamExportExecutor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static ru.iteco.project.domain.ClientRole.ClientRoleEnum.CUSTOMER;
 import static ru.iteco.project.domain.ClientRole.ClientRoleEnum.EXECUTOR;
+import static ru.iteco.project.domain.ClientRole.ClientRoleEnum.isEqualsClientRole;
+import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.ACTIVE;
 import static ru.iteco.project.domain.ClientStatus.ClientStatusEnum.BLOCKED;
 import static ru.iteco.project.domain.TaskStatus.TaskStatusEnum.*;
+import static ru.iteco.project.specification.SearchPageExecutor.isExactCount;
+import static ru.iteco.project.specification.SearchPageExecutor.isKeysetPaging;
+import static ru.iteco.project.specification.SpecificationBuilder.RELEVANCE_SORT_PROPERTY;
+import static ru.iteco.project.specification.SpecificationBuilder.SEARCH_VECTOR_KEY;
 import static ru.iteco.project.specification.SpecificationBuilder.prepareRestrictionValue;
+import static ru.iteco.project.specification.SpecificationBuilder.searchUnitIsValid;
 
 
 /**
@@ -57,24 +79,39 @@ public class TaskServiceImpl implements TaskService {
     /*** Объект доступа к репозиторию контрактов */
     private final ContractRepository contractRepository;
 
-    /*** Объект доступа к репозиторию статусов заданий */
-    private final TaskStatusRepository taskStatusRepository;
+    /*** Реестр справочных данных (статусы заданий) */
+    private final DictionaryRegistry dictionaryRegistry;
 
-    /*** Объект маппера dto <-> сущность задания */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера сущность -> dto задания */
+    private final TaskMapper taskMapper;
+
+    /*** Объект преобразования форматов дат */
+    private final DateTimeFormatMapper dateTimeFormatMapper;
 
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<Task> specificationBuilder;
 
+    /*** Сервис выполнения поисковых запросов с постраничным выводом */
+    private final SearchPageExecutor searchPageExecutor;
+
+    /*** Сервис потоковой выгрузки сущностей */
+    private final StreamExportExecutor streamExportExecutor;
+
 
     public TaskServiceImpl(TaskRepository taskRepository, ClientRepository clientRepository, ContractRepository contractRepository,
-                           TaskStatusRepository taskStatusRepository, MapperFacade mapperFacade, SpecificationBuilder<Task> specificationBuilder) {
+                           DictionaryRegistry dictionaryRegistry, TaskMapper taskMapper, DateTimeFormatMapper dateTimeFormatMapper,
+                           SpecificationBuilder<Task> specificationBuilder,
+                           SearchPageExecutor searchPageExecutor,
+                           StreamExportExecutor streamExportExecutor) {
         this.taskRepository = taskRepository;
         this.clientRepository = clientRepository;
         this.contractRepository = contractRepository;
-        this.taskStatusRepository = taskStatusRepository;
-        this.mapperFacade = mapperFacade;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.taskMapper = taskMapper;
+        this.dateTimeFormatMapper = dateTimeFormatMapper;
         this.specificationBuilder = specificationBuilder;
+        this.searchPageExecutor = searchPageExecutor;
+        this.streamExportExecutor = streamExportExecutor;
     }
 
 
@@ -86,7 +123,7 @@ public class TaskServiceImpl implements TaskService {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public List<TaskDtoResponse> getAllTasks() {
         return taskRepository.findAll().stream()
-                .map(task -> mapperFacade.map(task, TaskDtoResponse.class))
+                .map(taskMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -99,11 +136,35 @@ public class TaskServiceImpl implements TaskService {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public List<TaskDtoResponse> getAllClientTasks(UUID clientId) {
         return taskRepository.findTasksByCustomerId(clientId).stream()
-                .map(task -> mapperFacade.map(task, TaskDtoResponse.class))
+                .map(taskMapper::toDto)
                 .collect(Collectors.toList());
     }
 
 
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public void exportAllTasks(Consumer<TaskDtoResponse> consumer) {
+        streamExportExecutor.export(taskRepository.streamAllTasks(),
+                taskMapper::toDtoList, consumer);
+    }
+
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public void exportAllClientTasks(UUID clientId, Consumer<TaskDtoResponse> consumer) {
+        streamExportExecutor.export(taskRepository.streamTasksByCustomerId(clientId),
+                taskMapper::toDtoList, consumer);
+    }
+
+
     /**
      * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
      */
@@ -111,53 +172,126 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public TaskDtoResponse getTaskById(UUID id) {
-        Task task = taskRepository.findById(id).orElseThrow(
+        TaskView taskView = taskRepository.findTaskViewById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
-        return mapperFacade.map(task, TaskDtoResponse.class);
+        return taskMapper.toDto(taskView);
     }
 
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * READ_COMMITTED - новые записи не пересекаются с внешними, изменения связанных записей проверяются по версии
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
     public TaskDtoResponse createTask(TaskDtoRequest taskDtoRequest) {
         checkPossibilityToCreate(taskDtoRequest);
-        Task task = mapperFacade.map(taskDtoRequest, Task.class);
+        Task task = new Task();
         task.setId(UUID.randomUUID());
+        applyTaskRequest(taskDtoRequest, task);
         Task save = taskRepository.save(task);
-        return mapperFacade.map(save, TaskDtoResponse.class);
+        return taskMapper.toDto(save);
     }
 
 
     /**
-     * SERIALIZABLE - т.к. во время модификации и создание новых данных не должно быть влияния извне
+     * READ_COMMITTED - новые записи не пересекаются с внешними, изменения связанных записей проверяются по версии
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasRole('USER')")
-    public TaskDtoResponse updateTask(TaskDtoRequest taskDtoRequest) {
+    public List<TaskDtoResponse> createBundleTasks(List<TaskDtoRequest> taskDtoRequestList) {
+        Client customer = clientRepository.findById(AuthenticationUtil.getUserPrincipalId()).orElseThrow(
+                () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        if (!isEqualsClientRole(CUSTOMER, customer) || ClientStatus.ClientStatusEnum.isEqualsClientStatus(BLOCKED, customer)) {
+            throw new UnavailableRoleOperationException(unavailableOperationMessage);
+        }
+        List<Task> tasks = taskDtoRequestList.stream()
+                .map(taskDtoRequest -> {
+                    Task task = new Task();
+                    task.setId(UUID.randomUUID());
+                    applyCustomerTaskRequest(taskDtoRequest, task, customer);
+                    return task;
+                })
+                .collect(Collectors.toList());
+
+        return taskRepository.persistAll(tasks).stream()
+                .map(taskMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+
+    /**
+     * READ_COMMITTED - исходный статус проверяется в самом UPDATE, повторно вычисляемом для измененных строк
+     * REQUIRED - в транзакции внешней или новой
+     */
+    @Override
+    @TransactionRetry
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public TaskStatusTransitionDtoResponse updateTasksStatus(TaskStatusTransitionDtoRequest transitionDtoRequest) {
+        String taskStatusValue = transitionDtoRequest.getTaskStatus();
+        if (!TaskStatus.TaskStatusEnum.isCorrectValue(taskStatusValue)) {
+            throw new InvalidTaskStatusException("errors.task.status.invalid");
+        }
+        TaskStatus.TaskStatusEnum targetStatus = TaskStatus.TaskStatusEnum.valueOf(taskStatusValue);
+        Set<TaskStatus.TaskStatusEnum> sourceStatuses = targetStatus.getBatchSourceStatuses();
+        if (sourceStatuses.isEmpty()) {
+            throw new InvalidTaskStatusException("errors.task.status.transition.unavailable");
+        }
+        TaskStatus taskStatus = dictionaryRegistry.findTaskStatusByValue(taskStatusValue)
+                .orElseThrow(() -> new InvalidTaskStatusException("errors.task.status.invalid"));
+
+        List<UUID> tasksIds = transitionDtoRequest.getIds();
+        TaskSearchDto searchData = transitionDtoRequest.getSearchData();
+        if ((ObjectUtils.isEmpty(tasksIds) == (searchData == null))) {
+            throw new IllegalArgumentException("errors.arguments.illegal");
+        }
+        if (searchData != null) {
+            tasksIds = taskRepository.findIds(specificationBuilder.getSpec(prepareCriteriaObject(searchData)));
+        }
+
+        List<String> sourceStatusesValues = sourceStatuses.stream()
+                .map(Enum::name)
+                .collect(Collectors.toList());
+        List<UUID> updatedIds = tasksIds.isEmpty() ? Collections.emptyList() :
+                taskRepository.updateTasksStatus(tasksIds, taskStatus, sourceStatusesValues, targetStatus.isExecutorRequired());
+        return new TaskStatusTransitionDtoResponse(taskStatus.getValue(), updatedIds);
+    }
+
+
+    /**
+     * READ_COMMITTED - конкурентные изменения записи обнаруживаются по ее версии (@Version) при сохранении
+     * REQUIRED - в транзакции внешней или новой
+     */
+    @Override
+    @TransactionRetry
+    @Transactional
+    @PreAuthorize("hasRole('USER')")
+    public TaskDtoResponse updateTask(TaskDtoRequest taskDtoRequest, Long expectedVersion) {
         Task task = taskRepository.findById(taskDtoRequest.getId()).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        EntityVersionUtil.checkVersion(expectedVersion, task.getVersion());
         checkUpdatedData(taskDtoRequest, task);
-        mapperFacade.map(taskDtoRequest, task);
-        Task save = taskRepository.save(task);
-        return mapperFacade.map(save, TaskDtoResponse.class);
+        applyTaskRequest(taskDtoRequest, task);
+        Task save = taskRepository.saveAndFlush(task);
+        return taskMapper.toDto(save);
     }
 
 
     /**
-     * SERIALIZABLE - во время удаления внешние тразнзакции не должны иметь никакого доступа к записи
+     * READ_COMMITTED - удаление выполняется с проверкой версии записи, конкурентное изменение отклоняет удаление
      * REQUIRED - в транзакции внешней или новой, т.к. используется в других сервисах при удалении записей и
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @TransactionRetry
+    @Transactional
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public Boolean deleteTask(UUID id) {
         Task task = taskRepository.findById(id).orElseThrow(
@@ -169,6 +303,47 @@ public class TaskServiceImpl implements TaskService {
         return true;
     }
 
+    /**
+     * Метод заполняет задание данными запроса в зависимости от роли текущего пользователя: заказчик изменяет
+     * описание, сроки и статус задания, исполнитель - только решение, при этом задание переходит на проверку
+     *
+     * @param taskDtoRequest - запрос с данными задания
+     * @param task           - заполняемое задание
+     */
+    private void applyTaskRequest(TaskDtoRequest taskDtoRequest, Task task) {
+        Client client = clientRepository.findById(AuthenticationUtil.getUserPrincipalId()).orElseThrow(
+                () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
+        if (isEqualsClientRole(CUSTOMER, client)) {
+            applyCustomerTaskRequest(taskDtoRequest, task, client);
+        } else if (isEqualsClientRole(EXECUTOR, client)) {
+            task.setTaskDecision(taskDtoRequest.getTaskDecision());
+            task.setTaskStatus(dictionaryRegistry.findTaskStatusByValue(ON_CHECK.name())
+                    .orElseThrow(() -> new InvalidTaskStatusException("errors.task.status.invalid")));
+        }
+    }
+
+    /**
+     * Метод заполняет задание данными запроса заказчика и активирует заказчика
+     *
+     * @param taskDtoRequest - запрос на создание или обновление задания
+     * @param task           - задание
+     * @param customer       - заказчик задания
+     */
+    private void applyCustomerTaskRequest(TaskDtoRequest taskDtoRequest, Task task, Client customer) {
+        task.setTitle(taskDtoRequest.getTitle());
+        task.setDescription(taskDtoRequest.getDescription());
+        task.setTaskCompletionDate(dateTimeFormatMapper.asLocalDateTime(taskDtoRequest.getTaskCompletionDate()));
+        task.setTaskStatus(dictionaryRegistry.findTaskStatusByValue(taskDtoRequest.getTaskStatus())
+                .orElseThrow(() -> new InvalidTaskStatusException("errors.task.status.invalid")));
+        if (task.getExecutor() == null) {
+            task.setPrice(taskDtoRequest.getPrice());
+        }
+        task.setTaskDecision(taskDtoRequest.getTaskDecision());
+        customer.setClientStatus(dictionaryRegistry.findClientStatusByValue(ACTIVE.name())
+                .orElseThrow(InvalidClientStatusException::new));
+        task.setCustomer(customer);
+    }
+
     private void checkPermissions(UUID clientId) {
         if (AuthenticationUtil.userHasRole(AuthenticationUtil.ROLE_USER)) {
             AuthenticationUtil.userIdAndClientIdIsMatched(clientId);
@@ -270,20 +445,46 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public PageDto<TaskDtoResponse> getTasks(SearchDto<TaskSearchDto> searchDto, Pageable pageable) {
-        Page<Task> page;
         try {
-            if ((searchDto != null) && (searchDto.searchData() != null)) {
-                page = taskRepository.findAll(specificationBuilder.getSpec(prepareCriteriaObject(searchDto)), pageable);
-            } else {
-                page = taskRepository.findAll(pageable);
+            Specification<Task> specification = ((searchDto != null) && (searchDto.searchData() != null)) ?
+                    specificationBuilder.getSpec(prepareCriteriaObject(searchDto)) : null;
+            if (pageable.getSort().getOrderFor(RELEVANCE_SORT_PROPERTY) != null) {
+                specification = Specification.where(specification).and(getRelevanceSpec(searchDto, pageable.getSort()));
+                pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            }
+            if (isKeysetPaging(searchDto)) {
+                return searchPageExecutor.findKeysetPage(TaskView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCursor(), taskMapper::viewsToDtoList);
+            } else if (!isExactCount(searchDto)) {
+                return searchPageExecutor.findOffsetPage(TaskView.ENTITY_VIEW, specification, pageable,
+                        searchDto.searchData().getCountMode(), taskMapper::viewsToDtoList);
             }
+            return searchPageExecutor.findPage(TaskView.ENTITY_VIEW, specification, pageable,
+                    taskMapper::viewsToDtoList);
         } catch (Exception e) {
             throw new InvalidSearchExpressionException("errors.search.expression.invalid");
         }
+    }
 
-        List<TaskDtoResponse> taskDtoResponses = page.map(task -> mapperFacade.map(task, TaskDtoResponse.class)).toList();
-        return new PageDto<>(taskDtoResponses, page.getTotalElements(), page.getTotalPages());
-
+    /**
+     * Метод формирует спецификацию сортировки заданий по релевантности полнотекстовому запросу. Сортировка
+     * по релевантности возможна только при постраничном выводе в режиме OFFSET и заданном полнотекстовом запросе,
+     * остальные критерии сортировки применяются к заданиям с одинаковой релевантностью
+     *
+     * @param searchDto - модель с данными для поиска
+     * @param sort      - запрошенная сортировка, содержащая критерий relevance
+     * @return - спецификация сортировки по релевантности
+     */
+    private Specification<Task> getRelevanceSpec(SearchDto<TaskSearchDto> searchDto, Sort sort) {
+        SearchUnit fullText = ((searchDto != null) && (searchDto.searchData() != null)) ?
+                searchDto.searchData().getFullText() : null;
+        if (isKeysetPaging(searchDto) || !searchUnitIsValid(fullText)
+                || (SearchOperations.fromString(fullText.getSearchOperation()) != SearchOperations.FULL_TEXT)) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+        }
+        Sort thenSort = Sort.by(sort.filter(order -> !RELEVANCE_SORT_PROPERTY.equals(order.getProperty())).toList());
+        return SpecificationBuilder.getRelevanceSpec(SEARCH_VECTOR_KEY, fullText.getValue(),
+                sort.getOrderFor(RELEVANCE_SORT_PROPERTY).getDirection(), thenSort);
     }
 
     /**
@@ -309,7 +510,7 @@ public class TaskServiceImpl implements TaskService {
 
         SearchUnit taskSearchStatus = taskSearchDto.getTaskStatus();
         prepareRestrictionValue(restrictionValues, taskSearchStatus, "taskStatus",
-                o -> taskStatusRepository.findTaskStatusByValue(taskSearchStatus.getValue())
+                o -> dictionaryRegistry.findTaskStatusByValue(taskSearchStatus.getValue())
                         .orElseThrow(InvalidTaskStatusException::new));
 
         SearchUnit createdAt = taskSearchDto.getCreatedAt();
@@ -324,6 +525,9 @@ public class TaskServiceImpl implements TaskService {
         SearchUnit taskCompletionDate = taskSearchDto.getTaskCompletionDate();
         prepareRestrictionValue(restrictionValues, taskCompletionDate, "taskCompletionDate", searchUnit -> taskCompletionDate.getValue());
 
+        SearchUnit fullText = taskSearchDto.getFullText();
+        prepareRestrictionValue(restrictionValues, fullText, SEARCH_VECTOR_KEY, searchUnit -> fullText.getValue());
+
 
         return restrictionValues;
     }
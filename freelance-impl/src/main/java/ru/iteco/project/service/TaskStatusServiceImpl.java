@@ -1,6 +1,5 @@
 package ru.iteco.project.service;
 
-import ma.glasnost.orika.MapperFacade;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +18,9 @@ import ru.iteco.project.resource.SearchUnit;
 import ru.iteco.project.resource.dto.TaskStatusDtoRequest;
 import ru.iteco.project.resource.dto.TaskStatusDtoResponse;
 import ru.iteco.project.resource.searching.TaskStatusSearchDto;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
+import ru.iteco.project.service.mappers.DictionaryMapper;
+import ru.iteco.project.service.retry.TransactionRetry;
 import ru.iteco.project.specification.CriteriaObject;
 import ru.iteco.project.specification.SpecificationBuilder;
 
@@ -47,22 +49,27 @@ public class TaskStatusServiceImpl implements TaskStatusService {
     /*** Объект сервисного слоя заданий */
     private final TaskService taskService;
 
-    /*** Объект маппера dto <-> сущность статуса пользователя */
-    private final MapperFacade mapperFacade;
+    /*** Объект маппера dto <-> сущность справочника */
+    private final DictionaryMapper dictionaryMapper;
 
     /*** Сервис для формирования спецификации поиска данных */
     private final SpecificationBuilder<TaskStatus> specificationBuilder;
 
+    /*** Реестр справочных данных */
+    private final DictionaryRegistry dictionaryRegistry;
+
 
     public TaskStatusServiceImpl(TaskStatusRepository taskStatusRepository, TaskRepository taskRepository,
-                                 ClientRepository clientRepository, TaskService taskService, MapperFacade mapperFacade,
-                                 SpecificationBuilder<TaskStatus> specificationBuilder) {
+                                 ClientRepository clientRepository, TaskService taskService, DictionaryMapper dictionaryMapper,
+                                 SpecificationBuilder<TaskStatus> specificationBuilder,
+                                 DictionaryRegistry dictionaryRegistry) {
         this.taskStatusRepository = taskStatusRepository;
         this.taskRepository = taskRepository;
         this.clientRepository = clientRepository;
         this.taskService = taskService;
-        this.mapperFacade = mapperFacade;
+        this.dictionaryMapper = dictionaryMapper;
         this.specificationBuilder = specificationBuilder;
+        this.dictionaryRegistry = dictionaryRegistry;
     }
 
 
@@ -76,7 +83,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
     public TaskStatusDtoResponse getTaskStatusById(UUID id) {
         TaskStatus taskStatus = taskStatusRepository.findById(id).orElseThrow(
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound"));
-        return mapperFacade.map(taskStatus, TaskStatusDtoResponse.class);
+        return dictionaryMapper.toDto(taskStatus);
     }
 
     /**
@@ -84,14 +91,16 @@ public class TaskStatusServiceImpl implements TaskStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public TaskStatusDtoResponse createTaskStatus(TaskStatusDtoRequest taskStatusDtoRequest) {
         checkPossibilityToCreate(taskStatusDtoRequest);
-        TaskStatus newTaskStatus = mapperFacade.map(taskStatusDtoRequest, TaskStatus.class);
+        TaskStatus newTaskStatus = dictionaryMapper.toEntity(taskStatusDtoRequest);
         newTaskStatus.setId(UUID.randomUUID());
         TaskStatus save = taskStatusRepository.save(newTaskStatus);
-        return mapperFacade.map(save, TaskStatusDtoResponse.class);
+        dictionaryRegistry.refreshTaskStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
     /**
@@ -99,6 +108,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
      * REQUIRED - в транзакции внешней или новой
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public TaskStatusDtoResponse updateTaskStatus(UUID id, TaskStatusDtoRequest taskStatusDtoRequest) {
@@ -106,9 +116,10 @@ public class TaskStatusServiceImpl implements TaskStatusService {
                 () -> new EntityRecordNotFoundException("errors.persistence.entity.notfound")
         );
         checkUpdatedData(taskStatusDtoRequest, taskStatus);
-        mapperFacade.map(taskStatusDtoRequest, taskStatus);
+        dictionaryMapper.updateEntity(taskStatusDtoRequest, taskStatus);
         TaskStatus save = taskStatusRepository.save(taskStatus);
-        return mapperFacade.map(save, TaskStatusDtoResponse.class);
+        dictionaryRegistry.refreshTaskStatuses();
+        return dictionaryMapper.toDto(save);
     }
 
     /**
@@ -121,7 +132,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
     @PreAuthorize("hasRole('ADMIN')")
     public List<TaskStatusDtoResponse> getAllTasksStatuses() {
         return taskStatusRepository.findAll().stream()
-                .map(taskStatus -> mapperFacade.map(taskStatus, TaskStatusDtoResponse.class))
+                .map(taskStatus -> dictionaryMapper.toDto(taskStatus))
                 .collect(Collectors.toList());
     }
 
@@ -131,6 +142,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
      * должна быть применена только при выполнении общей транзакции (единицы бизнес логики)
      */
     @Override
+    @TransactionRetry
     @Transactional(isolation = Isolation.SERIALIZABLE)
     @PreAuthorize("hasRole('ADMIN')")
     public Boolean deleteTaskStatus(UUID id) {
@@ -139,6 +151,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
         taskRepository.findAllByTaskStatus(taskStatus)
                 .forEach(task -> taskService.deleteTask(task.getId()));
         taskStatusRepository.deleteById(id);
+        dictionaryRegistry.refreshTaskStatuses();
         return true;
     }
 
@@ -174,7 +187,7 @@ public class TaskStatusServiceImpl implements TaskStatusService {
         }
 
         List<TaskStatusDtoResponse> TaskStatusDtoResponses = page
-                .map(taskStatus -> mapperFacade.map(taskStatus, TaskStatusDtoResponse.class))
+                .map(taskStatus -> dictionaryMapper.toDto(taskStatus))
                 .toList();
         return new PageDto<>(TaskStatusDtoResponses, page.getTotalElements(), page.getTotalPages());
 
@@ -0,0 +1,150 @@
+package ru.iteco.project.service.dictionary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.iteco.project.domain.Identified;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Класс хранит в памяти содержимое одного справочника с индексами по значению и по id.
+ * Индексы заменяются целиком при перезагрузке, поэтому чтение не требует блокировок
+ *
+ * @param <T> - тип сущности справочника
+ */
+public class DictionaryCache<T extends Identified<UUID>> {
+
+    /*** Наименование метрики обращений к справочнику */
+    public static final String REQUESTS_METRIC = "freelance.dictionary.requests";
+
+    /*** Наименование метрики размера справочника */
+    public static final String SIZE_METRIC = "freelance.dictionary.size";
+
+    /*** Функция загрузки всех записей справочника */
+    private final Supplier<Collection<T>> allLoader;
+
+    /*** Функция загрузки записи справочника по значению при промахе */
+    private final Function<String, Optional<T>> valueLoader;
+
+    /*** Функция загрузки записи справочника по id при промахе */
+    private final Function<UUID, Optional<T>> idLoader;
+
+    /*** Функция получения строкового значения записи справочника */
+    private final Function<T, String> valueExtractor;
+
+    /*** Счетчик попаданий в кэш */
+    private final Counter hitCounter;
+
+    /*** Счетчик промахов кэша */
+    private final Counter missCounter;
+
+    /*** Индекс записей справочника по значению */
+    private volatile Map<String, T> valueIndex = Collections.emptyMap();
+
+    /*** Индекс записей справочника по id */
+    private volatile Map<UUID, T> idIndex = Collections.emptyMap();
+
+
+    public DictionaryCache(String name, Supplier<Collection<T>> allLoader, Function<String, Optional<T>> valueLoader,
+                           Function<UUID, Optional<T>> idLoader, Function<T, String> valueExtractor,
+                           MeterRegistry meterRegistry) {
+        this.allLoader = allLoader;
+        this.valueLoader = valueLoader;
+        this.idLoader = idLoader;
+        this.valueExtractor = valueExtractor;
+        this.hitCounter = Counter.builder(REQUESTS_METRIC)
+                .tag("dictionary", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder(REQUESTS_METRIC)
+                .tag("dictionary", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, this, cache -> cache.idIndex.size())
+                .tag("dictionary", name)
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Метод получения записи справочника по значению. При промахе запись догружается из БД
+     *
+     * @param value - строковое значение записи справочника
+     * @return - Объект Optional с записью справочника или с null, если запись с данным значением не существует
+     */
+    public Optional<T> findByValue(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        T cached = valueIndex.get(value);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+        missCounter.increment();
+        Optional<T> loaded = valueLoader.apply(value);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Метод получения записи справочника по id. При промахе запись догружается из БД
+     *
+     * @param id - уникальный идентификатор записи справочника
+     * @return - Объект Optional с записью справочника или с null, если запись с данным id не существует
+     */
+    public Optional<T> findById(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        T cached = idIndex.get(id);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+        missCounter.increment();
+        Optional<T> loaded = idLoader.apply(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Метод полностью перезагружает содержимое справочника из БД
+     */
+    public void reload() {
+        Collection<T> entries = allLoader.get();
+        Map<String, T> newValueIndex = new HashMap<>();
+        Map<UUID, T> newIdIndex = new HashMap<>();
+        for (T entry : entries) {
+            newValueIndex.put(valueExtractor.apply(entry), entry);
+            newIdIndex.put(entry.getId(), entry);
+        }
+        synchronized (this) {
+            valueIndex = Collections.unmodifiableMap(newValueIndex);
+            idIndex = Collections.unmodifiableMap(newIdIndex);
+        }
+    }
+
+    /**
+     * Метод добавляет в справочник запись, догруженную из БД при промахе
+     *
+     * @param entry - запись справочника
+     */
+    private synchronized void put(T entry) {
+        Map<String, T> newValueIndex = new HashMap<>(valueIndex);
+        Map<UUID, T> newIdIndex = new HashMap<>(idIndex);
+        newValueIndex.put(valueExtractor.apply(entry), entry);
+        newIdIndex.put(entry.getId(), entry);
+        valueIndex = Collections.unmodifiableMap(newValueIndex);
+        idIndex = Collections.unmodifiableMap(newIdIndex);
+    }
+
+}
@@ -0,0 +1,110 @@
+package ru.iteco.project.service.dictionary;
+
+import ru.iteco.project.domain.ClientRole;
+import ru.iteco.project.domain.ClientStatus;
+import ru.iteco.project.domain.ContractStatus;
+import ru.iteco.project.domain.TaskStatus;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Интерфейс описывает функционал реестра справочных данных (статусы заданий, статусы пользователей,
+ * статусы контрактов и роли пользователей), хранимых в памяти приложения
+ */
+public interface DictionaryRegistry {
+
+    /**
+     * Метод получения статуса задания по его строковому представлению
+     *
+     * @param value - строковое представление статуса задания
+     * @return - Объект Optional со статусом задания или с null, если статус задания с данным значением не существует
+     */
+    Optional<TaskStatus> findTaskStatusByValue(String value);
+
+    /**
+     * Метод получения статуса задания по его id
+     *
+     * @param id - уникальный идентификатор статуса задания
+     * @return - Объект Optional со статусом задания или с null, если статус задания с данным id не существует
+     */
+    Optional<TaskStatus> findTaskStatusById(UUID id);
+
+    /**
+     * Метод получения статуса пользователя по его строковому представлению
+     *
+     * @param value - строковое представление статуса пользователя
+     * @return - Объект Optional со статусом пользователя или с null, если статус пользователя с данным значением не существует
+     */
+    Optional<ClientStatus> findClientStatusByValue(String value);
+
+    /**
+     * Метод получения статуса пользователя по его id
+     *
+     * @param id - уникальный идентификатор статуса пользователя
+     * @return - Объект Optional со статусом пользователя или с null, если статус пользователя с данным id не существует
+     */
+    Optional<ClientStatus> findClientStatusById(UUID id);
+
+    /**
+     * Метод получения статуса контракта по его строковому представлению
+     *
+     * @param value - строковое представление статуса контракта
+     * @return - Объект Optional со статусом контракта или с null, если статус контракта с данным значением не существует
+     */
+    Optional<ContractStatus> findContractStatusByValue(String value);
+
+    /**
+     * Метод получения статуса контракта по его id
+     *
+     * @param id - уникальный идентификатор статуса контракта
+     * @return - Объект Optional со статусом контракта или с null, если статус контракта с данным id не существует
+     */
+    Optional<ContractStatus> findContractStatusById(UUID id);
+
+    /**
+     * Метод получения роли пользователя по ее строковому представлению
+     *
+     * @param value - строковое представление роли пользователя
+     * @return - Объект Optional с ролью пользователя или с null, если роль пользователя с данным значением не существует
+     */
+    Optional<ClientRole> findClientRoleByValue(String value);
+
+    /**
+     * Метод получения роли пользователя по ее id
+     *
+     * @param id - уникальный идентификатор роли пользователя
+     * @return - Объект Optional с ролью пользователя или с null, если роль пользователя с данным id не существует
+     */
+    Optional<ClientRole> findClientRoleById(UUID id);
+
+    /**
+     * Метод перезагружает справочник статусов заданий.
+     * При вызове внутри транзакции перезагрузка выполняется после ее успешной фиксации
+     */
+    void refreshTaskStatuses();
+
+    /**
+     * Метод перезагружает справочник статусов пользователей.
+     * При вызове внутри транзакции перезагрузка выполняется после ее успешной фиксации
+     */
+    void refreshClientStatuses();
+
+    /**
+     * Метод перезагружает справочник статусов контрактов.
+     * При вызове внутри транзакции перезагрузка выполняется после ее успешной фиксации
+     */
+    void refreshContractStatuses();
+
+    /**
+     * Метод перезагружает справочник ролей пользователей.
+     * При вызове внутри транзакции перезагрузка выполняется после ее успешной фиксации
+     */
+    void refreshClientRoles();
+
+    /**
+     * Метод перезагружает все справочники реестра
+     */
+    void refreshAll();
+
+}
@@ -0,0 +1,190 @@
+package ru.iteco.project.service.dictionary;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.iteco.project.domain.ClientRole;
+import ru.iteco.project.domain.ClientStatus;
+import ru.iteco.project.domain.ContractStatus;
+import ru.iteco.project.domain.TaskStatus;
+import ru.iteco.project.repository.ClientRoleRepository;
+import ru.iteco.project.repository.ClientStatusRepository;
+import ru.iteco.project.repository.ContractStatusRepository;
+import ru.iteco.project.repository.TaskStatusRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Класс реализует функционал реестра справочных данных, хранимых в памяти приложения.
+ * Справочники загружаются при старте приложения, перезагружаются после фиксации транзакций изменяющих их сервисов
+ * и периодически по расписанию {dictionary.refresh.interval} (для согласованности между несколькими экземплярами)
+ */
+@Service
+public class DictionaryRegistryImpl implements DictionaryRegistry {
+
+    private static final Logger log = LogManager.getLogger(DictionaryRegistryImpl.class.getName());
+
+    /*** Справочник статусов заданий */
+    private final DictionaryCache<TaskStatus> taskStatuses;
+
+    /*** Справочник статусов пользователей */
+    private final DictionaryCache<ClientStatus> clientStatuses;
+
+    /*** Справочник статусов контрактов */
+    private final DictionaryCache<ContractStatus> contractStatuses;
+
+    /*** Справочник ролей пользователей */
+    private final DictionaryCache<ClientRole> clientRoles;
+
+    /*** Шаблон выполнения загрузки справочников в отдельной транзакции только для чтения */
+    private final TransactionTemplate transactionTemplate;
+
+
+    public DictionaryRegistryImpl(TaskStatusRepository taskStatusRepository, ClientStatusRepository clientStatusRepository,
+                                  ContractStatusRepository contractStatusRepository, ClientRoleRepository clientRoleRepository,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.taskStatuses = new DictionaryCache<>("task_status",
+                () -> inNewTransaction(taskStatusRepository::findAll),
+                value -> inNewTransaction(() -> taskStatusRepository.findTaskStatusByValue(value)),
+                id -> inNewTransaction(() -> taskStatusRepository.findById(id)),
+                TaskStatus::getValue, meterRegistry);
+        this.clientStatuses = new DictionaryCache<>("client_status",
+                () -> inNewTransaction(clientStatusRepository::findAll),
+                value -> inNewTransaction(() -> clientStatusRepository.findClientStatusByValue(value)),
+                id -> inNewTransaction(() -> clientStatusRepository.findById(id)),
+                ClientStatus::getValue, meterRegistry);
+        this.contractStatuses = new DictionaryCache<>("contract_status",
+                () -> inNewTransaction(contractStatusRepository::findAll),
+                value -> inNewTransaction(() -> contractStatusRepository.findContractStatusByValue(value)),
+                id -> inNewTransaction(() -> contractStatusRepository.findById(id)),
+                ContractStatus::getValue, meterRegistry);
+        this.clientRoles = new DictionaryCache<>("client_role",
+                () -> inNewTransaction(clientRoleRepository::findAll),
+                value -> inNewTransaction(() -> clientRoleRepository.findClientRoleByValue(value)),
+                id -> inNewTransaction(() -> clientRoleRepository.findById(id)),
+                ClientRole::getValue, meterRegistry);
+    }
+
+
+    @PostConstruct
+    public void init() {
+        refreshAll();
+    }
+
+    @Override
+    public Optional<TaskStatus> findTaskStatusByValue(String value) {
+        return taskStatuses.findByValue(value);
+    }
+
+    @Override
+    public Optional<TaskStatus> findTaskStatusById(UUID id) {
+        return taskStatuses.findById(id);
+    }
+
+    @Override
+    public Optional<ClientStatus> findClientStatusByValue(String value) {
+        return clientStatuses.findByValue(value);
+    }
+
+    @Override
+    public Optional<ClientStatus> findClientStatusById(UUID id) {
+        return clientStatuses.findById(id);
+    }
+
+    @Override
+    public Optional<ContractStatus> findContractStatusByValue(String value) {
+        return contractStatuses.findByValue(value);
+    }
+
+    @Override
+    public Optional<ContractStatus> findContractStatusById(UUID id) {
+        return contractStatuses.findById(id);
+    }
+
+    @Override
+    public Optional<ClientRole> findClientRoleByValue(String value) {
+        return clientRoles.findByValue(value);
+    }
+
+    @Override
+    public Optional<ClientRole> findClientRoleById(UUID id) {
+        return clientRoles.findById(id);
+    }
+
+    @Override
+    public void refreshTaskStatuses() {
+        reloadAfterCommit(taskStatuses);
+    }
+
+    @Override
+    public void refreshClientStatuses() {
+        reloadAfterCommit(clientStatuses);
+    }
+
+    @Override
+    public void refreshContractStatuses() {
+        reloadAfterCommit(contractStatuses);
+    }
+
+    @Override
+    public void refreshClientRoles() {
+        reloadAfterCommit(clientRoles);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${dictionary.refresh.interval}", initialDelayString = "${dictionary.refresh.interval}")
+    public void refreshAll() {
+        taskStatuses.reload();
+        clientStatuses.reload();
+        contractStatuses.reload();
+        clientRoles.reload();
+        log.debug("Dictionaries reloaded");
+    }
+
+
+    /**
+     * Метод перезагружает справочник после фиксации текущей транзакции или сразу, если транзакции нет.
+     * При откате транзакции содержимое справочника не меняется
+     *
+     * @param cache - справочник для перезагрузки
+     */
+    private void reloadAfterCommit(DictionaryCache<?> cache) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.reload();
+                }
+            });
+        } else {
+            cache.reload();
+        }
+    }
+
+    /**
+     * Метод выполняет загрузку данных в новой транзакции только для чтения, чтобы сущности справочника
+     * не были привязаны к контексту персистентности вызывающей транзакции
+     *
+     * @param loader - функция загрузки данных
+     * @param <R>    - тип результата загрузки
+     * @return - результат загрузки
+     */
+    private <R> R inNewTransaction(Supplier<R> loader) {
+        return transactionTemplate.execute(status -> loader.get());
+    }
+
+}
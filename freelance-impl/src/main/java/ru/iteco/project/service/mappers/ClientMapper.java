@@ -0,0 +1,65 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import ru.iteco.project.domain.Client;
+import ru.iteco.project.repository.projection.ClientView;
+import ru.iteco.project.resource.dto.ClientDtoRequest;
+import ru.iteco.project.resource.dto.ClientDtoResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Маппер dto <-> сущность пользователя. Идентификаторы заданий пользователя загружаются заранее и передаются
+ * явно, роль и статус пользователя определяются по справочникам в сервисном слое
+ */
+@Mapper(config = CommonMapperConfig.class)
+public interface ClientMapper {
+
+    /**
+     * Метод преобразует сущность пользователя в ClientDtoResponse
+     *
+     * @param client   - сущность пользователя
+     * @param tasksIds - идентификаторы заданий пользователя
+     * @return - объект ClientDtoResponse
+     */
+    @Mapping(target = "clientRole", source = "client.clientRole.value")
+    @Mapping(target = "clientStatus", source = "client.clientStatus.value")
+    @Mapping(target = "tasksIdList", source = "tasksIds")
+    ClientDtoResponse toDto(Client client, List<UUID> tasksIds);
+
+    /**
+     * Метод преобразует проекцию пользователя в ClientDtoResponse
+     *
+     * @param clientView - проекция пользователя
+     * @param tasksIds   - идентификаторы заданий пользователя
+     * @return - объект ClientDtoResponse
+     */
+    @Mapping(target = "tasksIdList", source = "tasksIds")
+    ClientDtoResponse toDto(ClientView clientView, List<UUID> tasksIds);
+
+    /**
+     * Метод создает сущность пользователя по данным запроса, без роли и статуса
+     *
+     * @param clientDtoRequest - запрос с данными пользователя
+     * @return - сущность пользователя
+     */
+    @Mapping(target = "clientRole", ignore = true)
+    @Mapping(target = "clientStatus", ignore = true)
+    Client toEntity(ClientDtoRequest clientDtoRequest);
+
+    /**
+     * Метод обновляет сущность пользователя данными запроса, роль, статус и баланс кошелька не изменяются.
+     * Баланс изменяется операцией журнала кошельков
+     *
+     * @param clientDtoRequest - запрос с данными пользователя
+     * @param client           - обновляемая сущность пользователя
+     */
+    @Mapping(target = "clientRole", ignore = true)
+    @Mapping(target = "clientStatus", ignore = true)
+    @Mapping(target = "wallet", ignore = true)
+    void updateEntity(ClientDtoRequest clientDtoRequest, @MappingTarget Client client);
+
+}
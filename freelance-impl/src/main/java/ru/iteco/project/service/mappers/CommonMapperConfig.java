@@ -0,0 +1,15 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Общая конфигурация мапперов dto <-> сущность. Реализации мапперов генерируются на этапе компиляции
+ * (MapStruct) и регистрируются как бины Spring, преобразование выполняется прямыми вызовами
+ * геттеров и сеттеров без рефлексии
+ */
+@MapperConfig(componentModel = "spring",
+        uses = DateTimeFormatMapper.class,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface CommonMapperConfig {
+}
@@ -0,0 +1,54 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.iteco.project.domain.Contract;
+import ru.iteco.project.repository.projection.ContractView;
+import ru.iteco.project.resource.dto.ContractDtoResponse;
+
+import java.util.List;
+
+/**
+ * Маппер сущности и проекции контракта в dto ответа. Заполнение сущности по данным запроса требует обращения
+ * к репозиториям и выполняется в сервисном слое
+ */
+@Mapper(config = CommonMapperConfig.class)
+public interface ContractMapper {
+
+    /**
+     * Метод преобразует сущность контракта в ContractDtoResponse
+     *
+     * @param contract - сущность контракта
+     * @return - объект ContractDtoResponse
+     */
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "executorId", source = "executor.id")
+    @Mapping(target = "taskId", source = "task.id")
+    @Mapping(target = "contractStatus", source = "contractStatus.value")
+    ContractDtoResponse toDto(Contract contract);
+
+    /**
+     * Метод преобразует список сущностей контрактов в список ContractDtoResponse
+     *
+     * @param contracts - список сущностей контрактов
+     * @return - список объектов ContractDtoResponse
+     */
+    List<ContractDtoResponse> toDtoList(List<Contract> contracts);
+
+    /**
+     * Метод преобразует проекцию контракта в ContractDtoResponse
+     *
+     * @param contractView - проекция контракта
+     * @return - объект ContractDtoResponse
+     */
+    ContractDtoResponse toDto(ContractView contractView);
+
+    /**
+     * Метод преобразует список проекций контрактов в список ContractDtoResponse
+     *
+     * @param contractViews - список проекций контрактов
+     * @return - список объектов ContractDtoResponse
+     */
+    List<ContractDtoResponse> viewsToDtoList(List<ContractView> contractViews);
+
+}
@@ -0,0 +1,39 @@
+package ru.iteco.project.service.mappers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс преобразования типов и форматов дат, используемый сгенерированными мапперами
+ */
+@Component
+public class DateTimeFormatMapper {
+
+    /*** Установленный формат даты и времени*/
+    @Value("${format.date.time}")
+    private String formatDateTime;
+
+
+    /**
+     * Метод приводит дату и время к установленному формату
+     *
+     * @param dateTime - дата и время
+     * @return - строковое представление даты и времени или null, если значение отсутствует
+     */
+    public String asString(LocalDateTime dateTime) {
+        return (dateTime == null) ? null : DateTimeMapper.objectToString(dateTime, formatDateTime);
+    }
+
+    /**
+     * Метод преобразует строковое представление даты и времени в установленном формате в объект LocalDateTime
+     *
+     * @param dateTime - строковое представление даты и времени
+     * @return - объект LocalDateTime или null, если значение отсутствует
+     */
+    public LocalDateTime asLocalDateTime(String dateTime) {
+        return DateTimeMapper.stringToObject(dateTime, formatDateTime);
+    }
+
+}
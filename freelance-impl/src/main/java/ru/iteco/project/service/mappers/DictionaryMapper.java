@@ -0,0 +1,44 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingTarget;
+import ru.iteco.project.domain.ClientRole;
+import ru.iteco.project.domain.ClientStatus;
+import ru.iteco.project.domain.ContractStatus;
+import ru.iteco.project.domain.TaskStatus;
+import ru.iteco.project.resource.dto.*;
+
+/**
+ * Маппер dto <-> сущность справочников: ролей и статусов пользователей, статусов заданий и контрактов
+ */
+@Mapper(config = CommonMapperConfig.class)
+public interface DictionaryMapper {
+
+    ClientRoleDtoResponse toDto(ClientRole clientRole);
+
+    ClientRole toEntity(ClientRoleDtoRequest clientRoleDtoRequest);
+
+    void updateEntity(ClientRoleDtoRequest clientRoleDtoRequest, @MappingTarget ClientRole clientRole);
+
+
+    ClientStatusDtoResponse toDto(ClientStatus clientStatus);
+
+    ClientStatus toEntity(ClientStatusDtoRequest clientStatusDtoRequest);
+
+    void updateEntity(ClientStatusDtoRequest clientStatusDtoRequest, @MappingTarget ClientStatus clientStatus);
+
+
+    TaskStatusDtoResponse toDto(TaskStatus taskStatus);
+
+    TaskStatus toEntity(TaskStatusDtoRequest taskStatusDtoRequest);
+
+    void updateEntity(TaskStatusDtoRequest taskStatusDtoRequest, @MappingTarget TaskStatus taskStatus);
+
+
+    ContractStatusDtoResponse toDto(ContractStatus contractStatus);
+
+    ContractStatus toEntity(ContractStatusDtoRequest contractStatusDtoRequest);
+
+    void updateEntity(ContractStatusDtoRequest contractStatusDtoRequest, @MappingTarget ContractStatus contractStatus);
+
+}
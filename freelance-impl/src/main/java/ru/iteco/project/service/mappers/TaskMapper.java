@@ -0,0 +1,53 @@
+package ru.iteco.project.service.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.iteco.project.domain.Task;
+import ru.iteco.project.repository.projection.TaskView;
+import ru.iteco.project.resource.dto.TaskDtoResponse;
+
+import java.util.List;
+
+/**
+ * Маппер сущности и проекции задания в dto ответа. Заполнение сущности по данным запроса зависит от роли
+ * текущего пользователя и выполняется в сервисном слое
+ */
+@Mapper(config = CommonMapperConfig.class)
+public interface TaskMapper {
+
+    /**
+     * Метод преобразует сущность задания в TaskDtoResponse
+     *
+     * @param task - сущность задания
+     * @return - объект TaskDtoResponse
+     */
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "executorId", source = "executor.id")
+    @Mapping(target = "taskStatus", source = "taskStatus.value")
+    TaskDtoResponse toDto(Task task);
+
+    /**
+     * Метод преобразует список сущностей заданий в список TaskDtoResponse
+     *
+     * @param tasks - список сущностей заданий
+     * @return - список объектов TaskDtoResponse
+     */
+    List<TaskDtoResponse> toDtoList(List<Task> tasks);
+
+    /**
+     * Метод преобразует проекцию задания в TaskDtoResponse
+     *
+     * @param taskView - проекция задания
+     * @return - объект TaskDtoResponse
+     */
+    TaskDtoResponse toDto(TaskView taskView);
+
+    /**
+     * Метод преобразует список проекций заданий в список TaskDtoResponse
+     *
+     * @param taskViews - список проекций заданий
+     * @return - список объектов TaskDtoResponse
+     */
+    List<TaskDtoResponse> viewsToDtoList(List<TaskView> taskViews);
+
+}
@@ -0,0 +1,22 @@
+package ru.iteco.project.service.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для транзакционных методов сервисного слоя, повторно выполняемых при ошибках сериализации (40001)
+ * и взаимоблокировках (40P01). Метод должен быть идемпотентным: не иметь побочных эффектов вне транзакции
+ * (например, записи в поток ответа)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TransactionRetry {
+
+    /*** Максимальное количество попыток выполнения, 0 - значение из {transaction.retry.maxAttempts} */
+    int maxAttempts() default 0;
+
+}
@@ -0,0 +1,170 @@
+package ru.iteco.project.service.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.iteco.project.exception.TransactionConflictException;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Аспект повторного выполнения транзакций, прерванных ошибкой сериализации (40001) или взаимоблокировкой (40P01).
+ * Выполняется до открытия транзакции, поэтому каждая попытка выполняется в новой транзакции. Если метод вызван
+ * внутри уже открытой транзакции, повтор выполняет внешний метод, открывший транзакцию
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TransactionRetryAspect {
+    private static final Logger log = LogManager.getLogger(TransactionRetryAspect.class.getName());
+
+    /*** Наименование метрики количества повторов транзакций */
+    public static final String RETRIES_METRIC = "freelance.transaction.retries";
+
+    /*** Наименование метрики количества попыток выполнения транзакций */
+    public static final String ATTEMPTS_METRIC = "freelance.transaction.attempts";
+
+    /*** Наименование метрики транзакций, для которых исчерпаны попытки */
+    public static final String EXHAUSTED_METRIC = "freelance.transaction.retries.exhausted";
+
+    /*** SQLSTATE ошибки сериализации */
+    public static final String SERIALIZATION_FAILURE = "40001";
+
+    /*** SQLSTATE взаимоблокировки */
+    public static final String DEADLOCK_DETECTED = "40P01";
+
+    /*** Реестр метрик */
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.retry.maxAttempts}")
+    private Integer maxAttempts;
+
+    @Value("${transaction.retry.initialBackoffMillis}")
+    private Long initialBackoffMillis;
+
+    @Value("${transaction.retry.maxBackoffMillis}")
+    private Long maxBackoffMillis;
+
+    public TransactionRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Срез события для всех public методов аннотированных @TransactionRetry
+     */
+    @Pointcut("@annotation(transactionRetry) && execution(public * * (..))")
+    public void transactionRetryPointcut(TransactionRetry transactionRetry) {
+    }
+
+    /**
+     * Совет/обработчик для аннотации @TransactionRetry. Если ожидание перед повтором прервано, признак прерывания
+     * потока восстанавливается, а вызывающий получает TransactionConflictException с исходной ошибкой
+     *
+     * @param joinPoint        - точка соединения, место, где начинаются определённые действия модуля АОП
+     * @param transactionRetry - аннотация метода
+     * @return - результат выполнения вызванного метода
+     * @throws Throwable - исключительная ситуация в процессе выполнения метода
+     */
+    @Around(value = "transactionRetryPointcut(transactionRetry)", argNames = "joinPoint,transactionRetry")
+    public Object retry(ProceedingJoinPoint joinPoint, TransactionRetry transactionRetry) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." +
+                joinPoint.getSignature().getName();
+        int attempts = (transactionRetry.maxAttempts() > 0) ? transactionRetry.maxAttempts() : maxAttempts;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                recordAttempts(method, attempt);
+                return result;
+            } catch (Throwable e) {
+                String sqlState = findRetryableSqlState(e);
+                if (sqlState == null) {
+                    recordAttempts(method, attempt);
+                    throw e;
+                }
+                if (attempt >= attempts) {
+                    recordAttempts(method, attempt);
+                    Counter.builder(EXHAUSTED_METRIC)
+                            .description("Количество транзакций, для которых исчерпаны попытки повтора")
+                            .tag("method", method)
+                            .register(meterRegistry)
+                            .increment();
+                    throw new TransactionConflictException("errors.transaction.conflict", e);
+                }
+                Counter.builder(RETRIES_METRIC)
+                        .description("Количество повторов транзакций после ошибок сериализации и взаимоблокировок")
+                        .tag("method", method)
+                        .tag("sqlState", sqlState)
+                        .register(meterRegistry)
+                        .increment();
+                long backoff = backoff(attempt);
+                log.debug("transaction {} failed with SQLSTATE {}, attempt {} of {}, retry in {} ms",
+                        method, sqlState, attempt, attempts, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    recordAttempts(method, attempt);
+                    throw new TransactionConflictException("errors.transaction.conflict", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Метод вычисляет паузу перед повтором: экспоненциальная задержка с полным случайным разбросом
+     *
+     * @param attempt - номер неудачной попытки
+     * @return - пауза в миллисекундах
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Метод ищет в цепочке причин исключения SQLException с SQLSTATE, допускающим повтор транзакции
+     *
+     * @param e - исключение
+     * @return - SQLSTATE ошибки или null, если повтор недопустим
+     */
+    private String findRetryableSqlState(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (SERIALIZATION_FAILURE.equals(sqlState) || DEADLOCK_DETECTED.equals(sqlState)) {
+                    return sqlState;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private void recordAttempts(String method, int attempts) {
+        DistributionSummary.builder(ATTEMPTS_METRIC)
+                .description("Количество попыток выполнения транзакции")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(attempts);
+    }
+
+}
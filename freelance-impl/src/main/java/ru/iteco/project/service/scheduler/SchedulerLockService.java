@@ -0,0 +1,49 @@
+package ru.iteco.project.service.scheduler;
+
+import ru.iteco.project.domain.ScheduledJobLock;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Интерфейс описывает общий функционал Service слоя для блокировок заданий по расписанию, обеспечивающих запуск
+ * задания не более чем одним экземпляром приложения в кластере
+ */
+public interface SchedulerLockService {
+
+    /**
+     * Метод захватывает блокировку задания для текущего экземпляра приложения
+     *
+     * @param name          - наименование задания
+     * @param lockAtMostFor - максимальный срок действия блокировки, по истечении которого блокировка экземпляра,
+     *                      не завершившего выполнение задания, может быть захвачена другим экземпляром
+     * @return - true - блокировка захвачена, false - задание выполняется или выполнялось другим экземпляром
+     */
+    boolean tryLock(String name, Duration lockAtMostFor);
+
+    /**
+     * Метод освобождает блокировку задания, захваченную текущим экземпляром приложения
+     *
+     * @param name           - наименование задания
+     * @param lockAtLeastFor - минимальный срок действия блокировки с момента запуска, защищающий от повторного
+     *                       запуска задания экземплярами с расходящимися часами
+     * @param duration       - длительность выполнения задания
+     * @param succeeded      - признак успешного завершения задания
+     */
+    void unlock(String name, Duration lockAtLeastFor, Duration duration, boolean succeeded);
+
+    /**
+     * Метод возвращает сведения о последних запусках всех заданий
+     *
+     * @return - список блокировок заданий
+     */
+    List<ScheduledJobLock> getAllLocks();
+
+    /**
+     * Метод возвращает наименование текущего экземпляра приложения
+     *
+     * @return - наименование экземпляра, фиксируемое в блокировках
+     */
+    String getNodeName();
+
+}
@@ -0,0 +1,70 @@
+package ru.iteco.project.service.scheduler;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.iteco.project.domain.ScheduledJobLock;
+import ru.iteco.project.repository.ScheduledJobLockRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Класс реализует функционал сервисного слоя для работы с блокировками заданий по расписанию
+ */
+@Service
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    /*** Объект доступа к репозиторию блокировок заданий */
+    private final ScheduledJobLockRepository scheduledJobLockRepository;
+
+    /*** Наименование текущего экземпляра приложения */
+    private final String nodeName;
+
+
+    public SchedulerLockServiceImpl(ScheduledJobLockRepository scheduledJobLockRepository,
+                                    @Value("${scheduling.lock.node:}") String nodeName) {
+        this.scheduledJobLockRepository = scheduledJobLockRepository;
+        this.nodeName = StringUtils.isNotBlank(nodeName) ? nodeName : ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED, атомарность захвата обеспечивает INSERT ... ON CONFLICT
+     * REQUIRES_NEW - в новой транзакции, т.к. блокировка должна быть видна другим экземплярам до завершения задания
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        return scheduledJobLockRepository.tryLock(name, nodeName, lockAtMostFor.toMillis()) > 0;
+    }
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED
+     * REQUIRES_NEW - в новой транзакции, т.к. освобождение не должно зависеть от результата транзакций задания
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlock(String name, Duration lockAtLeastFor, Duration duration, boolean succeeded) {
+        scheduledJobLockRepository.unlock(name, nodeName, lockAtLeastFor.toMillis(), duration.toMillis(), succeeded);
+    }
+
+    /**
+     * По умолчанию в Postgres isolation READ_COMMITTED + недоступна модификация данных
+     * REQUIRED - в транзакции внешней или новой
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduledJobLock> getAllLocks() {
+        return scheduledJobLockRepository.findAll(Sort.by("name"));
+    }
+
+    @Override
+    public String getNodeName() {
+        return nodeName;
+    }
+
+}
@@ -7,8 +7,15 @@ public interface SchedulerService {
 
     /**
      * Метод удаляет задания которые не приняты в работу (taskStatus = REGISTERED) и срок выполнения которых просрочен
-     * на заданное в {task.scheduler.taskCompletionDate.expiredDays} количество дней
+     * на заданное в {task.scheduler.taskCompletionDate.expiredDays} количество дней. Удаление выполняется порциями
+     * по {task.scheduler.purge.chunkSize} заданий с паузой {task.scheduler.purge.pauseMillis} между порциями
      */
     void taskDeletingOverdueTasks();
 
+    /**
+     * Метод учитывает операции журнала кошельков в балансах пользователей (clients.wallet). Операции учитываются
+     * порциями по {client.wallet.materialization.chunkSize} до тех пор, пока неучтенные операции не закончатся
+     */
+    void materializeWalletBalances();
+
 }
@@ -1,17 +1,24 @@
 package ru.iteco.project.service.scheduler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.iteco.project.domain.TaskStatus;
 import ru.iteco.project.exception.InvalidTaskStatusException;
 import ru.iteco.project.repository.TaskRepository;
-import ru.iteco.project.repository.TaskStatusRepository;
+import ru.iteco.project.repository.WalletEntryRepository;
+import ru.iteco.project.service.dictionary.DictionaryRegistry;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static ru.iteco.project.domain.TaskStatus.TaskStatusEnum.REGISTERED;
 
@@ -23,11 +30,35 @@ public class SchedulerServiceImpl implements SchedulerService {
 
     private static final Logger log = LogManager.getLogger(SchedulerServiceImpl.class.getName());
 
+    /*** Наименование метрики количества удаленных просроченных заданий */
+    public static final String PURGE_DELETED_METRIC = "freelance.scheduler.overdue.tasks.deleted";
+
+    /*** Наименование метрики длительности удаления просроченных заданий */
+    public static final String PURGE_DURATION_METRIC = "freelance.scheduler.overdue.tasks.purge";
+
+    /*** Наименование метрики количества операций журнала кошельков, учтенных в балансах пользователей */
+    public static final String WALLET_ENTRIES_APPLIED_METRIC = "freelance.scheduler.wallet.entries.applied";
+
     /*** Объект доступа к репозиторию заданий */
     private final TaskRepository taskRepository;
 
-    /*** Объект доступа к репозиторию статусов заданий */
-    private final TaskStatusRepository taskStatusRepository;
+    /*** Объект доступа к журналу операций по кошелькам */
+    private final WalletEntryRepository walletEntryRepository;
+
+    /*** Реестр справочных данных (статусы заданий) */
+    private final DictionaryRegistry dictionaryRegistry;
+
+    /*** Шаблон выполнения удаления каждой порции заданий в отдельной транзакции */
+    private final TransactionTemplate transactionTemplate;
+
+    /*** Счетчик удаленных просроченных заданий */
+    private final Counter deletedCounter;
+
+    /*** Таймер длительности удаления просроченных заданий */
+    private final Timer purgeTimer;
+
+    /*** Счетчик операций журнала кошельков, учтенных в балансах пользователей */
+    private final Counter walletEntriesAppliedCounter;
 
     @Value("${errors.task.status.invalid}")
     private String invalidTaskStatusMessage;
@@ -35,19 +66,113 @@ public class SchedulerServiceImpl implements SchedulerService {
     @Value("${task.scheduler.taskCompletionDate.expiredDays}")
     private Integer expiredDays;
 
+    @Value("${task.scheduler.purge.chunkSize}")
+    private Integer chunkSize;
+
+    @Value("${task.scheduler.purge.pauseMillis}")
+    private Long pauseMillis;
+
+    @Value("${client.wallet.materialization.chunkSize}")
+    private Integer walletChunkSize;
+
 
-    public SchedulerServiceImpl(TaskRepository taskRepository, TaskStatusRepository taskStatusRepository) {
+    public SchedulerServiceImpl(TaskRepository taskRepository, WalletEntryRepository walletEntryRepository,
+                                DictionaryRegistry dictionaryRegistry, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
-        this.taskStatusRepository = taskStatusRepository;
+        this.walletEntryRepository = walletEntryRepository;
+        this.dictionaryRegistry = dictionaryRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.deletedCounter = Counter.builder(PURGE_DELETED_METRIC)
+                .description("Количество удаленных просроченных заданий")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder(PURGE_DURATION_METRIC)
+                .description("Длительность удаления просроченных заданий")
+                .register(meterRegistry);
+        this.walletEntriesAppliedCounter = Counter.builder(WALLET_ENTRIES_APPLIED_METRIC)
+                .description("Количество операций журнала кошельков, учтенных в балансах пользователей")
+                .register(meterRegistry);
     }
 
+
+    /**
+     * Задания удаляются порциями по {task.scheduler.purge.chunkSize}, каждая порция в своей транзакции.
+     * READ_COMMITTED - порция выбирается через FOR UPDATE SKIP LOCKED: задания, которые в данный момент изменяют
+     * пользователи, пропускаются и будут удалены при следующем запуске, поэтому удаление не ожидает пользовательские
+     * транзакции и не вызывает в них ошибок сериализации.
+     * REQUIRES_NEW - блокировки освобождаются после фиксации каждой порции, между порциями выдерживается пауза
+     * {task.scheduler.purge.pauseMillis}
+     */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public void taskDeletingOverdueTasks() {
-        TaskStatus taskStatus = taskStatusRepository.findTaskStatusByValue(REGISTERED.name())
+        TaskStatus taskStatus = dictionaryRegistry.findTaskStatusByValue(REGISTERED.name())
                 .orElseThrow(() -> new InvalidTaskStatusException(invalidTaskStatusMessage));
         LocalDateTime redLine = LocalDateTime.now().minusDays(expiredDays);
-        taskRepository.scheduledDeletingTasks(taskStatus, redLine);
-        log.info("Removed tasks with due date {} and earlier", redLine);
+
+        Timer.Sample sample = Timer.start();
+        int deletedTotal = 0;
+        int chunks = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteOverdueTasksChunk(taskStatus, redLine));
+            deletedTotal += deleted;
+            chunks++;
+            deletedCounter.increment(deleted);
+            log.debug("Removed chunk {} of {} overdue tasks, {} in total", chunks, deleted, deletedTotal);
+        } while ((deleted == chunkSize) && pause());
+        long durationNanos = sample.stop(purgeTimer);
+
+        log.info("Removed {} tasks with due date {} and earlier in {} chunks, {} ms", deletedTotal, redLine, chunks,
+                durationNanos / 1_000_000);
+    }
+
+    /**
+     * Операции учитываются порциями по {client.wallet.materialization.chunkSize}, каждая порция в своей транзакции.
+     * READ_COMMITTED - порция выбирается через FOR UPDATE SKIP LOCKED, отметка операций учтенными и изменение
+     * балансов выполняются одним запросом, поэтому проверки баланса при списаниях видят либо операции, либо уже
+     * измененный баланс, но не оба сразу. Строки пользователей блокируются только на время своей порции.
+     * REQUIRES_NEW - блокировки освобождаются после фиксации каждой порции
+     */
+    @Override
+    public void materializeWalletBalances() {
+        int appliedTotal = 0;
+        int applied;
+        do {
+            applied = transactionTemplate.execute(status -> walletEntryRepository.applyEntries(walletChunkSize));
+            appliedTotal += applied;
+            walletEntriesAppliedCounter.increment(applied);
+        } while ((applied == walletChunkSize) && !Thread.currentThread().isInterrupted());
+
+        log.info("Applied {} wallet entries to clients balances", appliedTotal);
+    }
+
+    /**
+     * Метод блокирует и удаляет одну порцию просроченных заданий
+     *
+     * @param taskStatus - статус удаляемых заданий
+     * @param redLine    - дата, задания со сроком выполнения не позднее которой считаются просроченными
+     * @return - количество удаленных заданий
+     */
+    private int deleteOverdueTasksChunk(TaskStatus taskStatus, LocalDateTime redLine) {
+        List<UUID> tasksIds = taskRepository.lockOverdueTasksIds(taskStatus, redLine, chunkSize);
+        return tasksIds.isEmpty() ? 0 : taskRepository.deleteTasksByIds(tasksIds);
+    }
+
+    /**
+     * Метод выдерживает паузу между порциями удаления
+     *
+     * @return true - удаление можно продолжать, false - поток прерван и удаление необходимо остановить
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Overdue tasks removal interrupted");
+            return false;
+        }
     }
 }
@@ -0,0 +1,48 @@
+package ru.iteco.project.service.util;
+
+import org.apache.commons.lang3.StringUtils;
+import ru.iteco.project.exception.EntityVersionMismatchException;
+
+/**
+ * Утилитарный класс для условного обновления записей по версии, переданной в заголовке If-Match
+ */
+public class EntityVersionUtil {
+
+    /*** Значение If-Match, соответствующее любой версии записи */
+    public static final String ANY_VERSION = "*";
+
+    /*** Префикс слабого ETag */
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+
+    /**
+     * Метод получения версии записи из значения заголовка If-Match
+     *
+     * @param ifMatch - значение заголовка If-Match, например "3" или W/"3"
+     * @return - ожидаемая версия записи или null, если заголовок отсутствует или равен *
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (StringUtils.isBlank(ifMatch) || ANY_VERSION.equals(ifMatch.trim())) {
+            return null;
+        }
+        String version = StringUtils.removeStart(ifMatch.trim(), WEAK_ETAG_PREFIX);
+        try {
+            return Long.valueOf(StringUtils.strip(version, "\""));
+        } catch (NumberFormatException e) {
+            throw new EntityVersionMismatchException("errors.persistence.entity.version.mismatch", e);
+        }
+    }
+
+    /**
+     * Метод проверяет совпадение текущей версии записи с ожидаемой
+     *
+     * @param expectedVersion - ожидаемая версия записи, null - проверка не выполняется
+     * @param currentVersion  - текущая версия записи
+     */
+    public static void checkVersion(Long expectedVersion, Long currentVersion) {
+        if ((expectedVersion != null) && !expectedVersion.equals(currentVersion)) {
+            throw new EntityVersionMismatchException("errors.persistence.entity.version.mismatch");
+        }
+    }
+
+}
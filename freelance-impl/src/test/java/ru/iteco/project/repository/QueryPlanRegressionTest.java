@@ -0,0 +1,270 @@
+package ru.iteco.project.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.iteco.project.domain.ContractStatus;
+import ru.iteco.project.domain.Task;
+import ru.iteco.project.domain.TaskStatus;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.iteco.project.domain.ContractStatus.ContractStatusEnum.TERMINATED;
+import static ru.iteco.project.domain.TaskStatus.TaskStatusEnum.REGISTERED;
+
+/**
+ * Регрессионные тесты планов запросов репозиториев, обслуживаемых индексами v1.5_01. Схема разворачивается
+ * Liquibase в контейнере PostgreSQL, таблицы пользователей, заданий и контрактов заполняются большим объемом данных
+ * (db/query-plan-seed.sql). Для каждого SQL запроса, выполненного методом репозитория, с теми же параметрами
+ * выполняется EXPLAIN; тест завершается ошибкой, если план содержит последовательное чтение (Seq Scan) одной из
+ * заполненных таблиц. Тесты пропускаются, если Docker недоступен
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanRegressionTest.QueryCaptureConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanRegressionTest {
+
+    /*** Таблицы, заполняемые большим объемом данных, последовательное чтение которых считается регрессией */
+    private static final Set<String> SEEDED_TABLES = Set.of("clients", "task", "contract");
+
+    /*** Шаблон комментария Hibernate в начале SQL запроса */
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/\\s*", Pattern.DOTALL);
+
+    /*** SQL запросы с параметрами, выполненные через источник данных приложения */
+    private static final List<QueryInfo> EXECUTED_QUERIES = new CopyOnWriteArrayList<>();
+
+    /*** Экземпляр ObjectMapper для разбора планов запросов в формате JSON */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:12.4")
+            .withDatabaseName("freelance")
+            .withInitScript("schema.sql");
+
+    /*** Признак заполнения таблиц, данные заполняются один раз для всех тестов класса */
+    private static boolean seeded;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ContractStatusRepository contractStatusRepository;
+
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void seed() {
+        if (!seeded) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                    new ClassPathResource("data-postgresql.sql"), new ClassPathResource("db/query-plan-seed.sql"));
+            populator.setSqlScriptEncoding(StandardCharsets.UTF_8.name());
+            populator.execute(dataSource);
+            seeded = true;
+        }
+        EXECUTED_QUERIES.clear();
+    }
+
+
+    @Test
+    void findTasksByCustomerIdUsesIndex() {
+        assertNoSeqScan(() -> taskRepository.findTasksByCustomerId(seededId("customer", 1)));
+    }
+
+    @Test
+    void findTasksByExecutorIdUsesIndex() {
+        assertNoSeqScan(() -> taskRepository.findTasksByExecutorId(seededId("executor", 1)));
+    }
+
+    @Test
+    void findTaskClientsIdsByClientsIdsUsesIndexes() {
+        assertNoSeqScan(() -> taskRepository.findTaskClientsIdsByClientsIds(
+                Arrays.asList(seededId("customer", 1), seededId("customer", 2), seededId("executor", 1))));
+    }
+
+    @Test
+    void streamTasksByCustomerIdUsesIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertNoSeqScan(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Task> tasks = taskRepository.streamTasksByCustomerId(seededId("customer", 1))) {
+                assertTrue(tasks.count() > 0);
+            }
+        }));
+    }
+
+    @Test
+    void lockOverdueTasksIdsUsesIndex() {
+        TaskStatus registered = taskStatusRepository.findTaskStatusByValue(REGISTERED.name()).orElseThrow();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertNoSeqScan(() -> transactionTemplate.executeWithoutResult(status ->
+                taskRepository.lockOverdueTasksIds(registered, LocalDateTime.now().minusDays(10), 500)));
+    }
+
+    @Test
+    void findContractByTaskUsesIndex() {
+        Task task = taskRepository.getOne(seededId("task", 1));
+        assertNoSeqScan(() -> contractRepository.findContractByTask(task));
+    }
+
+    @Test
+    void findContractsByContractStatusUsesIndex() {
+        ContractStatus terminated = contractStatusRepository.findContractStatusByValue(TERMINATED.name())
+                .orElseThrow();
+        assertNoSeqScan(() -> contractRepository.findContractsByContractStatus(terminated));
+    }
+
+
+    /**
+     * Метод выполняет вызов репозитория и проверяет планы всех выполненных им запросов на выборку
+     *
+     * @param repositoryCall - вызов метода репозитория
+     */
+    private void assertNoSeqScan(Runnable repositoryCall) {
+        EXECUTED_QUERIES.clear();
+        repositoryCall.run();
+        List<QueryInfo> queries = new ArrayList<>(EXECUTED_QUERIES);
+
+        int explained = 0;
+        for (QueryInfo queryInfo : queries) {
+            String sql = LEADING_COMMENT.matcher(queryInfo.getQuery()).replaceFirst("");
+            if (!sql.regionMatches(true, 0, "select", 0, "select".length())) {
+                continue;
+            }
+            JsonNode plan = explain(sql, queryInfo.getParametersList());
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan.get(0).get("Plan"), seqScans);
+            assertTrue(seqScans.isEmpty(), () -> "Seq Scan on " + seqScans + " in plan of query:\n" + sql + "\n"
+                    + plan.toPrettyString());
+            explained++;
+        }
+        assertTrue(explained > 0, "Repository call executed no select queries");
+    }
+
+    /**
+     * Метод выполняет EXPLAIN запроса с параметрами, переданными при его выполнении репозиторием
+     *
+     * @param sql            - SQL запрос
+     * @param parametersList - операции установки параметров запроса
+     * @return - план запроса в формате JSON
+     */
+    private JsonNode explain(String sql, List<List<ParameterSetOperation>> parametersList) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            if (!parametersList.isEmpty()) {
+                for (ParameterSetOperation operation : parametersList.get(0)) {
+                    operation.getMethod().invoke(statement, operation.getArgs());
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return OBJECT_MAPPER.readTree(resultSet.getString(1));
+            }
+        } catch (SQLException | ReflectiveOperationException | IOException e) {
+            throw new IllegalStateException("EXPLAIN failed for query: " + sql, e);
+        }
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && SEEDED_TABLES.contains(relation)) {
+            seqScans.add(relation);
+        }
+        node.path("Plans").forEach(child -> collectSeqScans(child, seqScans));
+    }
+
+    /**
+     * Метод вычисляет идентификатор записи, заполненной db/query-plan-seed.sql: CAST(md5(prefix || n) AS uuid)
+     *
+     * @param prefix - префикс идентификатора
+     * @param n      - номер записи
+     * @return - идентификатор записи
+     */
+    private static UUID seededId(String prefix, int n) {
+        String hex = DigestUtils.md5DigestAsHex((prefix + n).getBytes(StandardCharsets.UTF_8));
+        return UUID.fromString(hex.replaceFirst("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})", "$1-$2-$3-$4-$5"));
+    }
+
+
+    /**
+     * Конфигурация перехвата SQL запросов: источник данных оборачивается прокси, сохраняющим выполненные
+     * запросы и операции установки их параметров
+     */
+    @TestConfiguration
+    static class QueryCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor queryCaptureDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ((bean instanceof DataSource) && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .afterQuery((executionInfo, queryInfos) -> EXECUTED_QUERIES.addAll(queryInfos))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+-- Скрипт заполнения таблиц большим объемом данных для проверки планов запросов репозиториев.
+-- Идентификаторы вычисляются по номеру записи: md5('customer' || n), md5('executor' || n), md5('task' || n).
+-- Распределение значений повторяет рабочее: у пользователя десятки заданий, зарегистрированных
+-- и просроченных заданий - единицы процентов, расторгнутых контрактов - доли процента
+
+
+INSERT INTO freelance.clients(id, first_name, last_name, email, role_id, status_id, wallet, created_at, updated_at)
+SELECT CAST(md5('customer' || n) AS uuid),
+       'customer_' || n,
+       'customer_' || n,
+       'customer_' || n || '@mail.ru',
+       'be363ce8-85f2-4d02-90ce-cb3738b9fa01',
+       'be363ce8-85f2-4d02-90ce-cb3738b9fa06',
+       0,
+       now(),
+       now()
+FROM generate_series(1, 10000) AS n;
+
+INSERT INTO freelance.clients(id, first_name, last_name, email, role_id, status_id, wallet, created_at, updated_at)
+SELECT CAST(md5('executor' || n) AS uuid),
+       'executor_' || n,
+       'executor_' || n,
+       'executor_' || n || '@mail.ru',
+       'be363ce8-85f2-4d02-90ce-cb3738b9fa02',
+       'be363ce8-85f2-4d02-90ce-cb3738b9fa06',
+       0,
+       now(),
+       now()
+FROM generate_series(1, 10000) AS n;
+
+
+-- Каждое сотое задание зарегистрировано и не имеет исполнителя, каждое тысячное из них просрочено,
+-- остальные задания выполнены
+INSERT INTO freelance.task(id, customer_id, executor_id, title, description, created_at, task_completion_date,
+                           updated_at, task_status_id, price)
+SELECT CAST(md5('task' || n) AS uuid),
+       CAST(md5('customer' || (n % 10000 + 1)) AS uuid),
+       CASE WHEN n % 100 = 0 THEN NULL ELSE CAST(md5('executor' || (n % 10000 + 1)) AS uuid) END,
+       'title_' || n,
+       'description_' || n,
+       now() - INTERVAL '400 days',
+       CASE
+           WHEN n % 1000 = 0 THEN now() - INTERVAL '30 days'
+           WHEN n % 100 = 0 THEN now() + INTERVAL '30 days'
+           ELSE now() - (n % 365) * INTERVAL '1 day'
+           END,
+       now(),
+       CAST(CASE
+                WHEN n % 100 = 0 THEN 'be363ce8-85f2-4d02-90ce-cb3738b9fa07'
+                ELSE 'be363ce8-85f2-4d02-90ce-cb3738b9fa11'
+           END AS uuid),
+       500
+FROM generate_series(1, 200000) AS n;
+
+
+-- Контракты заключены по заданиям с нечетными номерами, около сотни из них расторгнуты
+INSERT INTO freelance.contract(id, customer_id, executor_id, created_at, task_id, contract_status_id, updated_at)
+SELECT CAST(md5('contract' || n) AS uuid),
+       CAST(md5('customer' || (n % 10000 + 1)) AS uuid),
+       CAST(md5('executor' || (n % 10000 + 1)) AS uuid),
+       now(),
+       CAST(md5('task' || n) AS uuid),
+       CAST(CASE
+                WHEN n % 1001 = 0 THEN 'be363ce8-85f2-4d02-90ce-cb3738b9fa13'
+                ELSE 'be363ce8-85f2-4d02-90ce-cb3738b9fa15'
+           END AS uuid),
+       now()
+FROM generate_series(1, 200000, 2) AS n;
+
+
+ANALYZE freelance.clients;
+ANALYZE freelance.task;
+ANALYZE freelance.contract;
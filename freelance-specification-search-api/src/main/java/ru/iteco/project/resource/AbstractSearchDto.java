@@ -21,6 +21,21 @@ public class AbstractSearchDto implements SearchDto {
     @ApiModelProperty(value = "Дата и время последнего обновления записи", allowEmptyValue = true)
     private SearchUnit updatedAt;
 
+    @ApiModelProperty(value = "Режим постраничного вывода результатов: OFFSET - по номеру страницы (по умолчанию), " +
+            "KEYSET - по курсору (ключу сортировки последней записи)", example = "KEYSET",
+            allowableValues = "OFFSET, KEYSET", allowEmptyValue = true)
+    private String pagingMode;
+
+    @ApiModelProperty(value = "Курсор страницы для режима KEYSET из полей nextCursor/prevCursor предыдущего ответа. " +
+            "Отсутствует при запросе первой страницы", allowEmptyValue = true)
+    private String cursor;
+
+    @ApiModelProperty(value = "Режим подсчета общего количества результатов для режима OFFSET: EXACT - точный подсчет " +
+            "(по умолчанию), NONE - без подсчета, только признак наличия следующей страницы, ESTIMATED - оценка " +
+            "по статистике Postgres, точный подсчет только для небольших выборок", example = "NONE",
+            allowableValues = "EXACT, NONE, ESTIMATED", allowEmptyValue = true)
+    private String countMode;
+
 
     public AbstractSearchDto() {
     }
@@ -50,6 +65,30 @@ public class AbstractSearchDto implements SearchDto {
         this.updatedAt = updatedAt;
     }
 
+    public String getPagingMode() {
+        return pagingMode;
+    }
+
+    public void setPagingMode(String pagingMode) {
+        this.pagingMode = pagingMode;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(String countMode) {
+        this.countMode = countMode;
+    }
+
     @Override
     public Serializable searchData() {
         return this;
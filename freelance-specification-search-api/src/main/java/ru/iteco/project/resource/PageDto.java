@@ -13,18 +13,37 @@ public class PageDto<T> implements Serializable {
     @ApiModelProperty(value = "Список объектов DTO - результатов поиска", required = true, allowEmptyValue = true)
     private List<T> data;
 
-    @ApiModelProperty(value = "Общее количество результатов удовлетворяющих критериям поиска", example = "15",
-            required = true)
-    private long totalElements;
+    @ApiModelProperty(value = "Общее количество результатов удовлетворяющих критериям поиска. " +
+            "Не вычисляется в режиме KEYSET и режиме подсчета NONE", example = "15")
+    private Long totalElements;
 
-    @ApiModelProperty(value = "Общее количество страниц для отображения результатов текущего поиска", example = "20",
-            required = true)
-    private long totalPages;
+    @ApiModelProperty(value = "Общее количество страниц для отображения результатов текущего поиска. " +
+            "Не вычисляется в режиме KEYSET и режиме подсчета NONE", example = "20")
+    private Long totalPages;
+
+    @ApiModelProperty(value = "Признак того, что общее количество результатов является приблизительным " +
+            "(режим подсчета ESTIMATED)", allowEmptyValue = true)
+    private Boolean totalElementsEstimated;
+
+    @ApiModelProperty(value = "Признак наличия следующей страницы результатов", example = "true")
+    private Boolean hasNext;
+
+    @ApiModelProperty(value = "Курсор следующей страницы (режим KEYSET), отсутствует если следующей страницы нет",
+            allowEmptyValue = true)
+    private String nextCursor;
+
+    @ApiModelProperty(value = "Курсор предыдущей страницы (режим KEYSET), отсутствует если предыдущей страницы нет",
+            allowEmptyValue = true)
+    private String prevCursor;
 
 
     public PageDto() {
     }
 
+    public PageDto(List<T> data) {
+        this.data = data;
+    }
+
     public PageDto(List<T> data, long totalElements, long totalPages) {
         this.data = data;
         this.totalElements = totalElements;
@@ -39,19 +58,51 @@ public class PageDto<T> implements Serializable {
         this.data = data;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
-    public long getTotalPages() {
+    public Long getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(long totalPages) {
+    public void setTotalPages(Long totalPages) {
         this.totalPages = totalPages;
     }
+
+    public Boolean getTotalElementsEstimated() {
+        return totalElementsEstimated;
+    }
+
+    public void setTotalElementsEstimated(Boolean totalElementsEstimated) {
+        this.totalElementsEstimated = totalElementsEstimated;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
 }
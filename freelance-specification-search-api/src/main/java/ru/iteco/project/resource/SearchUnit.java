@@ -10,8 +10,9 @@ import java.io.Serializable;
 public class SearchUnit implements Serializable {
 
     @ApiModelProperty(value = "Тип операции поиска для предиката", example = "LIKE",
-            allowableValues = "BETWEEN, NOT_BETWEEN, LIKE, NOT_LIKE, EQUAL, NOT_EQUAL, " +
-                    "LESS_THAN, LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL")
+            allowableValues = "BETWEEN, NOT_BETWEEN, LIKE, NOT_LIKE, ILIKE, NOT_ILIKE, STARTS_WITH, " +
+                    "NOT_STARTS_WITH, FULL_TEXT, NOT_FULL_TEXT, EQUAL, NOT_EQUAL, LESS_THAN, " +
+                    "LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL")
     private String searchOperation;
 
     @ApiModelProperty(value = "Значение искомого поля", example = "500", allowEmptyValue = true)
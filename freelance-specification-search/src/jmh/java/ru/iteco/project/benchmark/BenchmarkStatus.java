@@ -0,0 +1,25 @@
+package ru.iteco.project.benchmark;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Модель данных статуса для построения спецификаций по вложенному атрибуту в SpecificationBenchmark
+ */
+@Entity
+@Table(name = "benchmark_statuses")
+public class BenchmarkStatus {
+
+    /*** Уникальный id статуса */
+    @Id
+    @Column
+    private UUID id;
+
+    /*** Наименование статуса */
+    @Column(nullable = false, unique = true)
+    private String value;
+
+}
@@ -0,0 +1,44 @@
+package ru.iteco.project.benchmark;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Модель данных задания для построения спецификаций поиска в SpecificationBenchmark, повторяет атрибуты
+ * задания, по которым выполняется поиск. Таблица содержит столбец search_vector, не отображаемый на атрибут
+ */
+@Entity
+@Table(name = "benchmark_tasks")
+public class BenchmarkTask {
+
+    /*** Уникальный id задания */
+    @Id
+    @Column
+    private UUID id;
+
+    /*** Заголовок задания */
+    @Column(nullable = false)
+    private String title;
+
+    /*** Стоимость задания */
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    /*** Время создания задания */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /*** Статус задания */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "status_id")
+    private BenchmarkStatus status;
+
+}
@@ -0,0 +1,125 @@
+package ru.iteco.project.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.iteco.project.dialect.FullTextPostgreSQLDialect;
+import ru.iteco.project.enumaration.JoinOperations;
+import ru.iteco.project.mapper.DateTimeMapper;
+import ru.iteco.project.specification.CriteriaObject;
+import ru.iteco.project.specification.SpecificationBuilder;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static ru.iteco.project.enumaration.SearchOperations.*;
+import static ru.iteco.project.specification.SpecificationBuilder.SEARCH_VECTOR_KEY;
+
+/**
+ * Измерение построения спецификаций поиска SpecificationBuilder для типичного набора ограничений поиска заданий.
+ * Сравнивается построение с компиляцией ограничений по метамодели JPA при каждом вызове, построение
+ * из кэша скомпилированных ограничений и создание запроса Hibernate по построенному критерию, при котором
+ * для одинакового набора ограничений используется кэш планов запросов. SessionFactory создается без
+ * подключения к БД, запросы не выполняются
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpecificationBenchmark {
+
+    /*** Установленный формат даты и времени, совпадает с format.date.time */
+    private static final String FORMAT_DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+
+    /*** Фабрика сессий Hibernate с метамоделью сущностей бенчмарка */
+    private SessionFactory sessionFactory;
+
+    /*** Сессия для создания запросов по критериям */
+    private Session session;
+
+    /*** Построитель спецификаций с заполненным кэшем скомпилированных ограничений */
+    private SpecificationBuilder<BenchmarkTask> specificationBuilder;
+
+    /*** Ограничения поиска заданий */
+    private CriteriaObject criteriaObject;
+
+
+    @Setup
+    public void setUp() {
+        new DateTimeMapper().setFormatDateTime(FORMAT_DATE_TIME);
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(BenchmarkStatus.class)
+                .addAnnotatedClass(BenchmarkTask.class)
+                .setProperty(AvailableSettings.DIALECT, FullTextPostgreSQLDialect.class.getName())
+                .setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false")
+                .setProperty(AvailableSettings.CRITERIA_LITERAL_HANDLING_MODE, "bind")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+
+        criteriaObject = new CriteriaObject(JoinOperations.AND, Arrays.asList(
+                CriteriaObject.RestrictionValues.newBuilder()
+                        .setKey("title").setSearchOperation(ILIKE).setValue("ремонт").build(),
+                CriteriaObject.RestrictionValues.newBuilder()
+                        .setKey("price").setSearchOperation(BETWEEN).setMinValue("100").setMaxValue("5000.50").build(),
+                CriteriaObject.RestrictionValues.newBuilder()
+                        .setKey("createdAt").setSearchOperation(GREATER_THAN_OR_EQUAL)
+                        .setValue("2020-11-01 00:00:00").build(),
+                CriteriaObject.RestrictionValues.newBuilder()
+                        .setKey("status.value").setSearchOperation(EQUAL).setTypedValue("REGISTERED").build(),
+                CriteriaObject.RestrictionValues.newBuilder()
+                        .setKey(SEARCH_VECTOR_KEY).setSearchOperation(FULL_TEXT).setValue("ремонт квартиры").build()
+        ));
+
+        specificationBuilder = new SpecificationBuilder<>();
+        buildQuery();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+
+    @Benchmark
+    public CriteriaQuery<BenchmarkTask> compileAndBuildCriteria() {
+        return buildCriteria(new SpecificationBuilder<>());
+    }
+
+    @Benchmark
+    public CriteriaQuery<BenchmarkTask> buildCriteria() {
+        return buildCriteria(specificationBuilder);
+    }
+
+    @Benchmark
+    public Query<BenchmarkTask> buildQuery() {
+        return session.createQuery(buildCriteria(specificationBuilder));
+    }
+
+
+    /**
+     * Метод строит критерий запроса заданий со спецификацией поиска по ограничениям criteriaObject
+     *
+     * @param builder - построитель спецификаций
+     * @return - критерий запроса заданий
+     */
+    private CriteriaQuery<BenchmarkTask> buildCriteria(SpecificationBuilder<BenchmarkTask> builder) {
+        CriteriaBuilder criteriaBuilder = sessionFactory.getCriteriaBuilder();
+        CriteriaQuery<BenchmarkTask> query = criteriaBuilder.createQuery(BenchmarkTask.class);
+        Root<BenchmarkTask> root = query.from(BenchmarkTask.class);
+        return query.where(builder.getSpec(criteriaObject).toPredicate(root, query, criteriaBuilder));
+    }
+
+}
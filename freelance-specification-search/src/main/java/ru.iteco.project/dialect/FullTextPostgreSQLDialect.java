@@ -0,0 +1,68 @@
+package ru.iteco.project.dialect;
+
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Диалект Postgres с функциями полнотекстового поиска, доступными в JPQL и Criteria API.
+ * Первым аргументом функций полнотекстового поиска передается атрибут id сущности, таблица которой содержит
+ * столбец search_vector типа tsvector, вторым - поисковый запрос. Столбец не отображается на атрибут сущности
+ * и не выбирается при загрузке сущностей, функции подставляют его по псевдониму таблицы переданного атрибута.
+ * Дополнительно регистрирует функцию регистронезависимого сравнения с шаблоном через оператор ILIKE, который,
+ * в отличие от lower(?1) like ?2, обслуживается GIN индексами pg_trgm по самому столбцу
+ */
+public class FullTextPostgreSQLDialect extends PostgreSQL10Dialect {
+
+    /*** Столбец с вектором полнотекстового поиска в таблице сущности */
+    public static final String SEARCH_VECTOR_COLUMN = "search_vector";
+
+    /*** Конфигурация полнотекстового поиска, должна совпадать с конфигурацией построения tsvector в БД */
+    public static final String FULL_TEXT_CONFIGURATION = "russian";
+
+    /*** Функция проверки соответствия документа поисковому запросу */
+    public static final String FULL_TEXT_MATCH_FUNCTION = "fts_match";
+
+    /*** Функция вычисления релевантности документа поисковому запросу */
+    public static final String FULL_TEXT_RANK_FUNCTION = "fts_rank";
+
+    /*** Функция регистронезависимой проверки соответствия значения шаблону LIKE */
+    public static final String ILIKE_MATCH_FUNCTION = "ilike_match";
+
+
+    public FullTextPostgreSQLDialect() {
+        super();
+        registerFunction(FULL_TEXT_MATCH_FUNCTION, new SearchVectorFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(?1 @@ websearch_to_tsquery('" + FULL_TEXT_CONFIGURATION + "', ?2))"));
+        registerFunction(FULL_TEXT_RANK_FUNCTION, new SearchVectorFunctionTemplate(StandardBasicTypes.DOUBLE,
+                "ts_rank(?1, websearch_to_tsquery('" + FULL_TEXT_CONFIGURATION + "', ?2))"));
+        registerFunction(ILIKE_MATCH_FUNCTION, new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 ilike ?2)"));
+    }
+
+
+    /**
+     * Шаблон функции полнотекстового поиска: вместо первого аргумента, столбца таблицы сущности, подставляет
+     * столбец search_vector той же таблицы
+     */
+    private static final class SearchVectorFunctionTemplate extends SQLFunctionTemplate {
+
+        private SearchVectorFunctionTemplate(Type type, String template) {
+            super(type, template);
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public String render(Type argumentType, List args, SessionFactoryImplementor factory) {
+            List<Object> searchVectorArgs = new ArrayList<>(args);
+            String column = String.valueOf(args.get(0));
+            searchVectorArgs.set(0, column.substring(0, column.lastIndexOf('.') + 1) + SEARCH_VECTOR_COLUMN);
+            return super.render(argumentType, searchVectorArgs, factory);
+        }
+    }
+
+}
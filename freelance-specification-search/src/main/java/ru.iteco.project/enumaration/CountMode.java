@@ -0,0 +1,35 @@
+package ru.iteco.project.enumaration;
+
+
+import ru.iteco.project.exception.InvalidSearchOperationException;
+
+import java.util.Arrays;
+
+/**
+ * Доступные режимы подсчета общего количества результатов поиска при постраничном выводе по номеру страницы
+ */
+public enum CountMode {
+    /*** Точный подсчет запросом count(*) */
+    EXACT,
+    /*** Подсчет не выполняется, наличие следующей страницы определяется выборкой одной дополнительной записи */
+    NONE,
+    /*** Оценка по статистике планировщика Postgres, точный подсчет выполняется только ниже заданного порога */
+    ESTIMATED;
+
+    /**
+     * Метод получения объекта CountMode по его сроковому представлению
+     *
+     * @param value - строковое представление CountMode
+     * @return - объект CountMode соответствующий переданной строке, EXACT если значение не передано,
+     * или InvalidSearchOperationException, если данного значения не существует
+     */
+    public static CountMode fromString(String value) {
+        if (value != null) {
+            return Arrays.stream(values())
+                    .filter(countMode -> countMode.name().equals(value))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidSearchOperationException("Некорректный режим подсчета результатов!"));
+        }
+        return EXACT;
+    }
+}
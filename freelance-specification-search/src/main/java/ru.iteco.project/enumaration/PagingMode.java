@@ -0,0 +1,33 @@
+package ru.iteco.project.enumaration;
+
+
+import ru.iteco.project.exception.InvalidSearchOperationException;
+
+import java.util.Arrays;
+
+/**
+ * Доступные режимы постраничного вывода результатов поиска
+ */
+public enum PagingMode {
+    /*** Постраничный вывод по номеру страницы (смещению) */
+    OFFSET,
+    /*** Постраничный вывод по курсору - значениям ключа сортировки граничной записи страницы */
+    KEYSET;
+
+    /**
+     * Метод получения объекта PagingMode по его сроковому представлению
+     *
+     * @param value - строковое представление PagingMode
+     * @return - объект PagingMode соответствующий переданной строке, OFFSET если значение не передано,
+     * или InvalidSearchOperationException, если данного значения не существует
+     */
+    public static PagingMode fromString(String value) {
+        if (value != null) {
+            return Arrays.stream(values())
+                    .filter(pagingMode -> pagingMode.name().equals(value))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidSearchOperationException("Некорректный режим постраничного вывода!"));
+        }
+        return OFFSET;
+    }
+}
@@ -32,6 +32,36 @@ public enum SearchOperations {
             return LIKE;
         }
     },
+    ILIKE {
+        public SearchOperations negated() {
+            return NOT_ILIKE;
+        }
+    },
+    NOT_ILIKE {
+        public SearchOperations negated() {
+            return ILIKE;
+        }
+    },
+    STARTS_WITH {
+        public SearchOperations negated() {
+            return NOT_STARTS_WITH;
+        }
+    },
+    NOT_STARTS_WITH {
+        public SearchOperations negated() {
+            return STARTS_WITH;
+        }
+    },
+    FULL_TEXT {
+        public SearchOperations negated() {
+            return NOT_FULL_TEXT;
+        }
+    },
+    NOT_FULL_TEXT {
+        public SearchOperations negated() {
+            return FULL_TEXT;
+        }
+    },
     EQUAL {
         public SearchOperations negated() {
             return NOT_EQUAL;
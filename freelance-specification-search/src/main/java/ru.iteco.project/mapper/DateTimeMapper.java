@@ -9,12 +9,12 @@ import java.time.format.DateTimeFormatter;
 @Component
 public class DateTimeMapper {
 
-    /*** Установленный формат даты и времени*/
-    private static String formatDateTime;
+    /*** Форматтер даты и времени установленного формата, потокобезопасен и создается один раз */
+    private static DateTimeFormatter dateTimeFormatter;
 
     @Value("${format.date.time}")
     public void setFormatDateTime(String formatDateTime) {
-        DateTimeMapper.formatDateTime = formatDateTime;
+        DateTimeMapper.dateTimeFormatter = DateTimeFormatter.ofPattern(formatDateTime);
     }
 
 
@@ -27,7 +27,7 @@ public class DateTimeMapper {
     public static String objectToString(LocalDateTime localDateTime) {
         String dateTimeStr = "";
         if (localDateTime != null) {
-            dateTimeStr = localDateTime.format(DateTimeFormatter.ofPattern(formatDateTime));
+            dateTimeStr = localDateTime.format(dateTimeFormatter);
         }
         return dateTimeStr;
     }
@@ -40,7 +40,7 @@ public class DateTimeMapper {
      */
     public static LocalDateTime stringToObject(String dateTimeStr) {
         if (dateTimeStr != null) {
-            return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ofPattern(formatDateTime));
+            return LocalDateTime.parse(dateTimeStr, dateTimeFormatter);
         }
         return null;
     }
@@ -0,0 +1,81 @@
+package ru.iteco.project.specification;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Описание проекции сущности для поисковых запросов: соответствие свойств интерфейса проекции путям к атрибутам
+ * сущности. По описанию выбираются только необходимые столбцы, без загрузки сущностей в контекст персистентности
+ *
+ * @param <T> - тип сущности поиска
+ * @param <V> - тип интерфейса проекции
+ */
+public class EntityView<T, V> {
+
+    /*** Класс сущности поиска */
+    private final Class<T> domainClass;
+
+    /*** Интерфейс проекции */
+    private final Class<V> viewClass;
+
+    /*** Соответствие имени свойства проекции пути к атрибуту сущности (например, taskStatus -> taskStatus.value) */
+    private final Map<String, String> properties;
+
+
+    private EntityView(Class<T> domainClass, Class<V> viewClass, Map<String, String> properties) {
+        this.domainClass = domainClass;
+        this.viewClass = viewClass;
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+
+    /**
+     * Метод создает пустое описание проекции
+     *
+     * @param domainClass - класс сущности поиска
+     * @param viewClass   - интерфейс проекции
+     * @param <T>         - тип сущности поиска
+     * @param <V>         - тип интерфейса проекции
+     * @return - описание проекции без свойств
+     */
+    public static <T, V> EntityView<T, V> of(Class<T> domainClass, Class<V> viewClass) {
+        return new EntityView<>(domainClass, viewClass, new LinkedHashMap<>());
+    }
+
+    /**
+     * Метод добавляет свойство проекции, значение которого совпадает с одноименным атрибутом сущности
+     *
+     * @param name - имя свойства проекции и атрибута сущности
+     * @return - новое описание проекции с добавленным свойством
+     */
+    public EntityView<T, V> property(String name) {
+        return property(name, name);
+    }
+
+    /**
+     * Метод добавляет свойство проекции
+     *
+     * @param name - имя свойства проекции
+     * @param path - путь к атрибуту сущности, вложенные атрибуты разделяются точкой
+     * @return - новое описание проекции с добавленным свойством
+     */
+    public EntityView<T, V> property(String name, String path) {
+        Map<String, String> newProperties = new LinkedHashMap<>(properties);
+        newProperties.put(name, path);
+        return new EntityView<>(domainClass, viewClass, newProperties);
+    }
+
+    public Class<T> getDomainClass() {
+        return domainClass;
+    }
+
+    public Class<V> getViewClass() {
+        return viewClass;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+}
@@ -0,0 +1,156 @@
+package ru.iteco.project.specification;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import ru.iteco.project.exception.InvalidSearchExpressionException;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Курсор постраничного вывода в режиме KEYSET. Содержит значения ключа сортировки (включая id) граничной записи
+ * страницы, направление перехода и сигнатуру сортировки, для которой курсор был сформирован.
+ * Для клиента курсор представляет собой непрозрачную строку
+ */
+public class KeysetCursor {
+
+    /*** Направление перехода: true - к предыдущей странице, false - к следующей */
+    private final boolean backward;
+
+    /*** Сигнатура сортировки, для которой сформирован курсор */
+    private final String sortSignature;
+
+    /*** Строковые представления значений ключа сортировки граничной записи (null - значение отсутствует) */
+    private final List<String> values;
+
+
+    public KeysetCursor(boolean backward, String sortSignature, List<String> values) {
+        this.backward = backward;
+        this.sortSignature = sortSignature;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    public String getSortSignature() {
+        return sortSignature;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * Метод формирует строковое представление курсора для передачи клиенту
+     *
+     * @return - строка курсора в формате base64url
+     */
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeBoolean(backward);
+            out.writeUTF(sortSignature);
+            out.writeInt(values.size());
+            for (String value : values) {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Метод восстанавливает курсор из строкового представления и проверяет, что он сформирован для переданной сортировки
+     *
+     * @param cursor        - строковое представление курсора
+     * @param sortSignature - сигнатура сортировки текущего запроса
+     * @return - объект курсора
+     * @throws InvalidSearchExpressionException - если курсор поврежден или сформирован для другой сортировки
+     */
+    public static KeysetCursor decode(String cursor, String sortSignature) {
+        KeysetCursor keysetCursor;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII))))) {
+            boolean backward = in.readBoolean();
+            String signature = in.readUTF();
+            int size = in.readInt();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(in.readBoolean() ? in.readUTF() : null);
+            }
+            keysetCursor = new KeysetCursor(backward, signature, values);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid", e);
+        }
+        if (!keysetCursor.getSortSignature().equals(sortSignature)) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+        }
+        return keysetCursor;
+    }
+
+    /**
+     * Метод получения строкового представления значения ключа сортировки для сохранения в курсоре
+     *
+     * @param value - значение атрибута сущности
+     * @return - строковое представление значения или null, если значение отсутствует
+     * @throws InvalidSearchExpressionException - если атрибут не является простым сравнимым значением
+     */
+    public static String toCursorValue(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        } else if ((value instanceof CharSequence) || (value instanceof Number) || (value instanceof Temporal)
+                || (value instanceof Boolean) || (value instanceof UUID)) {
+            return value.toString();
+        }
+        throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+    }
+
+    /**
+     * Метод восстанавливает значение ключа сортировки из строкового представления
+     *
+     * @param value    - строковое представление значения
+     * @param javaType - тип атрибута сущности
+     * @return - значение атрибута сущности или null, если значение отсутствует
+     * @throws InvalidSearchExpressionException - если значение курсора не приводится к типу атрибута
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparable fromCursorValue(String value, Class<?> javaType) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (LocalDateTime.class.equals(javaType)) {
+                return LocalDateTime.parse(value);
+            } else if (LocalDate.class.equals(javaType)) {
+                return LocalDate.parse(value);
+            } else if (javaType.isEnum()) {
+                return Enum.valueOf((Class<Enum>) javaType, value);
+            }
+            return (Comparable) DefaultConversionService.getSharedInstance().convert(value, javaType);
+        } catch (DateTimeException | ConversionException | IllegalArgumentException e) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid", e);
+        }
+    }
+
+}
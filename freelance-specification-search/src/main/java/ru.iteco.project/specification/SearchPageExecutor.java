@@ -0,0 +1,632 @@
+package ru.iteco.project.specification;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.stereotype.Service;
+import ru.iteco.project.enumaration.CountMode;
+import ru.iteco.project.enumaration.PagingMode;
+import ru.iteco.project.resource.AbstractSearchDto;
+import ru.iteco.project.resource.PageDto;
+import ru.iteco.project.resource.SearchDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис предоставляет функционал выполнения поисковых запросов по спецификации с постраничным выводом результатов
+ * в режимах, недоступных стандартному JpaSpecificationExecutor
+ */
+@Service
+public class SearchPageExecutor {
+
+    /*** Наименование уникального идентификатора сущности, замыкающего ключ сортировки в режиме KEYSET */
+    public static final String ID_PROPERTY = "id";
+
+    /*** Количество записей, ниже которого в режиме подсчета ESTIMATED выполняется точный подсчет */
+    @Value("${search.count.estimate.threshold}")
+    private long estimateThreshold;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*** Справочник имен таблиц сущностей для получения статистики планировщика */
+    private final Map<Class<?>, String> tableNames = new ConcurrentHashMap<>();
+
+    /*** Фабрика объектов интерфейсов проекций */
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+
+    /**
+     * Метод определяет запрошен ли постраничный вывод в режиме KEYSET
+     *
+     * @param searchDto - модель с данными для поиска
+     * @return true - запрошен режим KEYSET, false - запрошен режим OFFSET или данные поиска не переданы
+     */
+    public static boolean isKeysetPaging(SearchDto<? extends AbstractSearchDto> searchDto) {
+        return (searchDto != null) && (searchDto.searchData() != null)
+                && (PagingMode.fromString(searchDto.searchData().getPagingMode()) == PagingMode.KEYSET);
+    }
+
+    /**
+     * Метод определяет требуется ли для постраничного вывода точный подсчет общего количества записей
+     *
+     * @param searchDto - модель с данными для поиска
+     * @return true - требуется точный подсчет (режим EXACT или данные поиска не переданы),
+     * false - запрошен режим подсчета NONE или ESTIMATED
+     */
+    public static boolean isExactCount(SearchDto<? extends AbstractSearchDto> searchDto) {
+        return (searchDto == null) || (searchDto.searchData() == null)
+                || (CountMode.fromString(searchDto.searchData().getCountMode()) == CountMode.EXACT);
+    }
+
+    /**
+     * Метод выполняет поиск страницы записей по номеру страницы без точного подсчета общего количества записей.
+     * Наличие следующей страницы определяется выборкой одной дополнительной записи. В режиме NONE подсчет
+     * не выполняется. В режиме ESTIMATED общее количество определяется по статистике планировщика Postgres
+     * (pg_class.reltuples), точный подсчет выполняется только если выборка не превышает
+     * {search.count.estimate.threshold} записей, иначе возвращается оценка, а при наличии критериев поиска -
+     * нижняя граница количества записей
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска или null, если критерии не заданы
+     * @param pageable      - объект пагинации с информацией о номере, размере страницы и сортировке
+     * @param countMode     - строковое представление режима подсчета
+     * @param mapper        - функция преобразования списка сущностей страницы в список dto
+     * @param <T>           - тип сущности поиска
+     * @param <D>           - тип dto результатов поиска
+     * @return - объект PageDto с результатами поиска и признаком наличия следующей страницы
+     */
+    public <T, D> PageDto<D> findOffsetPage(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                            String countMode, Function<List<T>, List<D>> mapper) {
+        return offsetPage(new EntityRowSource<>(domainClass), specification, pageable, countMode, mapper);
+    }
+
+    /**
+     * Метод выполняет поиск страницы проекций по номеру страницы без точного подсчета общего количества записей.
+     * Аналогичен {@link #findOffsetPage(Class, Specification, Pageable, String, Function)}, но выбирает только
+     * описанные в проекции столбцы без загрузки сущностей
+     *
+     * @param view          - описание проекции сущности поиска
+     * @param specification - спецификация с критериями поиска или null, если критерии не заданы
+     * @param pageable      - объект пагинации с информацией о номере, размере страницы и сортировке
+     * @param countMode     - строковое представление режима подсчета
+     * @param mapper        - функция преобразования списка проекций страницы в список dto
+     * @param <T>           - тип сущности поиска
+     * @param <V>           - тип интерфейса проекции
+     * @param <D>           - тип dto результатов поиска
+     * @return - объект PageDto с результатами поиска и признаком наличия следующей страницы
+     */
+    public <T, V, D> PageDto<D> findOffsetPage(EntityView<T, V> view, Specification<T> specification,
+                                               Pageable pageable, String countMode, Function<List<V>, List<D>> mapper) {
+        return offsetPage(new ViewRowSource<>(view), specification, pageable, countMode, rows -> mapper.apply(toViews(rows)));
+    }
+
+    /**
+     * Метод выполняет поиск страницы проекций по номеру страницы с точным подсчетом общего количества записей.
+     * Запрос подсчета не выполняется, если общее количество однозначно определяется по содержимому страницы
+     *
+     * @param view          - описание проекции сущности поиска
+     * @param specification - спецификация с критериями поиска или null, если критерии не заданы
+     * @param pageable      - объект пагинации с информацией о номере, размере страницы и сортировке
+     * @param mapper        - функция преобразования списка проекций страницы в список dto
+     * @param <T>           - тип сущности поиска
+     * @param <V>           - тип интерфейса проекции
+     * @param <D>           - тип dto результатов поиска
+     * @return - объект PageDto с результатами поиска, общим количеством записей и страниц
+     */
+    public <T, V, D> PageDto<D> findPage(EntityView<T, V> view, Specification<T> specification, Pageable pageable,
+                                         Function<List<V>, List<D>> mapper) {
+        int pageSize = pageable.getPageSize();
+        List<ViewRow<V>> rows = findViewRows(view, specification, pageable.getSort(), pageable.getOffset(), pageSize);
+        long total;
+        if (rows.isEmpty() && (pageable.getOffset() > 0)) {
+            total = count(view.getDomainClass(), specification);
+        } else if (rows.size() < pageSize) {
+            total = pageable.getOffset() + rows.size();
+        } else {
+            total = count(view.getDomainClass(), specification);
+        }
+
+        PageDto<D> page = new PageDto<>(mapper.apply(toViews(rows)), total, (total + pageSize - 1) / pageSize);
+        page.setHasNext(pageable.getOffset() + rows.size() < total);
+        return page;
+    }
+
+    /**
+     * Метод выполняет поиск страницы записей по номеру страницы без точного подсчета общего количества записей
+     *
+     * @param source        - источник записей страницы
+     * @param specification - спецификация с критериями поиска
+     * @param pageable      - объект пагинации
+     * @param countMode     - строковое представление режима подсчета
+     * @param mapper        - функция преобразования списка записей страницы в список dto
+     * @return - объект PageDto с результатами поиска и признаком наличия следующей страницы
+     */
+    private <T, R, D> PageDto<D> offsetPage(RowSource<T, R> source, Specification<T> specification, Pageable pageable,
+                                            String countMode, Function<List<R>, List<D>> mapper) {
+        int pageSize = pageable.getPageSize();
+        List<R> rows = source.fetch(specification, pageable.getSort(), pageable.getOffset(), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+
+        PageDto<D> page = new PageDto<>(mapper.apply(hasNext ? rows.subList(0, pageSize) : rows));
+        page.setHasNext(hasNext);
+        if (CountMode.fromString(countMode) == CountMode.ESTIMATED) {
+            fillEstimatedTotals(page, source.getDomainClass(), specification, pageable);
+        }
+        return page;
+    }
+
+    /**
+     * Метод заполняет общее количество записей и страниц для режима подсчета ESTIMATED
+     *
+     * @param page          - объект страницы результатов
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @param pageable      - объект пагинации
+     */
+    private <T, D> void fillEstimatedTotals(PageDto<D> page, Class<T> domainClass, Specification<T> specification,
+                                            Pageable pageable) {
+        long estimate = estimateRows(domainClass);
+        long total;
+        boolean estimated;
+        if ((estimate >= 0) && (estimate <= estimateThreshold)) {
+            total = count(domainClass, specification);
+            estimated = false;
+        } else if (!hasCriteria(domainClass, specification) && (estimate >= 0)) {
+            total = estimate;
+            estimated = true;
+        } else {
+            total = countUpTo(domainClass, specification, estimateThreshold + 1);
+            estimated = total > estimateThreshold;
+        }
+        page.setTotalElements(total);
+        page.setTotalPages((total + pageable.getPageSize() - 1) / pageable.getPageSize());
+        page.setTotalElementsEstimated(estimated);
+    }
+
+    /**
+     * Метод выполняет поиск страницы записей в режиме KEYSET: вместо смещения используется seek-предикат по значениям
+     * ключа сортировки граничной записи предыдущей страницы, поэтому стоимость запроса не зависит от номера страницы.
+     * Запрос подсчета общего количества записей не выполняется
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска или null, если критерии не заданы
+     * @param pageable      - объект пагинации с информацией о размере страницы и сортировке
+     * @param cursor        - курсор страницы из предыдущего ответа или null для первой страницы
+     * @param mapper        - функция преобразования списка сущностей страницы в список dto
+     * @param <T>           - тип сущности поиска
+     * @param <D>           - тип dto результатов поиска
+     * @return - объект PageDto с результатами поиска и курсорами соседних страниц
+     */
+    public <T, D> PageDto<D> findKeysetPage(Class<T> domainClass, Specification<T> specification, Pageable pageable,
+                                            String cursor, Function<List<T>, List<D>> mapper) {
+        return keysetPage(new EntityRowSource<>(domainClass), specification, pageable, cursor, mapper);
+    }
+
+    /**
+     * Метод выполняет поиск страницы проекций в режиме KEYSET. Аналогичен
+     * {@link #findKeysetPage(Class, Specification, Pageable, String, Function)}, но выбирает только описанные
+     * в проекции столбцы и значения ключа сортировки без загрузки сущностей
+     *
+     * @param view          - описание проекции сущности поиска
+     * @param specification - спецификация с критериями поиска или null, если критерии не заданы
+     * @param pageable      - объект пагинации с информацией о размере страницы и сортировке
+     * @param cursor        - курсор страницы из предыдущего ответа или null для первой страницы
+     * @param mapper        - функция преобразования списка проекций страницы в список dto
+     * @param <T>           - тип сущности поиска
+     * @param <V>           - тип интерфейса проекции
+     * @param <D>           - тип dto результатов поиска
+     * @return - объект PageDto с результатами поиска и курсорами соседних страниц
+     */
+    public <T, V, D> PageDto<D> findKeysetPage(EntityView<T, V> view, Specification<T> specification,
+                                               Pageable pageable, String cursor, Function<List<V>, List<D>> mapper) {
+        return keysetPage(new ViewRowSource<>(view), specification, pageable, cursor, rows -> mapper.apply(toViews(rows)));
+    }
+
+    /**
+     * Метод выполняет поиск страницы записей в режиме KEYSET
+     *
+     * @param source        - источник записей страницы
+     * @param specification - спецификация с критериями поиска
+     * @param pageable      - объект пагинации
+     * @param cursor        - курсор страницы из предыдущего ответа или null для первой страницы
+     * @param mapper        - функция преобразования списка записей страницы в список dto
+     * @return - объект PageDto с результатами поиска и курсорами соседних страниц
+     */
+    private <T, R, D> PageDto<D> keysetPage(RowSource<T, R> source, Specification<T> specification, Pageable pageable,
+                                            String cursor, Function<List<R>, List<D>> mapper) {
+        Sort sort = withIdentifier(pageable.getSort());
+        String sortSignature = sort.toString();
+        KeysetCursor keysetCursor = (cursor != null) ? KeysetCursor.decode(cursor, sortSignature) : null;
+        boolean backward = (keysetCursor != null) && keysetCursor.isBackward();
+
+        Sort querySort = backward ? invert(sort) : sort;
+        Specification<T> querySpecification = Specification.where(specification);
+        if (keysetCursor != null) {
+            querySpecification = querySpecification.and(SpecificationBuilder.getSeekSpec(querySort, keysetCursor));
+        }
+
+        int pageSize = pageable.getPageSize();
+        List<R> rows = source.fetch(querySpecification, querySort, 0, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<R> content = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        PageDto<D> page = new PageDto<>(mapper.apply(content));
+        boolean hasNext = !content.isEmpty() && (backward || hasMore);
+        page.setHasNext(hasNext);
+        if (!content.isEmpty()) {
+            boolean hasPrev = backward ? hasMore : (keysetCursor != null);
+            if (hasNext) {
+                page.setNextCursor(buildCursor(source, content.get(content.size() - 1), sort, sortSignature, false));
+            }
+            if (hasPrev) {
+                page.setPrevCursor(buildCursor(source, content.get(0), sort, sortSignature, true));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Метод выполняет поиск записей по спецификации с заданными сортировкой, смещением и лимитом
+     * без запроса подсчета общего количества записей
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @param sort          - сортировка результатов
+     * @param offset        - смещение первой записи
+     * @param limit         - максимальное количество записей
+     * @param <T>           - тип сущности поиска
+     * @return - список найденных записей
+     */
+    public <T> List<T> findAll(Class<T> domainClass, Specification<T> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, builder);
+        query.select(root);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        typedQuery.setMaxResults(limit);
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Метод выполняет поиск проекций по спецификации с заданными сортировкой, смещением и лимитом. Помимо свойств
+     * проекции выбираются значения ключа сортировки, необходимые для формирования курсора
+     *
+     * @param view          - описание проекции сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @param sort          - сортировка результатов
+     * @param offset        - смещение первой записи
+     * @param limit         - максимальное количество записей
+     * @return - список найденных проекций со значениями ключа сортировки
+     */
+    private <T, V> List<ViewRow<V>> findViewRows(EntityView<T, V> view, Specification<T> specification, Sort sort,
+                                                 long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(view.getDomainClass());
+        applySpecification(specification, root, query, builder);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        view.getProperties().values().forEach(path -> selections.add(SpecificationBuilder.getPath(root, path)));
+        sort.forEach(order -> selections.add(SpecificationBuilder.getPath(root, order.getProperty())));
+        query.multiselect(selections);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+        int propertiesCount = view.getProperties().size();
+        List<ViewRow<V>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new HashMap<>();
+            int index = 0;
+            for (String name : view.getProperties().keySet()) {
+                values.put(name, tuple.get(index++));
+            }
+            List<Object> sortValues = new ArrayList<>();
+            for (int i = propertiesCount; i < selections.size(); i++) {
+                sortValues.add(tuple.get(i));
+            }
+            rows.add(new ViewRow<>(projectionFactory.createProjection(view.getViewClass(), values), sortValues));
+        }
+        return rows;
+    }
+
+    /**
+     * Метод получения списка проекций из записей страницы
+     *
+     * @param rows - записи страницы
+     * @return - список проекций
+     */
+    private <V> List<V> toViews(List<ViewRow<V>> rows) {
+        return rows.stream().map(ViewRow::getView).collect(Collectors.toList());
+    }
+
+    /**
+     * Метод выполняет точный подсчет записей, удовлетворяющих спецификации
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @return - количество записей
+     */
+    private <T> long count(Class<T> domainClass, Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, builder);
+        query.select(builder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Метод подсчитывает записи, удовлетворяющие спецификации, но не более заданного количества.
+     * Выбираются только id записей с ограничением LIMIT, поэтому стоимость запроса ограничена
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @param limit         - максимальное количество подсчитываемых записей
+     * @return - количество записей, но не более limit
+     */
+    private <T> long countUpTo(Class<T> domainClass, Specification<T> specification, long limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = builder.createQuery(Object.class);
+        Root<T> root = query.from(domainClass);
+        applySpecification(specification, root, query, builder);
+        query.select(root.get(ID_PROPERTY));
+        return entityManager.createQuery(query)
+                .setMaxResults(Math.toIntExact(limit))
+                .getResultList()
+                .size();
+    }
+
+    /**
+     * Метод определяет содержит ли спецификация критерии поиска
+     *
+     * @param domainClass   - класс сущности поиска
+     * @param specification - спецификация с критериями поиска
+     * @return true - спецификация накладывает условия на выборку, false - не накладывает
+     */
+    private <T> boolean hasCriteria(Class<T> domainClass, Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = builder.createQuery(Object.class);
+        return applySpecification(specification, query.from(domainClass), query, builder);
+    }
+
+    /**
+     * Метод получения оценки количества записей таблицы сущности по статистике планировщика Postgres
+     *
+     * @param domainClass - класс сущности
+     * @return - оценка количества записей или -1, если статистика по таблице еще не собрана
+     */
+    private long estimateRows(Class<?> domainClass) {
+        String tableName = tableNames.computeIfAbsent(domainClass, this::resolveTableName);
+        Number estimate = (Number) entityManager
+                .createNativeQuery("select reltuples from pg_class where oid = cast(:tableName as regclass)")
+                .setParameter("tableName", tableName)
+                .getSingleResult();
+        return (estimate.doubleValue() < 0) ? -1 : estimate.longValue();
+    }
+
+    /**
+     * Метод получения имени таблицы (с указанием схемы) сущности из метамодели Hibernate
+     *
+     * @param domainClass - класс сущности
+     * @return - имя таблицы сущности
+     */
+    private String resolveTableName(Class<?> domainClass) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        return ((AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(domainClass)).getTableName();
+    }
+
+    /**
+     * Метод применяет спецификацию к запросу
+     *
+     * @param specification - спецификация с критериями поиска или null
+     * @param root          - корневой тип
+     * @param query         - формируемый запрос
+     * @param builder       - объект для построения критериев и сложных выборок
+     * @return true - спецификация добавила условие выборки, false - условие отсутствует
+     */
+    private <T> boolean applySpecification(Specification<T> specification, Root<T> root, CriteriaQuery<?> query,
+                                           CriteriaBuilder builder) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Метод дополняет сортировку уникальным id, чтобы порядок записей был строгим
+     *
+     * @param sort - сортировка запроса
+     * @return - сортировка, последним критерием которой является id
+     */
+    private Sort withIdentifier(Sort sort) {
+        if (sort.getOrderFor(ID_PROPERTY) != null) {
+            return sort;
+        }
+        return sort.and(Sort.by(Sort.Direction.ASC, ID_PROPERTY));
+    }
+
+    /**
+     * Метод инвертирует направление всех критериев сортировки (для перехода к предыдущей странице)
+     *
+     * @param sort - сортировка запроса
+     * @return - сортировка с противоположными направлениями критериев
+     */
+    private Sort invert(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.with(order.getDirection().isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Метод формирует курсор по значениям ключа сортировки граничной записи страницы
+     *
+     * @param source        - источник записей страницы
+     * @param row           - граничная запись страницы
+     * @param sort          - сортировка запроса
+     * @param sortSignature - сигнатура сортировки
+     * @param backward      - направление перехода
+     * @return - строковое представление курсора
+     */
+    private <R> String buildCursor(RowSource<?, R> source, R row, Sort sort, String sortSignature, boolean backward) {
+        List<Sort.Order> orders = sort.toList();
+        List<String> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            values.add(KeysetCursor.toCursorValue(source.getSortValue(row, orders.get(i), i)));
+        }
+        return new KeysetCursor(backward, sortSignature, values).encode();
+    }
+
+
+    /**
+     * Источник записей страницы результатов поиска
+     *
+     * @param <T> - тип сущности поиска
+     * @param <R> - тип записи
+     */
+    private interface RowSource<T, R> {
+
+        /**
+         * Метод получения класса сущности поиска
+         *
+         * @return - класс сущности поиска
+         */
+        Class<T> getDomainClass();
+
+        /**
+         * Метод выполняет поиск записей по спецификации с заданными сортировкой, смещением и лимитом
+         *
+         * @param specification - спецификация с критериями поиска
+         * @param sort          - сортировка результатов
+         * @param offset        - смещение первой записи
+         * @param limit         - максимальное количество записей
+         * @return - список найденных записей
+         */
+        List<R> fetch(Specification<T> specification, Sort sort, long offset, int limit);
+
+        /**
+         * Метод получения значения ключа сортировки записи
+         *
+         * @param row   - запись
+         * @param order - критерий сортировки
+         * @param index - порядковый номер критерия в сортировке, с которой была выбрана запись
+         * @return - значение ключа сортировки
+         */
+        Object getSortValue(R row, Sort.Order order, int index);
+    }
+
+    /**
+     * Источник записей в виде сущностей
+     */
+    private class EntityRowSource<T> implements RowSource<T, T> {
+
+        private final Class<T> domainClass;
+
+        EntityRowSource(Class<T> domainClass) {
+            this.domainClass = domainClass;
+        }
+
+        @Override
+        public Class<T> getDomainClass() {
+            return domainClass;
+        }
+
+        @Override
+        public List<T> fetch(Specification<T> specification, Sort sort, long offset, int limit) {
+            return findAll(domainClass, specification, sort, offset, limit);
+        }
+
+        @Override
+        public Object getSortValue(T row, Sort.Order order, int index) {
+            return new BeanWrapperImpl(row).getPropertyValue(order.getProperty());
+        }
+    }
+
+    /**
+     * Источник записей в виде проекций
+     */
+    private class ViewRowSource<T, V> implements RowSource<T, ViewRow<V>> {
+
+        private final EntityView<T, V> view;
+
+        ViewRowSource(EntityView<T, V> view) {
+            this.view = view;
+        }
+
+        @Override
+        public Class<T> getDomainClass() {
+            return view.getDomainClass();
+        }
+
+        @Override
+        public List<ViewRow<V>> fetch(Specification<T> specification, Sort sort, long offset, int limit) {
+            return findViewRows(view, specification, sort, offset, limit);
+        }
+
+        @Override
+        public Object getSortValue(ViewRow<V> row, Sort.Order order, int index) {
+            return row.getSortValues().get(index);
+        }
+    }
+
+    /**
+     * Запись результатов поиска проекций: проекция и значения ключа сортировки
+     */
+    private static class ViewRow<V> {
+
+        private final V view;
+
+        private final List<Object> sortValues;
+
+        ViewRow(V view, List<Object> sortValues) {
+            this.view = view;
+            this.sortValues = sortValues;
+        }
+
+        V getView() {
+            return view;
+        }
+
+        List<Object> getSortValues() {
+            return sortValues;
+        }
+    }
+
+}
@@ -2,14 +2,18 @@ package ru.iteco.project.specification;
 
 import org.hibernate.query.criteria.internal.CriteriaBuilderImpl;
 import org.hibernate.query.criteria.internal.predicate.ComparisonPredicate;
-import ru.iteco.project.enumaration.SearchOperations;
 import ru.iteco.project.mapper.DateTimeMapper;
 
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static ru.iteco.project.dialect.FullTextPostgreSQLDialect.FULL_TEXT_MATCH_FUNCTION;
+import static ru.iteco.project.dialect.FullTextPostgreSQLDialect.ILIKE_MATCH_FUNCTION;
 
 /**
  * Утилитарный класс содержащий методы формирования предикатов поиска
@@ -50,24 +54,19 @@ public class SearchPredicatesUtil {
     /**
      * Метод получения предиката для поиска значений с логической операцией BETWEEN
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> between() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.between(path,
-                        DateTimeMapper.stringToObject(restriction.getMinValue()),
-                        DateTimeMapper.stringToObject(restriction.getMaxValue())
-                );
-            }
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.between(path,
-                        new BigDecimal(restriction.getMinValue()),
-                        new BigDecimal(restriction.getMaxValue())
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> between(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.between(path,
+                        converter.apply(restriction.getMinValue()),
+                        converter.apply(restriction.getMaxValue())
                 );
-            }
-            return cb.isNull(path);
-        };
     }
 
 
@@ -93,121 +92,200 @@ public class SearchPredicatesUtil {
     }
 
 
+    /**
+     * Метод получения предиката для регистронезависимого поиска подстроки с логической операцией ILIKE.
+     * Символы шаблона % и _ в значении экранируются и ищутся буквально
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> ilike() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isTrue(ilikeMatch(cb, path, "%" + escapeLikePattern(restriction.getValue()) + "%"));
+    }
+
+
+    /**
+     * Метод получения предиката для регистронезависимого поиска подстроки с логической операцией NOT_ILIKE
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> notIlike() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isFalse(ilikeMatch(cb, path, "%" + escapeLikePattern(restriction.getValue()) + "%"));
+    }
+
+
+    /**
+     * Метод получения предиката для регистронезависимого поиска по началу значения с логической операцией STARTS_WITH
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> startsWith() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isTrue(ilikeMatch(cb, path, escapeLikePattern(restriction.getValue()) + "%"));
+    }
+
+
+    /**
+     * Метод получения предиката для регистронезависимого поиска по началу значения с логической операцией
+     * NOT_STARTS_WITH
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> notStartsWith() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isFalse(ilikeMatch(cb, path, escapeLikePattern(restriction.getValue()) + "%"));
+    }
+
+
+    /**
+     * Метод получения предиката для полнотекстового поиска с логической операцией FULL_TEXT. Путь должен указывать
+     * на атрибут id сущности, таблица которой содержит столбец search_vector, значение - поисковый запрос в синтаксисе
+     * websearch_to_tsquery (слова, фразы в кавычках, or, исключение через минус)
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> fullText() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isTrue(cb.function(FULL_TEXT_MATCH_FUNCTION, Boolean.class, path, cb.literal(restriction.getValue())));
+    }
+
+
+    /**
+     * Метод получения предиката для полнотекстового поиска с логической операцией NOT_FULL_TEXT
+     *
+     * @return - сформированный объект предиката
+     */
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> notFullText() {
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.isFalse(cb.function(FULL_TEXT_MATCH_FUNCTION, Boolean.class, path, cb.literal(restriction.getValue())));
+    }
+
+
     /**
      * Метод получения предиката для поиска значений с логической операцией LESS_THAN
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> lessThan() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.lessThan(path, DateTimeMapper.stringToObject(restriction.getValue()));
-            }
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.lessThan(path, new BigDecimal(restriction.getValue()));
-            }
-            return cb.isNull(path);
-        };
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> lessThan(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.lessThan(path, converter.apply(restriction.getValue()));
     }
 
 
     /**
      * Метод получения предиката для поиска значений с логической операцией GREATER_THAN
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> greaterThan() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.greaterThan(path, DateTimeMapper.stringToObject(restriction.getValue()));
-            }
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.greaterThan(path, new BigDecimal(restriction.getValue()));
-            }
-            return cb.isNull(path);
-        };
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> greaterThan(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.greaterThan(path, converter.apply(restriction.getValue()));
     }
 
 
     /**
      * Метод получения предиката для поиска значений с логической операцией LESS_THAN_OR_EQUAL
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> lessThanOrEqual() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.lessThanOrEqualTo(path, DateTimeMapper.stringToObject(restriction.getValue()));
-            }
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.lessThanOrEqualTo(path, new BigDecimal(restriction.getValue()));
-            }
-            return cb.isNull(path);
-        };
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> lessThanOrEqual(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.lessThanOrEqualTo(path, converter.apply(restriction.getValue()));
     }
 
 
     /**
      * Метод получения предиката для поиска значений с логической операцией GREATER_THAN_OR_EQUAL
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> greaterThanOrEqual() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.greaterThanOrEqualTo(path, DateTimeMapper.stringToObject(restriction.getValue()));
-            }
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.greaterThanOrEqualTo(path, new BigDecimal(restriction.getValue()));
-            }
-            return cb.isNull(path);
-        };
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> greaterThanOrEqual(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.greaterThanOrEqualTo(path, converter.apply(restriction.getValue()));
     }
 
 
     /**
      * Метод получения предиката для поиска значений с логической операцией NOT_BETWEEN
      *
+     * @param converter - преобразователь строкового значения к типу атрибута или null, если тип не поддерживается
      * @return - сформированный объект предиката
      */
-    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> notBetween() {
-        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> {
+    public static PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> notBetween(
+            Function<String, Comparable> converter) {
+        if (converter == null) {
+            return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) -> cb.isNull(path);
+        }
+        return (CriteriaBuilder cb, Path path, CriteriaObject.RestrictionValues restriction) ->
+                cb.or(
+                        cb.greaterThan(path, converter.apply(restriction.getMaxValue())),
+                        cb.lessThan(path, converter.apply(restriction.getMinValue()))
+                );
+    }
+
+
+    /**
+     * Метод получения преобразователя строкового значения ограничения к типу атрибута сущности. Используется
+     * операциями сравнения и диапазонными операциями, выбирается один раз при компиляции ограничения
+     *
+     * @param javaType - тип атрибута сущности
+     * @return - преобразователь значения или null, если операции сравнения для данного типа не поддерживаются
+     */
+    public static Function<String, Comparable> converterFor(Class<?> javaType) {
+        if (LocalDateTime.class.equals(javaType)) {
+            return DateTimeMapper::stringToObject;
+        }
+        if (BigDecimal.class.equals(javaType)) {
+            return BigDecimal::new;
+        }
+        return null;
+    }
 
-            if (LocalDateTime.class.equals(path.getJavaType())) {
-                return cb.or(
-                        lessThanOrEqual().produce(cb, path,
-                                CriteriaObject.RestrictionValues.newBuilder()
-                                        .setKey(restriction.getKey())
-                                        .setValue(restriction.getMaxValue())
-                                        .setSearchOperation(SearchOperations.GREATER_THAN_OR_EQUAL)
-                                        .build()),
 
-                        lessThan().produce(cb, path,
-                                CriteriaObject.RestrictionValues.newBuilder()
-                                        .setKey(restriction.getKey())
-                                        .setValue(restriction.getMinValue())
-                                        .setSearchOperation(SearchOperations.LESS_THAN_OR_EQUAL)
-                                        .build())
-                );
-            }
-
-            if (BigDecimal.class.equals(path.getJavaType())) {
-                return cb.or(
-                        greaterThan().produce(cb, path,
-                                CriteriaObject.RestrictionValues.newBuilder()
-                                        .setKey(restriction.getKey())
-                                        .setValue(restriction.getMaxValue())
-                                        .setSearchOperation(SearchOperations.GREATER_THAN_OR_EQUAL)
-                                        .build()),
-                        lessThan().produce(cb, path,
-                                CriteriaObject.RestrictionValues.newBuilder()
-                                        .setKey(restriction.getKey())
-                                        .setValue(restriction.getMinValue())
-                                        .setSearchOperation(SearchOperations.LESS_THAN_OR_EQUAL)
-                                        .build())
-                );
-            }
-            return cb.isNull(path);
-        };
+    /**
+     * Метод формирования выражения сравнения атрибута с шаблоном через оператор ILIKE
+     *
+     * @param cb      - построитель критериев
+     * @param path    - путь к строковому атрибуту сущности
+     * @param pattern - шаблон LIKE
+     * @return - логическое выражение ILIKE
+     */
+    private static Expression<Boolean> ilikeMatch(CriteriaBuilder cb, Path path, String pattern) {
+        return cb.function(ILIKE_MATCH_FUNCTION, Boolean.class, path, cb.literal(pattern));
     }
+
+
+    /**
+     * Метод экранирования служебных символов шаблона LIKE (экранирующий символ Postgres по умолчанию - обратный слеш)
+     *
+     * @param value - значение, введенное пользователем
+     * @return - значение, в котором %, _ и обратный слеш сравниваются буквально
+     */
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
 }
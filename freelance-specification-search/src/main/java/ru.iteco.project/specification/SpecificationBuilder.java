@@ -1,20 +1,34 @@
 package ru.iteco.project.specification;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import ru.iteco.project.enumaration.JoinOperations;
 import ru.iteco.project.enumaration.SearchOperations;
+import ru.iteco.project.exception.InvalidSearchExpressionException;
 import ru.iteco.project.resource.SearchUnit;
 
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+import static ru.iteco.project.dialect.FullTextPostgreSQLDialect.FULL_TEXT_RANK_FUNCTION;
 import static ru.iteco.project.enumaration.SearchOperations.*;
 import static ru.iteco.project.specification.SearchPredicatesUtil.*;
 
@@ -24,44 +38,65 @@ import static ru.iteco.project.specification.SearchPredicatesUtil.*;
 @Service
 public class SpecificationBuilder<T> {
 
-    /*** Справочник содержащий наименование операции поиска против метода формирования предиката для этой операции**/
-    private final EnumMap<SearchOperations, PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate>>
+    /*** Наименование свойства сортировки результатов полнотекстового поиска по релевантности */
+    public static final String RELEVANCE_SORT_PROPERTY = "relevance";
+
+    /*** Ключ ограничения полнотекстового поиска и сортировки по релевантности - вектор полнотекстового поиска */
+    public static final String SEARCH_VECTOR_KEY = "searchVector";
+
+    /*** Справочник содержащий наименование операции поиска против фабрики предиката для этой операции. Фабрика
+     * по типу атрибута сущности возвращает предикат с заранее выбранным преобразователем значения**/
+    private final EnumMap<SearchOperations, Function<Class<?>, PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate>>>
             predicatesForSearchOperations = fillPredicatesForSearchOperations();
 
+    /*** Кэш скомпилированных ограничений поиска по сочетанию (сущность, ключ, операция) */
+    private final ConcurrentMap<RestrictionSignature, CompiledRestriction> compiledRestrictions = new ConcurrentHashMap<>();
+
     /**
      * Метод заполнения справочника предикатов predicatesForSearchOperations
      *
-     * @return - заполенный экземпляр EnumMap со значениями предикатов реализованных
-     * в ru.iteco.project.service.specifications.PredicateProducer.java
+     * @return - заполенный экземпляр EnumMap с фабриками предикатов реализованных
+     * в ru.iteco.project.specification.SearchPredicatesUtil.java
      */
     private EnumMap fillPredicatesForSearchOperations() {
-        return new EnumMap<SearchOperations, PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate>>(SearchOperations.class) {{
-            put(EQUAL, equal());
-            put(NOT_EQUAL, notEqual());
+        return new EnumMap<SearchOperations, Function<Class<?>, PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate>>>(SearchOperations.class) {{
+            put(EQUAL, javaType -> equal());
+            put(NOT_EQUAL, javaType -> notEqual());
+
+            put(BETWEEN, javaType -> between(converterFor(javaType)));
+            put(NOT_BETWEEN, javaType -> notBetween(converterFor(javaType)));
+
+            put(LIKE, javaType -> like());
+            put(NOT_LIKE, javaType -> notLike());
 
-            put(BETWEEN, between());
-            put(NOT_BETWEEN, notBetween());
+            put(ILIKE, javaType -> ilike());
+            put(NOT_ILIKE, javaType -> notIlike());
 
-            put(LIKE, like());
-            put(NOT_LIKE, notLike());
+            put(STARTS_WITH, javaType -> startsWith());
+            put(NOT_STARTS_WITH, javaType -> notStartsWith());
 
-            put(LESS_THAN, lessThan());
-            put(GREATER_THAN, greaterThan());
+            put(FULL_TEXT, javaType -> fullText());
+            put(NOT_FULL_TEXT, javaType -> notFullText());
 
-            put(LESS_THAN_OR_EQUAL, lessThanOrEqual());
-            put(GREATER_THAN_OR_EQUAL, greaterThanOrEqual());
+            put(LESS_THAN, javaType -> lessThan(converterFor(javaType)));
+            put(GREATER_THAN, javaType -> greaterThan(converterFor(javaType)));
+
+            put(LESS_THAN_OR_EQUAL, javaType -> lessThanOrEqual(converterFor(javaType)));
+            put(GREATER_THAN_OR_EQUAL, javaType -> greaterThanOrEqual(converterFor(javaType)));
         }};
     }
 
 
     /**
-     * Метод получения спецификации для поиска
+     * Метод получения спецификации для поиска. Если ограничения поиска не заданы, спецификация не накладывает условий
+     * (а не формирует пустую дизъюнкцию, которой не удовлетворяет ни одна запись)
      *
      * @param criteriaObject - объект со всей информаций о критериях и условиях поиска
      * @return - объект спецификации для поиска данных
      */
     public Specification<T> getSpec(final CriteriaObject criteriaObject) {
-        return (root, query, builder) -> buildPredicates(root, builder, criteriaObject);
+        return (root, query, builder) -> criteriaObject.getRestrictions().isEmpty() ?
+                null : buildPredicates(root, builder, criteriaObject);
     }
 
     /**
@@ -74,9 +109,7 @@ public class SpecificationBuilder<T> {
      */
     private Predicate buildPredicates(Root root, CriteriaBuilder builder, final CriteriaObject criteriaObject) {
         Predicate[] predicates = criteriaObject.getRestrictions().stream()
-                .map(restriction -> predicatesForSearchOperations.get(restriction.getSearchOperation())
-                        .produce(builder, root.get(restriction.getKey()), restriction))
-
+                .map(restriction -> compile(root.getModel(), restriction).produce(root, builder, restriction))
                 .toArray(Predicate[]::new);
 
         if (criteriaObject.getJoinOperation() == JoinOperations.AND) {
@@ -85,6 +118,164 @@ public class SpecificationBuilder<T> {
         return builder.or(predicates);
     }
 
+    /**
+     * Метод получения скомпилированного ограничения поиска из кэша. При первом обращении ключ ограничения
+     * проверяется по метамодели JPA, по типу атрибута выбирается фабрика предиката и преобразователь значения
+     *
+     * @param entityType  - метамодель сущности поиска
+     * @param restriction - ограничение поиска
+     * @return - скомпилированное ограничение
+     */
+    private CompiledRestriction compile(EntityType<?> entityType, CriteriaObject.RestrictionValues restriction) {
+        RestrictionSignature signature = new RestrictionSignature(entityType.getJavaType(), restriction.getKey(),
+                restriction.getSearchOperation());
+        return compiledRestrictions.computeIfAbsent(signature, key -> {
+            String[] attributePath = ((key.searchOperation == FULL_TEXT) || (key.searchOperation == NOT_FULL_TEXT)) ?
+                    searchVectorPath(entityType, key.key) : key.key.split("\\.");
+            Class<?> javaType = resolveAttributeType(entityType, attributePath);
+            return new CompiledRestriction(attributePath, predicatesForSearchOperations.get(key.searchOperation).apply(javaType));
+        });
+    }
+
+    /**
+     * Метод получения пути к атрибуту, по таблице которого функции полнотекстового поиска подставляют столбец
+     * search_vector. Вектор не отображается на атрибут сущности, чтобы не выбираться при загрузке сущностей,
+     * поэтому ключ SEARCH_VECTOR_KEY заменяется атрибутом id сущности
+     *
+     * @param entityType - метамодель сущности поиска
+     * @param key        - ключ ограничения
+     * @return - имена атрибутов пути
+     */
+    private static String[] searchVectorPath(EntityType<?> entityType, String key) {
+        if (!SEARCH_VECTOR_KEY.equals(key) || !entityType.hasSingleIdAttribute()) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+        }
+        return new String[]{entityType.getId(entityType.getIdType().getJavaType()).getName()};
+    }
+
+    /**
+     * Метод проверяет путь к атрибуту сущности (в том числе вложенному) по метамодели JPA
+     *
+     * @param entityType    - метамодель сущности поиска
+     * @param attributePath - имена атрибутов пути
+     * @return - тип конечного атрибута пути
+     */
+    private static Class<?> resolveAttributeType(EntityType<?> entityType, String[] attributePath) {
+        ManagedType<?> managedType = entityType;
+        Class<?> javaType = null;
+        for (String attributeName : attributePath) {
+            if (managedType == null) {
+                throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+            }
+            Attribute<?, ?> attribute;
+            try {
+                attribute = managedType.getAttribute(attributeName);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+            }
+            javaType = attribute.getJavaType();
+            managedType = ((attribute instanceof SingularAttribute)
+                    && (((SingularAttribute<?, ?>) attribute).getType() instanceof ManagedType)) ?
+                    (ManagedType<?>) ((SingularAttribute<?, ?>) attribute).getType() : null;
+        }
+        return javaType;
+    }
+
+    /**
+     * Метод получения спецификации поиска записей, следующих в порядке сортировки за граничной записью курсора
+     * (seek-предикат постраничного вывода в режиме KEYSET). Для ключа (k1, ..., kn) формируется условие
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... с учетом направления сортировки и порядка NULL значений
+     * по умолчанию в Postgres (NULLS LAST для ASC, NULLS FIRST для DESC)
+     *
+     * @param sort   - сортировка запроса, последним критерием которой является уникальный id
+     * @param cursor - курсор со значениями ключа сортировки граничной записи
+     * @param <T>    - тип сущности поиска
+     * @return - объект спецификации seek-предиката
+     */
+    public static <T> Specification<T> getSeekSpec(Sort sort, KeysetCursor cursor) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != cursor.getValues().size()) {
+            throw new InvalidSearchExpressionException("errors.search.expression.invalid");
+        }
+        return (root, query, builder) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalities = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Path path = getPath(root, order.getProperty());
+                Comparable value = KeysetCursor.fromCursorValue(cursor.getValues().get(i), path.getJavaType());
+
+                Predicate after = seekAfter(builder, path, value, order.isAscending());
+                if (after != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalities);
+                    alternative.add(after);
+                    alternatives.add(builder.and(alternative.toArray(new Predicate[0])));
+                }
+                equalities.add((value == null) ? builder.isNull(path) : builder.equal(path, value));
+            }
+            return builder.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Метод получения спецификации, упорядочивающей результаты поиска по релевантности полнотекстовому запросу.
+     * Спецификация не накладывает условий на выборку, сортировка не добавляется в запросы подсчета количества.
+     * Сортировка запроса постраничного вывода при этом должна быть пустой, иначе она заменит заданный порядок
+     *
+     * @param key         - ключ вектора полнотекстового поиска SEARCH_VECTOR_KEY
+     * @param searchQuery - полнотекстовый запрос
+     * @param direction   - направление сортировки по релевантности
+     * @param thenSort    - сортировка записей с одинаковой релевантностью
+     * @param <T>         - тип сущности поиска
+     * @return - объект спецификации сортировки по релевантности
+     */
+    public static <T> Specification<T> getRelevanceSpec(String key, String searchQuery, Sort.Direction direction,
+                                                        Sort thenSort) {
+        return (root, query, builder) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<Double> rank = builder.function(FULL_TEXT_RANK_FUNCTION, Double.class,
+                        getPath(root, String.join(".", searchVectorPath(root.getModel(), key))),
+                        builder.literal(searchQuery));
+                List<Order> orders = new ArrayList<>();
+                orders.add(direction.isAscending() ? builder.asc(rank) : builder.desc(rank));
+                orders.addAll(QueryUtils.toOrders(thenSort, root, builder));
+                query.orderBy(orders);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Метод формирует предикат "значение атрибута следует за значением курсора" для одного критерия сортировки
+     *
+     * @param builder   - объект для построения критериев и сложных выборок
+     * @param path      - путь к атрибуту сортировки
+     * @param value     - значение атрибута граничной записи
+     * @param ascending - направление сортировки
+     * @return - предикат или null, если после граничного значения в данном критерии записей быть не может
+     */
+    private static Predicate seekAfter(CriteriaBuilder builder, Path path, Comparable value, boolean ascending) {
+        if (ascending) {
+            return (value == null) ? null : builder.or(builder.greaterThan(path, value), builder.isNull(path));
+        }
+        return (value == null) ? builder.isNotNull(path) : builder.lessThan(path, value);
+    }
+
+    /**
+     * Метод получения пути к атрибуту сущности, в том числе вложенному (например, taskStatus.value)
+     *
+     * @param root     - корневой тип
+     * @param property - наименование атрибута
+     * @return - путь к атрибуту
+     */
+    public static Path getPath(Root root, String property) {
+        Path path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
     /**
      * Метод определяет относится ли операция к диапазонной
      *
@@ -162,4 +353,76 @@ public class SpecificationBuilder<T> {
         }
         return builder;
     }
+
+
+    /**
+     * Сочетание сущности, ключа и операции ограничения поиска - ключ кэша скомпилированных ограничений
+     */
+    private static final class RestrictionSignature {
+
+        /*** Класс сущности поиска */
+        private final Class<?> entityClass;
+
+        /*** Ключ - наименование поля для которого создается ограничение */
+        private final String key;
+
+        /*** Тип операции поиска */
+        private final SearchOperations searchOperation;
+
+
+        private RestrictionSignature(Class<?> entityClass, String key, SearchOperations searchOperation) {
+            this.entityClass = entityClass;
+            this.key = key;
+            this.searchOperation = searchOperation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RestrictionSignature that = (RestrictionSignature) o;
+            return entityClass.equals(that.entityClass) && key.equals(that.key) && searchOperation == that.searchOperation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, key, searchOperation);
+        }
+    }
+
+
+    /**
+     * Скомпилированное ограничение поиска: проверенный путь к атрибуту и фабрика предиката для его типа
+     */
+    private static final class CompiledRestriction {
+
+        /*** Имена атрибутов пути к полю сущности */
+        private final String[] attributePath;
+
+        /*** Фабрика предиката с выбранным преобразователем значения */
+        private final PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> producer;
+
+
+        private CompiledRestriction(String[] attributePath,
+                                    PredicateProducer<CriteriaBuilder, Path, CriteriaObject.RestrictionValues, Predicate> producer) {
+            this.attributePath = attributePath;
+            this.producer = producer;
+        }
+
+        /**
+         * Метод формирует предикат ограничения для конкретного запроса
+         *
+         * @param root        - корневой тип
+         * @param builder     - объект для построения критериев и сложных выборок
+         * @param restriction - ограничение поиска со значениями
+         * @return - предикат ограничения
+         */
+        private Predicate produce(Root root, CriteriaBuilder builder, CriteriaObject.RestrictionValues restriction) {
+            Path path = root;
+            for (String attributeName : attributePath) {
+                path = path.get(attributeName);
+            }
+            return producer.produce(builder, path, restriction);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package ru.iteco.project.specification;
+
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Класс реализует потоковую выгрузку сущностей без постраничного вывода. Сущности читаются из курсора JDBC
+ * порциями, каждая порция преобразуется в DTO, передается получателю и отсоединяется от контекста персистентности,
+ * благодаря чему объем используемой памяти не зависит от количества выгружаемых записей
+ */
+@Service
+public class StreamExportExecutor {
+
+    /*** Количество строк, получаемых драйвером JDBC из БД за одно обращение при потоковой выгрузке */
+    public static final String EXPORT_FETCH_SIZE = "500";
+
+    /*** Количество сущностей, преобразуемых в DTO и отсоединяемых от контекста персистентности за один раз */
+    public static final int EXPORT_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+
+    /**
+     * Метод последовательно передает получателю DTO всех сущностей потока. Должен вызываться внутри транзакции,
+     * в которой был открыт поток сущностей
+     *
+     * @param entities - поток сущностей, полученный из репозитория
+     * @param mapper   - функция преобразования порции сущностей в список DTO
+     * @param consumer - получатель DTO
+     * @param <T>      - тип сущности
+     * @param <D>      - тип DTO
+     */
+    public <T, D> void export(Stream<T> entities, Function<List<T>, List<D>> mapper, Consumer<D> consumer) {
+        try (Stream<T> stream = entities) {
+            Iterator<T> iterator = stream.iterator();
+            List<T> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    flushChunk(chunk, mapper, consumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(chunk, mapper, consumer);
+            }
+        }
+    }
+
+    /**
+     * Метод преобразует порцию сущностей, передает полученные DTO получателю и очищает контекст персистентности
+     * от загруженных сущностей (в том числе от связанных сущностей, подгруженных при преобразовании)
+     */
+    private <T, D> void flushChunk(List<T> chunk, Function<List<T>, List<D>> mapper, Consumer<D> consumer) {
+        mapper.apply(chunk).forEach(consumer);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+}